@@ -1,10 +1,15 @@
 package ru.practicum.shareit.client;
 
 import org.springframework.http.*;
+import org.springframework.http.client.ClientHttpRequest;
+import org.springframework.http.client.ClientHttpResponse;
 import org.springframework.lang.Nullable;
 import org.springframework.web.client.HttpStatusCodeException;
 import org.springframework.web.client.RestTemplate;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.IOException;
+import java.io.InputStream;
 import java.util.List;
 import java.util.Map;
 
@@ -75,6 +80,53 @@ public class BaseClient {
         return makeAndSendRequest(HttpMethod.DELETE, path, userId, parameters, null);
     }
 
+    protected ResponseEntity<StreamingResponseBody> stream(String path, long userId) throws IOException {
+        return stream(path, userId, MediaType.TEXT_EVENT_STREAM);
+    }
+
+    protected ResponseEntity<StreamingResponseBody> stream(String path, long userId, MediaType mediaType)
+            throws IOException {
+        return stream(path, userId, mediaType, Map.of());
+    }
+
+    protected ResponseEntity<StreamingResponseBody> stream(String path, long userId, MediaType mediaType,
+                                                           Map<String, ?> parameters) throws IOException {
+        ClientHttpRequest request = rest.getRequestFactory()
+                .createRequest(rest.getUriTemplateHandler().expand(path, parameters), HttpMethod.GET);
+        request.getHeaders().setAccept(List.of(mediaType, MediaType.APPLICATION_JSON));
+        request.getHeaders().set("X-Sharer-User-Id", String.valueOf(userId));
+        ClientHttpResponse response = request.execute();
+
+        if (!response.getStatusCode().is2xxSuccessful()) {
+            try (response) {
+                byte[] error = response.getBody().readAllBytes();
+                return ResponseEntity.status(response.getStatusCode())
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .body(output -> output.write(error));
+            }
+        }
+
+        StreamingResponseBody body = output -> {
+            try (response; InputStream input = response.getBody()) {
+                byte[] buffer = new byte[8192];
+                int read;
+                while ((read = input.read(buffer)) != -1) {
+                    output.write(buffer, 0, read);
+                    output.flush();
+                }
+            }
+        };
+        MediaType contentType = response.getHeaders().getContentType();
+        ResponseEntity.BodyBuilder builder = ResponseEntity.ok()
+                .contentType(contentType != null ? contentType : mediaType)
+                .cacheControl(CacheControl.noCache());
+        String disposition = response.getHeaders().getFirst(HttpHeaders.CONTENT_DISPOSITION);
+        if (disposition != null) {
+            builder.header(HttpHeaders.CONTENT_DISPOSITION, disposition);
+        }
+        return builder.body(body);
+    }
+
     private <T> ResponseEntity<Object> makeAndSendRequest(HttpMethod method, String path, Long userId, @Nullable Map<String, Object> parameters, @Nullable T body) {
         HttpEntity<T> requestEntity = new HttpEntity<>(body, defaultHeaders(userId));
 
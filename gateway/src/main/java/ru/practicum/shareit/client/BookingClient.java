@@ -3,12 +3,18 @@ package ru.practicum.shareit.client;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.web.client.RestTemplateBuilder;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
 import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 import org.springframework.web.util.DefaultUriBuilderFactory;
+import ru.practicum.shareit.dto.booking.BookingDecisionDto;
 import ru.practicum.shareit.dto.booking.BookingDto;
+import ru.practicum.shareit.dto.booking.BookingSeriesDto;
 
+import java.io.IOException;
+import java.util.List;
 import java.util.Map;
 
 @Service
@@ -29,11 +35,28 @@ public class BookingClient extends BaseClient {
         return post("", userId, bookingDto);
     }
 
+    public ResponseEntity<Object> createBookings(List<BookingDto> bookingDtos, Long userId) {
+        return post("/bulk", userId, bookingDtos);
+    }
+
     public ResponseEntity<Object> updateBookingStatus(Long bookingId, Boolean approved, Long userId) {
         Map<String, Object> parameters = Map.of("approved", approved);
         return patch("/" + bookingId + "?approved={approved}", userId, parameters, null);
     }
 
+    public ResponseEntity<Object> createSeries(BookingSeriesDto seriesDto, Long userId) {
+        return post("/series", userId, seriesDto);
+    }
+
+    public ResponseEntity<Object> updateSeriesStatus(Long seriesId, Boolean approved, Long userId) {
+        Map<String, Object> parameters = Map.of("approved", approved);
+        return patch("/series/" + seriesId + "?approved={approved}", userId, parameters, null);
+    }
+
+    public ResponseEntity<Object> updateBookingStatuses(List<BookingDecisionDto> decisions, Long userId) {
+        return patch("/batch", userId, decisions);
+    }
+
     public ResponseEntity<Object> getBookingById(Long bookingId, Long userId) {
         return get("/" + bookingId, userId);
     }
@@ -55,4 +78,38 @@ public class BookingClient extends BaseClient {
         );
         return get("/owner?state={state}&from={from}&size={size}", userId, parameters);
     }
-}
\ No newline at end of file
+
+    public ResponseEntity<Object> getUserBookingsPage(Long userId, String state, String cursor, int size) {
+        Map<String, Object> parameters = Map.of(
+                "state", state,
+                "cursor", cursor,
+                "size", size
+        );
+        return get("?state={state}&cursor={cursor}&size={size}", userId, parameters);
+    }
+
+    public ResponseEntity<Object> getOwnerBookingsPage(Long userId, String state, String cursor, int size) {
+        Map<String, Object> parameters = Map.of(
+                "state", state,
+                "cursor", cursor,
+                "size", size
+        );
+        return get("/owner?state={state}&cursor={cursor}&size={size}", userId, parameters);
+    }
+
+    public ResponseEntity<Object> getUserBookingsSummary(Long userId) {
+        return get("/summary", userId);
+    }
+
+    public ResponseEntity<Object> getOwnerBookingsSummary(Long userId) {
+        return get("/owner/summary", userId);
+    }
+
+    public ResponseEntity<StreamingResponseBody> streamOwnerBookings(Long userId) throws IOException {
+        return stream("/owner/stream", userId);
+    }
+
+    public ResponseEntity<StreamingResponseBody> exportOwnerBookings(Long userId, String format) throws IOException {
+        return stream("/owner/export?format={format}", userId, MediaType.ALL, Map.of("format", format));
+    }
+}
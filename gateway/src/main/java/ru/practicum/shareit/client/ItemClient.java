@@ -3,13 +3,17 @@ package ru.practicum.shareit.client;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.web.client.RestTemplateBuilder;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
 import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 import org.springframework.web.util.DefaultUriBuilderFactory;
 import ru.practicum.shareit.dto.item.CommentDto;
 import ru.practicum.shareit.dto.item.ItemDto;
 
+import java.io.IOException;
+import java.time.LocalDateTime;
 import java.util.Collections;
 import java.util.Map;
 
@@ -43,17 +47,64 @@ public class ItemClient extends BaseClient {
         }
     }
 
-    public ResponseEntity<Object> getItemsByOwner(Long ownerId) {
-        return get("", ownerId);
+    public ResponseEntity<Object> getItemsByOwner(Long ownerId, int from, int size) {
+        Map<String, Object> parameters = Map.of(
+                "from", from,
+                "size", size
+        );
+        return get("?from={from}&size={size}", ownerId, parameters);
+    }
+
+    public ResponseEntity<StreamingResponseBody> streamItemsByOwner(Long ownerId) throws IOException {
+        return stream("", ownerId, MediaType.APPLICATION_JSON);
+    }
+
+    public ResponseEntity<StreamingResponseBody> exportItemsByOwner(Long ownerId, String format) throws IOException {
+        return stream("/export?format={format}", ownerId, MediaType.ALL, Map.of("format", format));
     }
 
-    public ResponseEntity<Object> searchItems(String text) {
+    public ResponseEntity<Object> searchItems(String text, int from, int size) {
         if (text == null || text.isBlank()) {
             return ResponseEntity.ok(Collections.emptyList());
         }
 
-        Map<String, Object> parameters = Map.of("text", text);
-        return get("/search?text={text}", null, parameters);
+        Map<String, Object> parameters = Map.of(
+                "text", text,
+                "from", from,
+                "size", size
+        );
+        return get("/search?text={text}&from={from}&size={size}", null, parameters);
+    }
+
+    public ResponseEntity<Object> suggestItemNames(String prefix, int size) {
+        Map<String, Object> parameters = Map.of(
+                "prefix", prefix,
+                "size", size
+        );
+        return get("/suggest?prefix={prefix}&size={size}", null, parameters);
+    }
+
+    public ResponseEntity<Object> getItemAvailability(Long itemId, LocalDateTime from, LocalDateTime to,
+                                                      boolean includeWaiting) {
+        Map<String, Object> parameters = Map.of(
+                "from", from,
+                "to", to,
+                "includeWaiting", includeWaiting
+        );
+        return get("/" + itemId + "/availability?from={from}&to={to}&includeWaiting={includeWaiting}",
+                null, parameters);
+    }
+
+    public ResponseEntity<Object> getComments(Long itemId, String cursor, int size) {
+        if (cursor == null) {
+            return get("/" + itemId + "/comments?size={size}", null, Map.of("size", size));
+        }
+
+        Map<String, Object> parameters = Map.of(
+                "cursor", cursor,
+                "size", size
+        );
+        return get("/" + itemId + "/comments?cursor={cursor}&size={size}", null, parameters);
     }
 
     public ResponseEntity<Object> addComment(Long itemId, CommentDto commentDto, Long userId) {
@@ -1,14 +1,26 @@
 package ru.practicum.shareit.controller;
 
 import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Pattern;
+import jakarta.validation.constraints.Size;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.NativeWebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 import ru.practicum.shareit.client.BookingClient;
+import ru.practicum.shareit.dto.booking.BookingDecisionDto;
 import ru.practicum.shareit.dto.booking.BookingDto;
+import ru.practicum.shareit.dto.booking.BookingSeriesDto;
 import ru.practicum.shareit.exception.ValidationException;
+import ru.practicum.shareit.idempotency.IdempotencyStore;
+
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.util.List;
 
 @Slf4j
 @RestController
@@ -17,18 +29,53 @@ import ru.practicum.shareit.exception.ValidationException;
 @Validated
 public class BookingController {
     private final BookingClient bookingClient;
+    private final IdempotencyStore idempotencyStore;
 
     @PostMapping
     public ResponseEntity<Object> createBooking(@Valid @RequestBody BookingDto bookingDto,
-                                                @RequestHeader("X-Sharer-User-Id") Long userId) {
+                                                @RequestHeader("X-Sharer-User-Id") Long userId,
+                                                @RequestHeader(value = IdempotencyStore.HEADER, required = false)
+                                                String idempotencyKey) {
         log.info("POST /bookings - Создание бронирования: {}, пользователь ID: {}", bookingDto, userId);
+        validateDates(bookingDto.getStart(), bookingDto.getEnd());
 
-        if (bookingDto.getStart().isAfter(bookingDto.getEnd()) ||
-                bookingDto.getStart().equals(bookingDto.getEnd())) {
-            throw new ValidationException("Invalid booking dates");
+        return idempotencyStore.execute("POST /bookings", userId, idempotencyKey, bookingDto,
+                () -> bookingClient.createBooking(bookingDto, userId));
+    }
+
+    @PostMapping("/bulk")
+    public ResponseEntity<Object> createBookings(
+            @RequestBody @NotEmpty @Size(max = 20) List<@Valid BookingDto> bookingDtos,
+            @RequestHeader("X-Sharer-User-Id") Long userId,
+            @RequestHeader(value = IdempotencyStore.HEADER, required = false) String idempotencyKey) {
+        log.info("POST /bookings/bulk - Создание {} бронирований, пользователь ID: {}", bookingDtos.size(), userId);
+        bookingDtos.forEach(bookingDto -> validateDates(bookingDto.getStart(), bookingDto.getEnd()));
+
+        return idempotencyStore.execute("POST /bookings/bulk", userId, idempotencyKey, bookingDtos,
+                () -> bookingClient.createBookings(bookingDtos, userId));
+    }
+
+    @PostMapping("/series")
+    public ResponseEntity<Object> createSeries(@Valid @RequestBody BookingSeriesDto seriesDto,
+                                               @RequestHeader("X-Sharer-User-Id") Long userId,
+                                               @RequestHeader(value = IdempotencyStore.HEADER, required = false)
+                                               String idempotencyKey) {
+        log.info("POST /bookings/series - Создание серии бронирований: {}, пользователь ID: {}", seriesDto, userId);
+        validateDates(seriesDto.getStart(), seriesDto.getEnd());
+        if (seriesDto.getUntil().isBefore(seriesDto.getStart())) {
+            throw new ValidationException("Invalid booking series dates");
         }
 
-        return bookingClient.createBooking(bookingDto, userId);
+        return idempotencyStore.execute("POST /bookings/series", userId, idempotencyKey, seriesDto,
+                () -> bookingClient.createSeries(seriesDto, userId));
+    }
+
+    @PatchMapping("/series/{seriesId}")
+    public ResponseEntity<Object> updateSeriesStatus(@PathVariable Long seriesId,
+                                                     @RequestParam Boolean approved,
+                                                     @RequestHeader("X-Sharer-User-Id") Long userId) {
+        log.info("PATCH /bookings/series/{} - Обновление статуса: {}, пользователь ID: {}", seriesId, approved, userId);
+        return bookingClient.updateSeriesStatus(seriesId, approved, userId);
     }
 
     @PatchMapping("/{bookingId}")
@@ -39,6 +86,15 @@ public class BookingController {
         return bookingClient.updateBookingStatus(bookingId, approved, userId);
     }
 
+    @PatchMapping("/batch")
+    public ResponseEntity<Object> updateBookingStatuses(
+            @RequestBody @NotEmpty @Size(max = 100) List<@Valid BookingDecisionDto> decisions,
+            @RequestHeader("X-Sharer-User-Id") Long userId) {
+        log.info("PATCH /bookings/batch - Обновление статусов {} бронирований, пользователь ID: {}",
+                decisions.size(), userId);
+        return bookingClient.updateBookingStatuses(decisions, userId);
+    }
+
     @GetMapping("/{bookingId}")
     public ResponseEntity<Object> getBookingById(@PathVariable Long bookingId,
                                                  @RequestHeader("X-Sharer-User-Id") Long userId) {
@@ -50,17 +106,60 @@ public class BookingController {
     public ResponseEntity<Object> getUserBookings(@RequestHeader("X-Sharer-User-Id") Long userId,
                                                   @RequestParam(defaultValue = "ALL") String state,
                                                   @RequestParam(defaultValue = "0") int from,
-                                                  @RequestParam(defaultValue = "10") int size) {
+                                                  @RequestParam(defaultValue = "10") int size,
+                                                  @RequestParam(required = false) String cursor) {
         log.info("GET /bookings - Получение бронирований пользователя ID: {}, состояние: {}", userId, state);
+        if (cursor != null) {
+            return bookingClient.getUserBookingsPage(userId, state, cursor, size);
+        }
         return bookingClient.getUserBookings(userId, state, from, size);
     }
 
+    @GetMapping("/summary")
+    public ResponseEntity<Object> getUserBookingsSummary(@RequestHeader("X-Sharer-User-Id") Long userId) {
+        log.info("GET /bookings/summary - Получение сводки бронирований пользователя ID: {}", userId);
+        return bookingClient.getUserBookingsSummary(userId);
+    }
+
+    @GetMapping("/owner/summary")
+    public ResponseEntity<Object> getOwnerBookingsSummary(@RequestHeader("X-Sharer-User-Id") Long userId) {
+        log.info("GET /bookings/owner/summary - Получение сводки бронирований владельца ID: {}", userId);
+        return bookingClient.getOwnerBookingsSummary(userId);
+    }
+
     @GetMapping("/owner")
     public ResponseEntity<Object> getOwnerBookings(@RequestHeader("X-Sharer-User-Id") Long userId,
                                                    @RequestParam(defaultValue = "ALL") String state,
                                                    @RequestParam(defaultValue = "0") int from,
-                                                   @RequestParam(defaultValue = "10") int size) {
+                                                   @RequestParam(defaultValue = "10") int size,
+                                                   @RequestParam(required = false) String cursor) {
         log.info("GET /bookings/owner - Получение бронирований владельца ID: {}, состояние: {}", userId, state);
+        if (cursor != null) {
+            return bookingClient.getOwnerBookingsPage(userId, state, cursor, size);
+        }
         return bookingClient.getOwnerBookings(userId, state, from, size);
     }
-}
\ No newline at end of file
+
+    @GetMapping("/owner/export")
+    public ResponseEntity<StreamingResponseBody> exportOwnerBookings(@RequestHeader("X-Sharer-User-Id") Long userId,
+                                                                     @Pattern(regexp = "(?i)ndjson|csv")
+                                                                     @RequestParam(defaultValue = "ndjson") String format,
+                                                                     NativeWebRequest request) throws IOException {
+        log.info("GET /bookings/owner/export - Выгрузка бронирований владельца ID: {}, формат: {}", userId, format);
+        ExportResponses.disableAsyncTimeout(request);
+        return bookingClient.exportOwnerBookings(userId, format);
+    }
+
+    @GetMapping("/owner/stream")
+    public ResponseEntity<StreamingResponseBody> streamOwnerBookings(@RequestHeader("X-Sharer-User-Id") Long userId)
+            throws IOException {
+        log.info("GET /bookings/owner/stream - Подписка на новые бронирования владельца ID: {}", userId);
+        return bookingClient.streamOwnerBookings(userId);
+    }
+
+    private void validateDates(LocalDateTime start, LocalDateTime end) {
+        if (start.isAfter(end) || start.equals(end)) {
+            throw new ValidationException("Invalid booking dates");
+        }
+    }
+}
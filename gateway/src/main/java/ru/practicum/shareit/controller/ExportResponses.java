@@ -0,0 +1,22 @@
+package ru.practicum.shareit.controller;
+
+import org.springframework.web.context.request.NativeWebRequest;
+import org.springframework.web.context.request.async.WebAsyncUtils;
+
+/**
+ * Ответы эндпоинтов выгрузки.
+ */
+public final class ExportResponses {
+    public static final long NO_TIMEOUT = -1L;
+
+    private ExportResponses() {
+    }
+
+    /**
+     * Снимает с запроса общий {@code spring.mvc.async.request-timeout}: проксируемая выгрузка
+     * длится, пока сервер пишет строки.
+     */
+    public static void disableAsyncTimeout(NativeWebRequest request) {
+        WebAsyncUtils.getAsyncManager(request).getAsyncWebRequest().setTimeout(NO_TIMEOUT);
+    }
+}
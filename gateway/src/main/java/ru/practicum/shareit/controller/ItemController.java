@@ -1,15 +1,27 @@
 package ru.practicum.shareit.controller;
 
 import jakarta.validation.Valid;
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Pattern;
+import jakarta.validation.constraints.Positive;
+import jakarta.validation.constraints.PositiveOrZero;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.format.annotation.DateTimeFormat.ISO;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.NativeWebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 import ru.practicum.shareit.client.ItemClient;
 import ru.practicum.shareit.dto.item.CommentDto;
 import ru.practicum.shareit.dto.item.ItemDto;
+import ru.practicum.shareit.exception.BadRequestException;
+import ru.practicum.shareit.idempotency.IdempotencyStore;
 
+import java.io.IOException;
+import java.time.LocalDateTime;
 import java.util.Collections;
 
 @Slf4j
@@ -19,12 +31,16 @@ import java.util.Collections;
 @Validated
 public class ItemController {
     private final ItemClient itemClient;
+    private final IdempotencyStore idempotencyStore;
 
     @PostMapping
     public ResponseEntity<Object> createItem(@Valid @RequestBody ItemDto itemDto,
-                                             @RequestHeader("X-Sharer-User-Id") Long ownerId) {
+                                             @RequestHeader("X-Sharer-User-Id") Long ownerId,
+                                             @RequestHeader(value = IdempotencyStore.HEADER, required = false)
+                                             String idempotencyKey) {
         log.info("POST /items - Создание вещи: {}, владелец ID: {}", itemDto, ownerId);
-        return itemClient.createItem(itemDto, ownerId);
+        return idempotencyStore.execute("POST /items", ownerId, idempotencyKey, itemDto,
+                () -> itemClient.createItem(itemDto, ownerId));
     }
 
     @PatchMapping("/{id}")
@@ -42,14 +58,35 @@ public class ItemController {
         return itemClient.getItemById(id, userId);
     }
 
+    @GetMapping(params = "size")
+    public ResponseEntity<Object> getItemsByOwner(@RequestHeader("X-Sharer-User-Id") Long ownerId,
+                                                  @PositiveOrZero @RequestParam(defaultValue = "0") int from,
+                                                  @Positive @Max(100) @RequestParam int size) {
+        log.info("GET /items - Получение вещей владельца ID: {}, from: {}, size: {}", ownerId, from, size);
+        return itemClient.getItemsByOwner(ownerId, from, size);
+    }
+
     @GetMapping
-    public ResponseEntity<Object> getItemsByOwner(@RequestHeader("X-Sharer-User-Id") Long ownerId) {
-        log.info("GET /items - Получение всех вещей владельца ID: {}", ownerId);
-        return itemClient.getItemsByOwner(ownerId);
+    public ResponseEntity<StreamingResponseBody> streamItemsByOwner(@RequestHeader("X-Sharer-User-Id") Long ownerId)
+            throws IOException {
+        log.info("GET /items - Потоковая выдача всех вещей владельца ID: {}", ownerId);
+        return itemClient.streamItemsByOwner(ownerId);
+    }
+
+    @GetMapping("/export")
+    public ResponseEntity<StreamingResponseBody> exportItemsByOwner(@RequestHeader("X-Sharer-User-Id") Long ownerId,
+                                                                    @Pattern(regexp = "(?i)ndjson|csv")
+                                                                    @RequestParam(defaultValue = "ndjson") String format,
+                                                                    NativeWebRequest request) throws IOException {
+        log.info("GET /items/export - Выгрузка вещей владельца ID: {}, формат: {}", ownerId, format);
+        ExportResponses.disableAsyncTimeout(request);
+        return itemClient.exportItemsByOwner(ownerId, format);
     }
 
     @GetMapping("/search")
-    public ResponseEntity<Object> searchItems(@RequestParam String text) {
+    public ResponseEntity<Object> searchItems(@RequestParam String text,
+                                              @PositiveOrZero @RequestParam(defaultValue = "0") int from,
+                                              @Positive @RequestParam(defaultValue = "10") int size) {
         log.info("GET /items/search - Поиск вещей по тексту: '{}'", text);
 
         if (text == null || text.isBlank()) {
@@ -57,7 +94,41 @@ public class ItemController {
             return ResponseEntity.ok(Collections.emptyList());
         }
 
-        return itemClient.searchItems(text);
+        return itemClient.searchItems(text, from, size);
+    }
+
+    @GetMapping("/suggest")
+    public ResponseEntity<Object> suggestItemNames(@RequestParam String prefix,
+                                                   @Positive @RequestParam(defaultValue = "10") int size) {
+        log.debug("GET /items/suggest - Подсказки по префиксу: '{}'", prefix);
+
+        if (prefix.isBlank()) {
+            return ResponseEntity.ok(Collections.emptyList());
+        }
+
+        return itemClient.suggestItemNames(prefix, size);
+    }
+
+    @GetMapping("/{id}/availability")
+    public ResponseEntity<Object> getItemAvailability(@PathVariable Long id,
+                                                      @RequestParam @DateTimeFormat(iso = ISO.DATE_TIME) LocalDateTime from,
+                                                      @RequestParam @DateTimeFormat(iso = ISO.DATE_TIME) LocalDateTime to,
+                                                      @RequestParam(defaultValue = "false") boolean includeWaiting) {
+        log.info("GET /items/{}/availability - Получение доступности вещи с {} по {}", id, from, to);
+
+        if (!from.isBefore(to)) {
+            throw new BadRequestException("Invalid availability range");
+        }
+
+        return itemClient.getItemAvailability(id, from, to, includeWaiting);
+    }
+
+    @GetMapping("/{id}/comments")
+    public ResponseEntity<Object> getComments(@PathVariable Long id,
+                                              @RequestParam(required = false) String cursor,
+                                              @Positive @Max(100) @RequestParam(defaultValue = "10") int size) {
+        log.info("GET /items/{}/comments - Получение комментариев вещи, курсор: {}", id, cursor);
+        return itemClient.getComments(id, cursor, size);
     }
 
     @PostMapping("/{itemId}/comment")
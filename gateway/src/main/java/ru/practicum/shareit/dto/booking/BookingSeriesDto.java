@@ -0,0 +1,35 @@
+package ru.practicum.shareit.dto.booking;
+
+import jakarta.validation.constraints.Future;
+import jakarta.validation.constraints.FutureOrPresent;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Pattern;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BookingSeriesDto {
+    @NotNull(message = "Item ID cannot be null")
+    private Long itemId;
+
+    @FutureOrPresent(message = "Start date must be in the present or future")
+    @NotNull(message = "Start date cannot be null")
+    private LocalDateTime start;
+
+    @Future(message = "End date must be in the future")
+    @NotNull(message = "End date cannot be null")
+    private LocalDateTime end;
+
+    @NotNull(message = "Frequency cannot be null")
+    @Pattern(regexp = "DAILY|WEEKLY", message = "Frequency must be DAILY or WEEKLY")
+    private String frequency;
+
+    @Future(message = "Until date must be in the future")
+    @NotNull(message = "Until date cannot be null")
+    private LocalDateTime until;
+}
@@ -0,0 +1,127 @@
+package ru.practicum.shareit.idempotency;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Component;
+import ru.practicum.shareit.exception.BadRequestException;
+
+import java.time.Duration;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
+
+/**
+ * Хранилище ответов на запросы с заголовком {@code Idempotency-Key}.
+ * Первый запрос с ключом выполняется, остальные ждут его результата и получают тот же ответ
+ * без повторного обращения к серверу. Выполняющиеся запросы хранятся отдельно от готовых ответов
+ * и не вытесняются до завершения. Запоминаются только успешные ответы: после ответов 4xx, 5xx
+ * и исключений клиент может повторить запрос с тем же ключом. Готовые ответы вытесняются по размеру
+ * и по истечении {@code shareit.idempotency.ttl}.
+ */
+@Slf4j
+@Component
+public class IdempotencyStore {
+    public static final String HEADER = "Idempotency-Key";
+    public static final String REPLAYED_HEADER = "Idempotent-Replayed";
+    private static final int MAX_KEY_LENGTH = 255;
+
+    private final ConcurrentMap<Key, Entry> inFlight = new ConcurrentHashMap<>();
+    private final Cache<Key, Entry> completed;
+    private final Duration waitTimeout;
+
+    public IdempotencyStore(@Value("${shareit.idempotency.maximum-size:10000}") long maximumSize,
+                            @Value("${shareit.idempotency.ttl:PT24H}") Duration ttl,
+                            @Value("${shareit.idempotency.wait-timeout:PT30S}") Duration waitTimeout) {
+        this.completed = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(ttl)
+                .build();
+        this.waitTimeout = waitTimeout;
+    }
+
+    public ResponseEntity<Object> execute(String scope, long userId, String idempotencyKey, Object request,
+                                          Supplier<ResponseEntity<Object>> call) {
+        if (idempotencyKey == null) {
+            return call.get();
+        }
+        if (idempotencyKey.isBlank() || idempotencyKey.length() > MAX_KEY_LENGTH) {
+            throw new BadRequestException("Некорректный заголовок " + HEADER);
+        }
+
+        Key key = new Key(scope, userId, idempotencyKey);
+        while (true) {
+            Entry existing = completed.getIfPresent(key);
+            if (existing == null) {
+                Entry entry = new Entry(request, new CompletableFuture<>());
+                existing = inFlight.putIfAbsent(key, entry);
+                if (existing == null) {
+                    Entry finished = completed.getIfPresent(key);
+                    if (finished == null) {
+                        return complete(key, entry, call);
+                    }
+                    inFlight.remove(key, entry);
+                    entry.response().complete(null);
+                    existing = finished;
+                }
+            }
+            if (!Objects.equals(existing.request(), request)) {
+                throw new IllegalArgumentException(HEADER + " уже использован для другого запроса");
+            }
+            ResponseEntity<Object> response = await(existing);
+            if (response != null) {
+                log.info("Повтор запроса {} с ключом {}, пользователь ID: {}", scope, idempotencyKey, userId);
+                return ResponseEntity.status(response.getStatusCode())
+                        .headers(response.getHeaders())
+                        .header(REPLAYED_HEADER, "true")
+                        .body(response.getBody());
+            }
+        }
+    }
+
+    private ResponseEntity<Object> complete(Key key, Entry entry, Supplier<ResponseEntity<Object>> call) {
+        ResponseEntity<Object> response;
+        try {
+            response = call.get();
+        } catch (RuntimeException e) {
+            inFlight.remove(key, entry);
+            entry.response().complete(null);
+            throw e;
+        }
+        if (response.getStatusCode().is2xxSuccessful()) {
+            completed.put(key, entry);
+            inFlight.remove(key, entry);
+            entry.response().complete(response);
+        } else {
+            inFlight.remove(key, entry);
+            entry.response().complete(response.getStatusCode().is4xxClientError() ? response : null);
+        }
+        return response;
+    }
+
+    private ResponseEntity<Object> await(Entry entry) {
+        try {
+            return entry.response().get(waitTimeout.toMillis(), TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            throw new IllegalArgumentException("Запрос с этим " + HEADER + " ещё выполняется");
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Ожидание ответа прервано", e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException(e.getCause());
+        }
+    }
+
+    private record Key(String scope, long userId, String idempotencyKey) {
+    }
+
+    private record Entry(Object request, CompletableFuture<ResponseEntity<Object>> response) {
+    }
+}
@@ -0,0 +1,51 @@
+package ru.practicum.shareit.gateway.booking;
+
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import ru.practicum.shareit.client.BookingClient;
+import ru.practicum.shareit.controller.BookingController;
+import ru.practicum.shareit.idempotency.IdempotencyStore;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@WebMvcTest(controllers = BookingController.class)
+class BookingControllerGatewayTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @MockBean
+    private BookingClient bookingClient;
+
+    @MockBean
+    private IdempotencyStore idempotencyStore;
+
+    @Test
+    void streamProxyWritesServerEventsAsTheyArrive() throws Exception {
+        StreamingResponseBody body = output -> output.write("event:booking\ndata:{\"bookingId\":1}\n\n".getBytes());
+        Mockito.when(bookingClient.streamOwnerBookings(1L)).thenReturn(ResponseEntity.ok()
+                .contentType(MediaType.TEXT_EVENT_STREAM)
+                .body(body));
+
+        MvcResult result = mockMvc.perform(get("/bookings/owner/stream").header("X-Sharer-User-Id", 1L))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith(MediaType.TEXT_EVENT_STREAM))
+                .andExpect(content().string("event:booking\ndata:{\"bookingId\":1}\n\n"));
+    }
+}
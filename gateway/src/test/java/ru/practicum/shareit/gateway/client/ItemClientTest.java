@@ -0,0 +1,108 @@
+package ru.practicum.shareit.gateway.client;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.client.RestClientTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.test.web.client.MockRestServiceServer;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import ru.practicum.shareit.client.ItemClient;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.springframework.test.web.client.match.MockRestRequestMatchers.header;
+import static org.springframework.test.web.client.match.MockRestRequestMatchers.method;
+import static org.springframework.test.web.client.match.MockRestRequestMatchers.requestTo;
+import static org.springframework.test.web.client.response.MockRestResponseCreators.withSuccess;
+
+@RestClientTest(ItemClient.class)
+class ItemClientTest {
+
+    @Autowired
+    private ItemClient itemClient;
+
+    @Autowired
+    private MockRestServiceServer server;
+
+    @Test
+    void searchItems() {
+        server.expect(requestTo("http://localhost:9090/items/search?text=drill&from=20&size=10"))
+                .andExpect(method(HttpMethod.GET))
+                .andRespond(withSuccess("[]", MediaType.APPLICATION_JSON));
+
+        itemClient.searchItems("drill", 20, 10);
+        server.verify();
+    }
+
+    @Test
+    void getItemAvailability() {
+        server.expect(requestTo("http://localhost:9090/items/7/availability"
+                        + "?from=2024-06-01T10%3A00&to=2024-06-08T10%3A00&includeWaiting=true"))
+                .andExpect(method(HttpMethod.GET))
+                .andRespond(withSuccess("{}", MediaType.APPLICATION_JSON));
+
+        itemClient.getItemAvailability(7L, LocalDateTime.of(2024, 6, 1, 10, 0),
+                LocalDateTime.of(2024, 6, 8, 10, 0), true);
+        server.verify();
+    }
+
+    @Test
+    void getComments() {
+        server.expect(requestTo("http://localhost:9090/items/7/comments?size=20"))
+                .andExpect(method(HttpMethod.GET))
+                .andRespond(withSuccess("{}", MediaType.APPLICATION_JSON));
+        server.expect(requestTo("http://localhost:9090/items/7/comments?cursor=MjAyNHwx&size=20"))
+                .andExpect(method(HttpMethod.GET))
+                .andRespond(withSuccess("{}", MediaType.APPLICATION_JSON));
+
+        itemClient.getComments(7L, null, 20);
+        itemClient.getComments(7L, "MjAyNHwx", 20);
+        server.verify();
+    }
+
+    @Test
+    void getItemsByOwnerPassesPageAndStreamsWithoutIt() throws IOException {
+        server.expect(requestTo("http://localhost:9090/items?from=20&size=10"))
+                .andExpect(header("X-Sharer-User-Id", "3"))
+                .andRespond(withSuccess("[]", MediaType.APPLICATION_JSON));
+        server.expect(requestTo("http://localhost:9090/items"))
+                .andExpect(header("X-Sharer-User-Id", "3"))
+                .andRespond(withSuccess("[{\"id\":1}]", MediaType.APPLICATION_JSON));
+
+        itemClient.getItemsByOwner(3L, 20, 10);
+        ResponseEntity<?> streamed = itemClient.streamItemsByOwner(3L);
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        ((StreamingResponseBody) streamed.getBody()).writeTo(output);
+
+        assertEquals(MediaType.APPLICATION_JSON, streamed.getHeaders().getContentType());
+        assertEquals("[{\"id\":1}]", output.toString(StandardCharsets.UTF_8));
+        server.verify();
+    }
+
+    @Test
+    void exportItemsByOwnerProxiesBodyAndHeaders() throws IOException {
+        HttpHeaders headers = new HttpHeaders();
+        headers.set(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"items.csv\"");
+        server.expect(requestTo("http://localhost:9090/items/export?format=csv"))
+                .andExpect(header("X-Sharer-User-Id", "3"))
+                .andRespond(withSuccess("id,name\r\n1,Дрель\r\n", MediaType.parseMediaType("text/csv;charset=UTF-8"))
+                        .headers(headers));
+
+        ResponseEntity<?> exported = itemClient.exportItemsByOwner(3L, "csv");
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        ((StreamingResponseBody) exported.getBody()).writeTo(output);
+
+        assertEquals(MediaType.parseMediaType("text/csv;charset=UTF-8"), exported.getHeaders().getContentType());
+        assertEquals("attachment; filename=\"items.csv\"",
+                exported.getHeaders().getFirst(HttpHeaders.CONTENT_DISPOSITION));
+        assertEquals("id,name\r\n1,Дрель\r\n", output.toString(StandardCharsets.UTF_8));
+        server.verify();
+    }
+}
@@ -0,0 +1,144 @@
+package ru.practicum.shareit.gateway.idempotency;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import ru.practicum.shareit.idempotency.IdempotencyStore;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class IdempotencyStoreTest {
+    private final IdempotencyStore store = new IdempotencyStore(100, Duration.ofMinutes(1), Duration.ofSeconds(5));
+
+    @Test
+    void replayReturnsStoredResponseWithoutSecondCall() {
+        AtomicInteger calls = new AtomicInteger();
+
+        ResponseEntity<Object> first = store.execute("POST /items", 1L, "key-1", Map.of("name", "Дрель"),
+                () -> ResponseEntity.status(HttpStatus.CREATED).body(Map.of("id", calls.incrementAndGet())));
+        ResponseEntity<Object> replay = store.execute("POST /items", 1L, "key-1", Map.of("name", "Дрель"),
+                () -> ResponseEntity.status(HttpStatus.CREATED).body(Map.of("id", calls.incrementAndGet())));
+
+        assertEquals(1, calls.get());
+        assertEquals(HttpStatus.CREATED, replay.getStatusCode());
+        assertEquals(first.getBody(), replay.getBody());
+        assertEquals("true", replay.getHeaders().getFirst(IdempotencyStore.REPLAYED_HEADER));
+    }
+
+    @Test
+    void concurrentDuplicateWaitsForFirstRequest() throws Exception {
+        AtomicInteger calls = new AtomicInteger();
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+
+        CompletableFuture<ResponseEntity<Object>> first = CompletableFuture.supplyAsync(() ->
+                store.execute("POST /bookings", 2L, "key-2", "booking", () -> {
+                    calls.incrementAndGet();
+                    started.countDown();
+                    await(release);
+                    return ResponseEntity.ok("created");
+                }));
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+        CompletableFuture<ResponseEntity<Object>> duplicate = CompletableFuture.supplyAsync(() ->
+                store.execute("POST /bookings", 2L, "key-2", "booking", () -> {
+                    calls.incrementAndGet();
+                    return ResponseEntity.ok("duplicate");
+                }));
+
+        Thread.sleep(100);
+        assertFalse(duplicate.isDone());
+        release.countDown();
+
+        assertEquals("created", first.get(5, TimeUnit.SECONDS).getBody());
+        assertEquals("created", duplicate.get(5, TimeUnit.SECONDS).getBody());
+        assertEquals(1, calls.get());
+    }
+
+    @Test
+    void sameKeyWithDifferentRequestIsRejected() {
+        store.execute("POST /items", 3L, "key-3", "first", () -> ResponseEntity.ok("ok"));
+
+        assertThrows(IllegalArgumentException.class,
+                () -> store.execute("POST /items", 3L, "key-3", "second", () -> ResponseEntity.ok("ok")));
+    }
+
+    @Test
+    void serverErrorIsNotStored() {
+        AtomicInteger calls = new AtomicInteger();
+
+        store.execute("POST /items", 4L, "key-4", "item", () -> {
+            calls.incrementAndGet();
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).build();
+        });
+        ResponseEntity<Object> retry = store.execute("POST /items", 4L, "key-4", "item", () -> {
+            calls.incrementAndGet();
+            return ResponseEntity.ok("ok");
+        });
+
+        assertEquals(2, calls.get());
+        assertEquals(HttpStatus.OK, retry.getStatusCode());
+    }
+
+    @Test
+    void clientErrorIsNotStored() {
+        AtomicInteger calls = new AtomicInteger();
+
+        store.execute("POST /bookings", 5L, "key-5", "booking", () -> {
+            calls.incrementAndGet();
+            return ResponseEntity.status(HttpStatus.CONFLICT).body("already booked");
+        });
+        ResponseEntity<Object> retry = store.execute("POST /bookings", 5L, "key-5", "booking", () -> {
+            calls.incrementAndGet();
+            return ResponseEntity.ok("created");
+        });
+
+        assertEquals(2, calls.get());
+        assertEquals(HttpStatus.OK, retry.getStatusCode());
+        assertNull(retry.getHeaders().getFirst(IdempotencyStore.REPLAYED_HEADER));
+    }
+
+    @Test
+    void inFlightRequestIsNotEvictedBySize() throws Exception {
+        IdempotencyStore small = new IdempotencyStore(1, Duration.ofMinutes(1), Duration.ofSeconds(5));
+        AtomicInteger calls = new AtomicInteger();
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+
+        CompletableFuture<ResponseEntity<Object>> first = CompletableFuture.supplyAsync(() ->
+                small.execute("POST /bookings", 6L, "key-6", "booking", () -> {
+                    calls.incrementAndGet();
+                    started.countDown();
+                    await(release);
+                    return ResponseEntity.ok("created");
+                }));
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+        for (int i = 0; i < 100; i++) {
+            small.execute("POST /items", 7L, "other-" + i, "item", () -> ResponseEntity.ok("ok"));
+        }
+        CompletableFuture<ResponseEntity<Object>> duplicate = CompletableFuture.supplyAsync(() ->
+                small.execute("POST /bookings", 6L, "key-6", "booking", () -> {
+                    calls.incrementAndGet();
+                    return ResponseEntity.ok("duplicate");
+                }));
+        release.countDown();
+
+        assertEquals("created", first.get(5, TimeUnit.SECONDS).getBody());
+        assertEquals("created", duplicate.get(5, TimeUnit.SECONDS).getBody());
+        assertEquals(1, calls.get());
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,50 @@
+package ru.practicum.shareit.gateway.item;
+
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.http.ResponseEntity;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import ru.practicum.shareit.client.ItemClient;
+import ru.practicum.shareit.controller.ExportResponses;
+import ru.practicum.shareit.controller.ItemController;
+import ru.practicum.shareit.idempotency.IdempotencyStore;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@WebMvcTest(controllers = ItemController.class)
+class ItemControllerGatewayTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @MockBean
+    private ItemClient itemClient;
+
+    @MockBean
+    private IdempotencyStore idempotencyStore;
+
+    @Test
+    void exportProxyRunsWithoutAsyncTimeout() throws Exception {
+        StreamingResponseBody body = output -> output.write("{\"id\":1}\n".getBytes());
+        Mockito.doReturn(ResponseEntity.ok(body)).when(itemClient).exportItemsByOwner(1L, "ndjson");
+
+        MvcResult result = mockMvc.perform(get("/items/export").header("X-Sharer-User-Id", 1L))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        assertEquals(ExportResponses.NO_TIMEOUT, result.getRequest().getAsyncContext().getTimeout());
+
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(content().string("{\"id\":1}\n"));
+    }
+}
@@ -0,0 +1,55 @@
+package ru.practicum.shareit.availability;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import ru.practicum.shareit.cache.ItemVersions;
+import ru.practicum.shareit.dto.item.ItemAvailabilityDto;
+import ru.practicum.shareit.event.BookingChangedEvent;
+import ru.practicum.shareit.event.BookingSeriesChangedEvent;
+
+import java.time.LocalDateTime;
+import java.util.function.Supplier;
+
+/**
+ * Кэш календарей доступности вещей. Ключ включает версию вещи: изменение бронирования
+ * увеличивает версию, и все календари вещи перестают находиться в кэше без перебора ключей.
+ * Число хранимых версий ограничено размером кэша, см. {@link ItemVersions}.
+ */
+@Component
+public class AvailabilityCache {
+    private final Cache<Key, ItemAvailabilityDto> cache;
+    private final ItemVersions versions;
+
+    public AvailabilityCache(AvailabilityCacheProperties properties) {
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(properties.getMaximumSize())
+                .expireAfterWrite(properties.getExpireAfterWrite())
+                .build();
+        this.versions = new ItemVersions(properties.getMaximumSize(), properties.getExpireAfterWrite());
+    }
+
+    public ItemAvailabilityDto get(Long itemId, LocalDateTime from, LocalDateTime to, boolean includeWaiting,
+                                   Supplier<ItemAvailabilityDto> loader) {
+        Key key = new Key(itemId, versions.current(itemId), from, to, includeWaiting);
+        return cache.get(key, k -> loader.get());
+    }
+
+    public void invalidate(Long itemId) {
+        versions.next(itemId);
+    }
+
+    @TransactionalEventListener
+    public void onBookingChanged(BookingChangedEvent event) {
+        invalidate(event.getItemId());
+    }
+
+    @TransactionalEventListener
+    public void onBookingSeriesChanged(BookingSeriesChangedEvent event) {
+        invalidate(event.getItemId());
+    }
+
+    private record Key(Long itemId, long version, LocalDateTime from, LocalDateTime to, boolean includeWaiting) {
+    }
+}
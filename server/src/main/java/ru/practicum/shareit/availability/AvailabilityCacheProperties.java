@@ -0,0 +1,14 @@
+package ru.practicum.shareit.availability;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@Data
+@ConfigurationProperties(prefix = "shareit.availability-cache")
+public class AvailabilityCacheProperties {
+    private long maximumSize = 10_000;
+    private Duration expireAfterWrite = Duration.ofMinutes(10);
+    private Duration maxRange = Duration.ofDays(366);
+}
@@ -0,0 +1,73 @@
+package ru.practicum.shareit.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import ru.practicum.shareit.dto.item.ItemDto;
+import ru.practicum.shareit.event.CommentAddedEvent;
+import ru.practicum.shareit.event.ItemSavedEvent;
+import ru.practicum.shareit.event.UserRenamedEvent;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * Кэш карточек вещей вместе с комментариями. Ключ включает версию вещи и поколение кэша;
+ * после коммита изменения версия увеличивается, поэтому значение, загруженное параллельно с записью,
+ * остаётся под старым ключом и больше не возвращается. Версии хранятся в {@link ItemVersions}
+ * того же размера, что и кэш. Переименование пользователя меняет поколение,
+ * так как имя автора входит в комментарии.
+ */
+@Component
+public class ItemDetailCache {
+    private final Cache<Key, ItemDto> cache;
+    private final ItemVersions versions;
+    private final AtomicLong generation = new AtomicLong();
+
+    public ItemDetailCache(ItemDetailCacheProperties properties, MeterRegistry meterRegistry) {
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(properties.getMaximumSize())
+                .expireAfterWrite(properties.getExpireAfterWrite())
+                .recordStats()
+                .build();
+        this.versions = new ItemVersions(properties.getMaximumSize(), properties.getExpireAfterWrite());
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "itemDetails");
+    }
+
+    public ItemDto get(Long itemId, Supplier<ItemDto> loader) {
+        Key key = new Key(itemId, versions.current(itemId), generation.get());
+        return cache.get(key, k -> loader.get());
+    }
+
+    public void invalidate(Long itemId) {
+        long previous = versions.current(itemId);
+        versions.next(itemId);
+        cache.invalidate(new Key(itemId, previous, generation.get()));
+    }
+
+    public void invalidateAll() {
+        generation.incrementAndGet();
+        cache.invalidateAll();
+    }
+
+    @TransactionalEventListener
+    public void onItemSaved(ItemSavedEvent event) {
+        invalidate(event.getItem().getId());
+    }
+
+    @TransactionalEventListener
+    public void onCommentAdded(CommentAddedEvent event) {
+        invalidate(event.getItemId());
+    }
+
+    @TransactionalEventListener
+    public void onUserRenamed(UserRenamedEvent event) {
+        invalidateAll();
+    }
+
+    private record Key(Long itemId, long version, long generation) {
+    }
+}
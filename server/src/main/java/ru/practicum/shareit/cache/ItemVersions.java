@@ -0,0 +1,42 @@
+package ru.practicum.shareit.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.RemovalCause;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Версии вещей для ключей кэшей. Версии выдаются из общего возрастающего счётчика и хранятся
+ * в ограниченном кэше; при вытеснении версия поднимает общий нижний порог, с которого начинают
+ * вещи без записи. Поэтому значения, загруженные до последнего изменения вещи, не находятся
+ * и после того, как её версия вытеснена.
+ */
+public class ItemVersions {
+    private final Cache<Long, Long> versions;
+    private final AtomicLong counter = new AtomicLong();
+    private final AtomicLong floor = new AtomicLong();
+
+    public ItemVersions(long maximumSize, Duration expireAfterAccess) {
+        this.versions = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterAccess(expireAfterAccess)
+                .evictionListener((Long itemId, Long version, RemovalCause cause) ->
+                        floor.accumulateAndGet(version, Math::max))
+                .build();
+    }
+
+    public long current(Long itemId) {
+        return versions.get(itemId, id -> floor.get());
+    }
+
+    public long next(Long itemId) {
+        long version = counter.incrementAndGet();
+        return versions.asMap().merge(itemId, version, Math::max);
+    }
+
+    public long size() {
+        return versions.estimatedSize();
+    }
+}
@@ -1,20 +1,41 @@
 package ru.practicum.shareit.controller;
 
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.NativeWebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import ru.practicum.shareit.dto.PageDto;
+import ru.practicum.shareit.dto.booking.BookingDecisionDto;
+import ru.practicum.shareit.dto.booking.BookingDecisionResultDto;
 import ru.practicum.shareit.dto.booking.BookingDto;
 import ru.practicum.shareit.dto.booking.BookingResponseDto;
+import ru.practicum.shareit.dto.booking.BookingSeriesDto;
+import ru.practicum.shareit.dto.booking.BookingSeriesResponseDto;
+import ru.practicum.shareit.dto.booking.BookingSummaryDto;
+import ru.practicum.shareit.export.ExportFormat;
+import ru.practicum.shareit.service.BookingSeriesService;
 import ru.practicum.shareit.service.BookingService;
+import ru.practicum.shareit.service.ExportService;
 
 import java.util.List;
 
 @Slf4j
+@Validated
 @RestController
 @RequestMapping(path = "/bookings")
 @RequiredArgsConstructor
 public class BookingController {
     private final BookingService bookingService;
+    private final BookingSeriesService seriesService;
+    private final ExportService exportService;
 
     @PostMapping
     public BookingResponseDto createBooking(@RequestBody BookingDto bookingDto,
@@ -25,6 +46,34 @@ public class BookingController {
         return result;
     }
 
+    @PostMapping("/bulk")
+    public List<BookingResponseDto> createBookings(@RequestBody List<BookingDto> bookingDtos,
+                                                   @RequestHeader("X-Sharer-User-Id") Long userId) {
+        log.info("POST /bookings/bulk - Создание {} бронирований, пользователь ID: {}", bookingDtos.size(), userId);
+        List<BookingResponseDto> result = bookingService.createBookings(bookingDtos, userId);
+        log.info("Бронирования созданы: {}", result);
+        return result;
+    }
+
+    @PostMapping("/series")
+    public BookingSeriesResponseDto createSeries(@RequestBody BookingSeriesDto seriesDto,
+                                                 @RequestHeader("X-Sharer-User-Id") Long userId) {
+        log.info("POST /bookings/series - Создание серии бронирований: {}, пользователь ID: {}", seriesDto, userId);
+        BookingSeriesResponseDto result = seriesService.createSeries(seriesDto, userId);
+        log.info("Серия бронирований создана: {}", result);
+        return result;
+    }
+
+    @PatchMapping("/series/{seriesId}")
+    public BookingSeriesResponseDto updateSeriesStatus(@PathVariable Long seriesId,
+                                                       @RequestParam Boolean approved,
+                                                       @RequestHeader("X-Sharer-User-Id") Long userId) {
+        log.info("PATCH /bookings/series/{} - Обновление статуса: {}, пользователь ID: {}", seriesId, approved, userId);
+        BookingSeriesResponseDto result = seriesService.updateSeriesStatus(seriesId, approved, userId);
+        log.info("Статус серии бронирований обновлен: {}", result);
+        return result;
+    }
+
     @PatchMapping("/{bookingId}")
     public BookingResponseDto updateBookingStatus(@PathVariable Long bookingId,
                                                   @RequestParam Boolean approved,
@@ -35,6 +84,17 @@ public class BookingController {
         return result;
     }
 
+    @PatchMapping("/batch")
+    public List<BookingDecisionResultDto> updateBookingStatuses(
+            @RequestBody @NotEmpty @Size(max = 100) List<@Valid BookingDecisionDto> decisions,
+            @RequestHeader("X-Sharer-User-Id") Long userId) {
+        log.info("PATCH /bookings/batch - Обновление статусов {} бронирований, пользователь ID: {}",
+                decisions.size(), userId);
+        List<BookingDecisionResultDto> result = bookingService.updateBookingStatuses(decisions, userId);
+        log.info("Статусы бронирований обновлены: {}", result);
+        return result;
+    }
+
     @GetMapping("/{bookingId}")
     public BookingResponseDto getBookingById(@PathVariable Long bookingId,
                                              @RequestHeader("X-Sharer-User-Id") Long userId) {
@@ -55,6 +115,29 @@ public class BookingController {
         return result;
     }
 
+    @GetMapping(params = "cursor")
+    public PageDto<BookingResponseDto> getUserBookingsPage(@RequestHeader("X-Sharer-User-Id") Long userId,
+                                                           @RequestParam(defaultValue = "ALL") String state,
+                                                           @RequestParam String cursor,
+                                                           @RequestParam(defaultValue = "10") int size) {
+        log.info("GET /bookings - Получение страницы бронирований пользователя ID: {}, состояние: {}", userId, state);
+        PageDto<BookingResponseDto> result = bookingService.getUserBookingsPage(userId, state, cursor, size);
+        log.info("Найдено {} бронирований", result.getContent().size());
+        return result;
+    }
+
+    @GetMapping("/summary")
+    public BookingSummaryDto getUserBookingsSummary(@RequestHeader("X-Sharer-User-Id") Long userId) {
+        log.info("GET /bookings/summary - Получение сводки бронирований пользователя ID: {}", userId);
+        return bookingService.getUserBookingsSummary(userId);
+    }
+
+    @GetMapping("/owner/summary")
+    public BookingSummaryDto getOwnerBookingsSummary(@RequestHeader("X-Sharer-User-Id") Long userId) {
+        log.info("GET /bookings/owner/summary - Получение сводки бронирований владельца ID: {}", userId);
+        return bookingService.getOwnerBookingsSummary(userId);
+    }
+
     @GetMapping("/owner")
     public List<BookingResponseDto> getOwnerBookings(@RequestHeader("X-Sharer-User-Id") Long userId,
                                                      @RequestParam(defaultValue = "ALL") String state,
@@ -65,4 +148,31 @@ public class BookingController {
         log.info("Найдено {} бронирований", result.size());
         return result;
     }
-}
\ No newline at end of file
+
+    @GetMapping(path = "/owner", params = "cursor")
+    public PageDto<BookingResponseDto> getOwnerBookingsPage(@RequestHeader("X-Sharer-User-Id") Long userId,
+                                                            @RequestParam(defaultValue = "ALL") String state,
+                                                            @RequestParam String cursor,
+                                                            @RequestParam(defaultValue = "10") int size) {
+        log.info("GET /bookings/owner - Получение страницы бронирований владельца ID: {}, состояние: {}", userId, state);
+        PageDto<BookingResponseDto> result = bookingService.getOwnerBookingsPage(userId, state, cursor, size);
+        log.info("Найдено {} бронирований", result.getContent().size());
+        return result;
+    }
+
+    @GetMapping(path = "/owner/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamOwnerBookings(@RequestHeader("X-Sharer-User-Id") Long userId) {
+        log.info("GET /bookings/owner/stream - Подписка на новые бронирования владельца ID: {}", userId);
+        return bookingService.streamOwnerBookings(userId);
+    }
+
+    @GetMapping("/owner/export")
+    public ResponseEntity<StreamingResponseBody> exportOwnerBookings(@RequestHeader("X-Sharer-User-Id") Long userId,
+                                                                     @RequestParam(defaultValue = "ndjson") String format,
+                                                                     NativeWebRequest request) {
+        log.info("GET /bookings/owner/export - Выгрузка бронирований владельца ID: {}, формат: {}", userId, format);
+        ExportFormat exportFormat = ExportFormat.from(format);
+        return ExportResponses.attachment("bookings", exportFormat,
+                exportService.exportOwnerBookings(userId, exportFormat), request);
+    }
+}
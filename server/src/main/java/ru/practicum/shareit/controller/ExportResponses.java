@@ -0,0 +1,36 @@
+package ru.practicum.shareit.controller;
+
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.context.request.NativeWebRequest;
+import org.springframework.web.context.request.async.WebAsyncUtils;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import ru.practicum.shareit.export.ExportFormat;
+
+/**
+ * Ответы эндпоинтов выгрузки.
+ */
+public final class ExportResponses {
+    public static final long NO_TIMEOUT = -1L;
+
+    private ExportResponses() {
+    }
+
+    /**
+     * Оборачивает выгрузку в ответ-вложение. Для этого запроса снимается общий
+     * {@code spring.mvc.async.request-timeout}: выгрузка длится, пока пишутся строки.
+     */
+    public static ResponseEntity<StreamingResponseBody> attachment(String name, ExportFormat format,
+                                                                   StreamingResponseBody body,
+                                                                   NativeWebRequest request) {
+        WebAsyncUtils.getAsyncManager(request).getAsyncWebRequest().setTimeout(NO_TIMEOUT);
+        ContentDisposition disposition = ContentDisposition.attachment()
+                .filename(name + "." + format.getExtension())
+                .build();
+        return ResponseEntity.ok()
+                .contentType(format.getMediaType())
+                .header(HttpHeaders.CONTENT_DISPOSITION, disposition.toString())
+                .body(body);
+    }
+}
@@ -1,21 +1,40 @@
 package ru.practicum.shareit.controller;
 
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Positive;
+import jakarta.validation.constraints.PositiveOrZero;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.format.annotation.DateTimeFormat.ISO;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.NativeWebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import ru.practicum.shareit.dto.PageDto;
 import ru.practicum.shareit.dto.item.CommentDto;
+import ru.practicum.shareit.dto.item.ItemAvailabilityDto;
 import ru.practicum.shareit.dto.item.ItemDto;
 import ru.practicum.shareit.dto.item.ItemWithBookingsDto;
+import ru.practicum.shareit.export.ExportFormat;
+import ru.practicum.shareit.service.ExportService;
+import ru.practicum.shareit.service.ItemAvailabilityService;
 import ru.practicum.shareit.service.ItemService;
 
+import java.time.LocalDateTime;
 import java.util.List;
 
 @Slf4j
+@Validated
 @RestController
 @RequestMapping("/items")
 @RequiredArgsConstructor
 public class ItemController {
     private final ItemService itemService;
+    private final ItemAvailabilityService availabilityService;
+    private final ExportService exportService;
 
     @PostMapping
     public ItemDto createItem(@RequestBody ItemDto itemDto,
@@ -41,34 +60,75 @@ public class ItemController {
                               @RequestHeader(value = "X-Sharer-User-Id", required = false) Long userId) {
         log.info("GET /items/{} - Получение вещи по ID", id);
 
-        ItemDto itemDto = itemService.getItemById(id, userId);
-
-        if (userId != null && itemDto != null && itemDto.getOwnerId().equals(userId)) {
-            ItemWithBookingsDto result = itemService.getItemWithBookings(id, userId);
-            log.info("Найдена вещь с бронированиями: {}", result);
-            return result;
-        }
-
-        log.info("Найдена вещь: {}", itemDto);
-        return itemDto;
+        Object result = itemService.getItemDetails(id, userId);
+        log.info("Найдена вещь: {}", result);
+        return result;
     }
 
-    @GetMapping
-    public List<ItemWithBookingsDto> getItemsByOwner(@RequestHeader("X-Sharer-User-Id") Long ownerId) {
-        log.info("GET /items - Получение всех вещей владельца ID: {}", ownerId);
-        List<ItemWithBookingsDto> result = itemService.getItemsWithBookingsByOwner(ownerId);
+    @GetMapping(params = "size")
+    public List<ItemWithBookingsDto> getItemsByOwner(@RequestHeader("X-Sharer-User-Id") Long ownerId,
+                                                     @PositiveOrZero @RequestParam(defaultValue = "0") int from,
+                                                     @Positive @Max(100) @RequestParam int size) {
+        log.info("GET /items - Получение вещей владельца ID: {}, from: {}, size: {}", ownerId, from, size);
+        List<ItemWithBookingsDto> result = itemService.getItemsWithBookingsByOwner(ownerId, from, size);
         log.info("Найдено {} вещей владельца ID: {}", result.size(), ownerId);
         return result;
     }
 
+    @GetMapping
+    public ResponseEntity<StreamingResponseBody> streamItemsByOwner(@RequestHeader("X-Sharer-User-Id") Long ownerId) {
+        log.info("GET /items - Потоковая выдача всех вещей владельца ID: {}", ownerId);
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(itemService.streamItemsWithBookingsByOwner(ownerId));
+    }
+
+    @GetMapping("/export")
+    public ResponseEntity<StreamingResponseBody> exportItemsByOwner(@RequestHeader("X-Sharer-User-Id") Long ownerId,
+                                                                    @RequestParam(defaultValue = "ndjson") String format,
+                                                                    NativeWebRequest request) {
+        log.info("GET /items/export - Выгрузка вещей владельца ID: {}, формат: {}", ownerId, format);
+        ExportFormat exportFormat = ExportFormat.from(format);
+        return ExportResponses.attachment("items", exportFormat,
+                exportService.exportItemsByOwner(ownerId, exportFormat), request);
+    }
+
     @GetMapping("/search")
-    public List<ItemDto> searchItems(@RequestParam String text) {
+    public List<ItemDto> searchItems(@RequestParam String text,
+                                     @PositiveOrZero @RequestParam(defaultValue = "0") int from,
+                                     @Positive @RequestParam(defaultValue = "10") int size) {
         log.info("GET /items/search - Поиск вещей по тексту: '{}'", text);
-        List<ItemDto> result = itemService.searchItems(text);
+        List<ItemDto> result = itemService.searchItems(text, from, size);
         log.info("Найдено {} вещей по запросу: '{}'", result.size(), text);
         return result;
     }
 
+    @GetMapping("/suggest")
+    public List<String> suggestItemNames(@RequestParam String prefix,
+                                         @Positive @RequestParam(defaultValue = "10") int size) {
+        log.debug("GET /items/suggest - Подсказки по префиксу: '{}'", prefix);
+        return itemService.suggestItemNames(prefix, size);
+    }
+
+    @GetMapping("/{id}/availability")
+    public ItemAvailabilityDto getItemAvailability(@PathVariable Long id,
+                                                   @RequestParam @DateTimeFormat(iso = ISO.DATE_TIME) LocalDateTime from,
+                                                   @RequestParam @DateTimeFormat(iso = ISO.DATE_TIME) LocalDateTime to,
+                                                   @RequestParam(defaultValue = "false") boolean includeWaiting) {
+        log.info("GET /items/{}/availability - Получение доступности вещи с {} по {}", id, from, to);
+        return availabilityService.getAvailability(id, from, to, includeWaiting);
+    }
+
+    @GetMapping("/{id}/comments")
+    public PageDto<CommentDto> getComments(@PathVariable Long id,
+                                           @RequestParam(required = false) String cursor,
+                                           @Positive @RequestParam(defaultValue = "10") int size) {
+        log.info("GET /items/{}/comments - Получение комментариев вещи, курсор: {}", id, cursor);
+        PageDto<CommentDto> result = itemService.getComments(id, cursor, size);
+        log.info("Найдено {} комментариев вещи ID: {}", result.getContent().size(), id);
+        return result;
+    }
+
     @PostMapping("/{itemId}/comment")
     public CommentDto addComment(@PathVariable Long itemId,
                                  @RequestBody CommentDto commentDto,
@@ -0,0 +1,78 @@
+package ru.practicum.shareit.dto;
+
+import org.springframework.data.domain.AbstractPageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+
+import java.util.Objects;
+
+/**
+ * Запрос страницы с произвольным смещением: {@link org.springframework.data.domain.PageRequest}
+ * допускает только смещения, кратные размеру страницы.
+ */
+public class OffsetPageRequest extends AbstractPageRequest {
+    private final long offset;
+    private final Sort sort;
+
+    public OffsetPageRequest(long offset, int limit, Sort sort) {
+        super(0, limit);
+        this.offset = offset;
+        this.sort = sort;
+    }
+
+    @Override
+    public long getOffset() {
+        return offset;
+    }
+
+    @Override
+    public int getPageNumber() {
+        return (int) (offset / getPageSize());
+    }
+
+    @Override
+    public Sort getSort() {
+        return sort;
+    }
+
+    @Override
+    public boolean hasPrevious() {
+        return offset > 0;
+    }
+
+    @Override
+    public Pageable next() {
+        return new OffsetPageRequest(offset + getPageSize(), getPageSize(), sort);
+    }
+
+    @Override
+    public Pageable previous() {
+        return hasPrevious() ? new OffsetPageRequest(Math.max(0, offset - getPageSize()), getPageSize(), sort) : this;
+    }
+
+    @Override
+    public Pageable first() {
+        return new OffsetPageRequest(0, getPageSize(), sort);
+    }
+
+    @Override
+    public Pageable withPage(int pageNumber) {
+        return new OffsetPageRequest((long) pageNumber * getPageSize(), getPageSize(), sort);
+    }
+
+    @Override
+    public boolean equals(Object other) {
+        if (this == other) {
+            return true;
+        }
+        if (!(other instanceof OffsetPageRequest that)) {
+            return false;
+        }
+        return offset == that.offset && getPageSize() == that.getPageSize() && Objects.equals(sort, that.sort);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(offset, getPageSize(), sort);
+    }
+}
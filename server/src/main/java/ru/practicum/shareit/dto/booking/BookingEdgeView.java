@@ -0,0 +1,21 @@
+package ru.practicum.shareit.dto.booking;
+
+import java.time.LocalDateTime;
+
+public interface BookingEdgeView {
+    String getKind();
+
+    Long getItemId();
+
+    Long getId();
+
+    Long getBookerId();
+
+    LocalDateTime getStartDate();
+
+    LocalDateTime getEndDate();
+
+    default boolean isLast() {
+        return "LAST".equals(getKind());
+    }
+}
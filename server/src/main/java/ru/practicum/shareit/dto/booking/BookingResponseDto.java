@@ -19,4 +19,5 @@ public class BookingResponseDto {
     private BookingStatus status;
     private UserDto booker;
     private ItemDto item;
+    private Long seriesId;
 }
\ No newline at end of file
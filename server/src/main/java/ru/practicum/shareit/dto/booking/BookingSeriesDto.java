@@ -0,0 +1,23 @@
+package ru.practicum.shareit.dto.booking;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import ru.practicum.shareit.model.BookingFrequency;
+
+import java.time.LocalDateTime;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BookingSeriesDto {
+    private Long itemId;
+
+    private LocalDateTime start;
+
+    private LocalDateTime end;
+
+    private BookingFrequency frequency;
+
+    private LocalDateTime until;
+}
@@ -0,0 +1,26 @@
+package ru.practicum.shareit.dto.booking;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import ru.practicum.shareit.dto.item.ItemDto;
+import ru.practicum.shareit.dto.user.UserDto;
+import ru.practicum.shareit.model.BookingFrequency;
+import ru.practicum.shareit.model.BookingStatus;
+
+import java.time.LocalDateTime;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BookingSeriesResponseDto {
+    private Long id;
+    private LocalDateTime start;
+    private LocalDateTime end;
+    private BookingFrequency frequency;
+    private LocalDateTime until;
+    private long occurrences;
+    private BookingStatus status;
+    private UserDto booker;
+    private ItemDto item;
+}
@@ -14,4 +14,5 @@ public class BookingShortDto {
     private Long bookerId;
     private LocalDateTime start;
     private LocalDateTime end;
+    private Long seriesId;
 }
\ No newline at end of file
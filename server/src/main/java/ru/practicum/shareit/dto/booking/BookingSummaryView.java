@@ -0,0 +1,15 @@
+package ru.practicum.shareit.dto.booking;
+
+public interface BookingSummaryView {
+    long getTotalCount();
+
+    long getCurrentCount();
+
+    long getPastCount();
+
+    long getFutureCount();
+
+    long getWaitingCount();
+
+    long getRejectedCount();
+}
@@ -0,0 +1,13 @@
+package ru.practicum.shareit.dto.booking;
+
+import java.time.LocalDateTime;
+
+public interface ItemEdgeView extends BookingEdgeView {
+    String getFrequency();
+
+    LocalDateTime getUntilDate();
+
+    default boolean isSeries() {
+        return "SERIES".equals(getKind());
+    }
+}
@@ -0,0 +1,7 @@
+package ru.practicum.shareit.dto.item;
+
+public interface CommentCountView {
+    Long getItemId();
+
+    Long getTotal();
+}
@@ -0,0 +1,27 @@
+package ru.practicum.shareit.dto.item;
+
+import java.time.LocalDateTime;
+
+public interface ItemDetailView {
+    Long getId();
+
+    String getName();
+
+    String getDescription();
+
+    Boolean getAvailable();
+
+    Long getOwnerId();
+
+    Long getRequestId();
+
+    Long getCommentsCount();
+
+    Long getCommentId();
+
+    String getCommentText();
+
+    String getAuthorName();
+
+    LocalDateTime getCommentCreated();
+}
@@ -19,4 +19,5 @@ public class ItemWithBookingsDto {
     private BookingShortDto lastBooking = null;
     private BookingShortDto nextBooking = null;
     private List<CommentDto> comments;
+    private Long commentsCount;
 }
\ No newline at end of file
@@ -0,0 +1,15 @@
+package ru.practicum.shareit.dto.item;
+
+import java.time.LocalDateTime;
+
+public interface RecentCommentView {
+    Long getItemId();
+
+    Long getId();
+
+    String getText();
+
+    String getAuthorName();
+
+    LocalDateTime getCreated();
+}
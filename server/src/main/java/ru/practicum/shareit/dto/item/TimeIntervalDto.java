@@ -0,0 +1,15 @@
+package ru.practicum.shareit.dto.item;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class TimeIntervalDto {
+    private LocalDateTime start;
+    private LocalDateTime end;
+}
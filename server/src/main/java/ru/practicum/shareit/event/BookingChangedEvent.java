@@ -0,0 +1,30 @@
+package ru.practicum.shareit.event;
+
+import lombok.Value;
+import ru.practicum.shareit.model.Booking;
+import ru.practicum.shareit.model.BookingStatus;
+
+import java.time.LocalDateTime;
+
+@Value
+public class BookingChangedEvent {
+    Long bookingId;
+    Long itemId;
+    Long ownerId;
+    Long bookerId;
+    LocalDateTime start;
+    LocalDateTime end;
+    BookingStatus status;
+
+    public static BookingChangedEvent of(Booking booking) {
+        return new BookingChangedEvent(
+                booking.getId(),
+                booking.getItem().getId(),
+                booking.getItem().getOwnerId(),
+                booking.getBooker().getId(),
+                booking.getStart(),
+                booking.getEnd(),
+                booking.getStatus()
+        );
+    }
+}
@@ -0,0 +1,16 @@
+package ru.practicum.shareit.event;
+
+import lombok.Value;
+import ru.practicum.shareit.model.BookingSeries;
+import ru.practicum.shareit.model.BookingStatus;
+
+@Value
+public class BookingSeriesChangedEvent {
+    Long seriesId;
+    Long itemId;
+    BookingStatus status;
+
+    public static BookingSeriesChangedEvent of(BookingSeries series) {
+        return new BookingSeriesChangedEvent(series.getId(), series.getItem().getId(), series.getStatus());
+    }
+}
@@ -0,0 +1,9 @@
+package ru.practicum.shareit.event;
+
+import lombok.Value;
+
+@Value
+public class CommentAddedEvent {
+    Long itemId;
+    Long commentId;
+}
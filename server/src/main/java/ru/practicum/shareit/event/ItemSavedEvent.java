@@ -0,0 +1,9 @@
+package ru.practicum.shareit.event;
+
+import lombok.Value;
+import ru.practicum.shareit.model.Item;
+
+@Value
+public class ItemSavedEvent {
+    Item item;
+}
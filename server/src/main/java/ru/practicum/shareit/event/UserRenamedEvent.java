@@ -0,0 +1,8 @@
+package ru.practicum.shareit.event;
+
+import lombok.Value;
+
+@Value
+public class UserRenamedEvent {
+    Long userId;
+}
@@ -1,10 +1,13 @@
 package ru.practicum.shareit.exception;
 
+import jakarta.validation.ConstraintViolationException;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.http.HttpStatus;
 import org.springframework.web.bind.MethodArgumentNotValidException;
 import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.bind.annotation.ResponseStatus;
 import org.springframework.web.bind.annotation.RestControllerAdvice;
+import ru.practicum.shareit.model.Booking;
 
 import java.util.Map;
 import java.util.NoSuchElementException;
@@ -30,6 +33,15 @@ public class GlobalExceptionHandler {
         return Map.of("error", e.getMessage());
     }
 
+    @ExceptionHandler(DataIntegrityViolationException.class)
+    @ResponseStatus(HttpStatus.CONFLICT)
+    public Map<String, String> handleDataIntegrityViolation(DataIntegrityViolationException e) {
+        String message = e.getMessage() != null && e.getMessage().contains(Booking.OVERLAP_CONSTRAINT)
+                ? "Item is already booked for these dates"
+                : "Data integrity violation";
+        return Map.of("error", message);
+    }
+
     @ExceptionHandler(BadRequestException.class)
     @ResponseStatus(HttpStatus.BAD_REQUEST)
     public Map<String, String> handleBadRequest(BadRequestException e) {
@@ -45,4 +57,10 @@ public class GlobalExceptionHandler {
                 .orElse("Validation failed");
         return Map.of("error", errorMessage);
     }
+
+    @ExceptionHandler(ConstraintViolationException.class)
+    @ResponseStatus(HttpStatus.BAD_REQUEST)
+    public Map<String, String> handleConstraintViolation(ConstraintViolationException e) {
+        return Map.of("error", "Validation failed: " + e.getMessage());
+    }
 }
\ No newline at end of file
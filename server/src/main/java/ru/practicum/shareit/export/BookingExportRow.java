@@ -0,0 +1,45 @@
+package ru.practicum.shareit.export;
+
+import lombok.Value;
+import ru.practicum.shareit.model.BookingStatus;
+
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.List;
+
+@Value
+public class BookingExportRow implements ExportRow {
+    public static final List<String> HEADER =
+            List.of("id", "seriesId", "itemId", "itemName", "bookerId", "start", "end", "status");
+
+    Long id;
+    Long seriesId;
+    Long itemId;
+    String itemName;
+    Long bookerId;
+    LocalDateTime start;
+    LocalDateTime end;
+    BookingStatus status;
+
+    public BookingExportRow(Long id, Long itemId, String itemName, Long bookerId,
+                            LocalDateTime start, LocalDateTime end, BookingStatus status) {
+        this(id, null, itemId, itemName, bookerId, start, end, status);
+    }
+
+    public BookingExportRow(Long id, Long seriesId, Long itemId, String itemName, Long bookerId,
+                            LocalDateTime start, LocalDateTime end, BookingStatus status) {
+        this.id = id;
+        this.seriesId = seriesId;
+        this.itemId = itemId;
+        this.itemName = itemName;
+        this.bookerId = bookerId;
+        this.start = start;
+        this.end = end;
+        this.status = status;
+    }
+
+    @Override
+    public List<Object> values() {
+        return Arrays.asList(id, seriesId, itemId, itemName, bookerId, start, end, status);
+    }
+}
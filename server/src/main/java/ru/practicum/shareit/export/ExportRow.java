@@ -0,0 +1,7 @@
+package ru.practicum.shareit.export;
+
+import java.util.List;
+
+public interface ExportRow {
+    List<Object> values();
+}
@@ -0,0 +1,71 @@
+package ru.practicum.shareit.export;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+/**
+ * Построчная запись выгрузки в NDJSON или CSV прямо в поток ответа.
+ * Буфер сбрасывается каждые {@code FLUSH_EVERY} строк, поэтому память не зависит от размера выгрузки.
+ */
+public class ExportWriter {
+    private static final int FLUSH_EVERY = 1000;
+
+    private final ExportFormat format;
+    private final ObjectMapper objectMapper;
+    private final Writer writer;
+    private long rows;
+
+    public ExportWriter(ExportFormat format, OutputStream output, ObjectMapper objectMapper,
+                        List<String> header) throws IOException {
+        this.format = format;
+        this.objectMapper = objectMapper;
+        this.writer = new BufferedWriter(new OutputStreamWriter(output, StandardCharsets.UTF_8));
+        if (format == ExportFormat.CSV) {
+            writeCsvLine(header);
+        }
+    }
+
+    public void write(ExportRow row) throws IOException {
+        if (format == ExportFormat.NDJSON) {
+            writer.write(objectMapper.writeValueAsString(row));
+            writer.write('\n');
+        } else {
+            writeCsvLine(row.values());
+        }
+        if (++rows % FLUSH_EVERY == 0) {
+            writer.flush();
+        }
+    }
+
+    public long finish() throws IOException {
+        writer.flush();
+        return rows;
+    }
+
+    private void writeCsvLine(List<?> values) throws IOException {
+        for (int i = 0; i < values.size(); i++) {
+            if (i > 0) {
+                writer.write(',');
+            }
+            Object value = values.get(i);
+            if (value != null) {
+                writer.write(escapeCsv(value.toString()));
+            }
+        }
+        writer.write("\r\n");
+    }
+
+    private static String escapeCsv(String value) {
+        if (value.indexOf(',') < 0 && value.indexOf('"') < 0 && value.indexOf('\n') < 0 && value.indexOf('\r') < 0) {
+            return value;
+        }
+        return '"' + value.replace("\"", "\"\"") + '"';
+    }
+}
@@ -0,0 +1,22 @@
+package ru.practicum.shareit.export;
+
+import lombok.Value;
+
+import java.util.Arrays;
+import java.util.List;
+
+@Value
+public class ItemExportRow implements ExportRow {
+    public static final List<String> HEADER = List.of("id", "name", "description", "available", "requestId");
+
+    Long id;
+    String name;
+    String description;
+    Boolean available;
+    Long requestId;
+
+    @Override
+    public List<Object> values() {
+        return Arrays.asList(id, name, description, available, requestId);
+    }
+}
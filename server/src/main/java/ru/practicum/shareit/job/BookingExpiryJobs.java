@@ -0,0 +1,33 @@
+package ru.practicum.shareit.job;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import ru.practicum.shareit.service.BookingExpiryService;
+
+import java.time.LocalDateTime;
+
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class BookingExpiryJobs {
+    private final BookingExpiryService expiryService;
+
+    @Scheduled(fixedDelayString = "${shareit.booking-expiry.delay:PT1M}",
+            initialDelayString = "${shareit.booking-expiry.delay:PT1M}")
+    public void expireStaleWaiting() {
+        LocalDateTime now = LocalDateTime.now();
+        int expired = 0;
+        int batch;
+        do {
+            batch = expiryService.expireBatch(now);
+            expired += batch;
+        } while (batch == BookingExpiryService.BATCH_SIZE);
+        expiryService.refreshLag(now);
+
+        if (expired > 0) {
+            log.info("Просрочено {} неподтверждённых бронирований", expired);
+        }
+    }
+}
@@ -0,0 +1,26 @@
+package ru.practicum.shareit.job;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import ru.practicum.shareit.partition.BookingPartitionManager;
+import ru.practicum.shareit.partition.BookingPartitionProperties;
+
+import java.time.LocalDate;
+
+@Component
+@RequiredArgsConstructor
+public class BookingPartitionJobs {
+    private final BookingPartitionManager partitionManager;
+    private final BookingPartitionProperties properties;
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(cron = "${shareit.booking-partitions.cron:0 0 4 * * *}")
+    public void maintain() {
+        if (properties.isEnabled()) {
+            partitionManager.maintain(LocalDate.now());
+        }
+    }
+}
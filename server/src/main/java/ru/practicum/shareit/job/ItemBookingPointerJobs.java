@@ -0,0 +1,28 @@
+package ru.practicum.shareit.job;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import ru.practicum.shareit.service.ItemBookingPointerService;
+
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class ItemBookingPointerJobs {
+    private final ItemBookingPointerService pointerService;
+
+    @Scheduled(fixedDelayString = "${shareit.booking-pointers.roll-delay:PT1M}",
+            initialDelayString = "${shareit.booking-pointers.roll-delay:PT1M}")
+    public void rollExpired() {
+        pointerService.rollExpired();
+    }
+
+    @Scheduled(cron = "${shareit.booking-pointers.reconcile-cron:0 30 3 * * *}")
+    public void reconcile() {
+        int drift = pointerService.reconcile();
+        if (drift > 0) {
+            log.warn("Сверка исправила {} указателей бронирований", drift);
+        }
+    }
+}
@@ -1,11 +1,23 @@
 package ru.practicum.shareit.mapper;
 
 import ru.practicum.shareit.dto.booking.BookingDto;
+import ru.practicum.shareit.dto.booking.BookingEdgeView;
 import ru.practicum.shareit.dto.booking.BookingResponseDto;
+import ru.practicum.shareit.dto.booking.BookingSeriesDto;
+import ru.practicum.shareit.dto.booking.BookingSeriesResponseDto;
+import ru.practicum.shareit.dto.booking.BookingShortDto;
+import ru.practicum.shareit.dto.booking.BookingSummaryDto;
+import ru.practicum.shareit.dto.booking.BookingSummaryView;
+import ru.practicum.shareit.dto.booking.ItemEdgeView;
 import ru.practicum.shareit.model.Booking;
+import ru.practicum.shareit.model.BookingSeries;
+import ru.practicum.shareit.model.BookingFrequency;
 import ru.practicum.shareit.model.BookingStatus;
 import ru.practicum.shareit.model.Item;
+import ru.practicum.shareit.model.ItemBookingPointer;
 import ru.practicum.shareit.model.User;
+import ru.practicum.shareit.series.BookingOccurrence;
+import ru.practicum.shareit.series.BookingOccurrences;
 
 public class BookingMapper {
     public static BookingResponseDto toBookingResponseDto(Booking booking) {
@@ -15,7 +27,69 @@ public class BookingMapper {
                 booking.getEnd(),
                 booking.getStatus(),
                 UserMapper.toUserDto(booking.getBooker()),
-                ItemMapper.toItemDto(booking.getItem())
+                ItemMapper.toItemDto(booking.getItem()),
+                null
+        );
+    }
+
+    public static BookingResponseDto toBookingResponseDto(BookingOccurrence occurrence) {
+        BookingSeries series = occurrence.getSeries();
+        return new BookingResponseDto(
+                null,
+                occurrence.getStart(),
+                occurrence.getEnd(),
+                series.getStatus(),
+                UserMapper.toUserDto(series.getBooker()),
+                ItemMapper.toItemDto(series.getItem()),
+                series.getId()
+        );
+    }
+
+    public static BookingSeries toBookingSeries(BookingSeriesDto seriesDto, Item item, User booker) {
+        BookingSeries series = new BookingSeries();
+        series.setStart(seriesDto.getStart());
+        series.setEnd(seriesDto.getEnd());
+        series.setFrequency(seriesDto.getFrequency());
+        series.setUntil(seriesDto.getUntil());
+        series.setItem(item);
+        series.setBooker(booker);
+        series.setStatus(BookingStatus.WAITING);
+        return series;
+    }
+
+    public static BookingSeries toBookingSeries(ItemEdgeView edge) {
+        BookingSeries series = new BookingSeries();
+        series.setId(edge.getId());
+        series.setStart(edge.getStartDate());
+        series.setEnd(edge.getEndDate());
+        series.setFrequency(BookingFrequency.valueOf(edge.getFrequency()));
+        series.setUntil(edge.getUntilDate());
+        series.setBooker(new User(edge.getBookerId(), null, null));
+        series.setStatus(BookingStatus.APPROVED);
+        return series;
+    }
+
+    public static BookingSeriesResponseDto toBookingSeriesResponseDto(BookingSeries series) {
+        return new BookingSeriesResponseDto(
+                series.getId(),
+                series.getStart(),
+                series.getEnd(),
+                series.getFrequency(),
+                series.getUntil(),
+                BookingOccurrences.count(series),
+                series.getStatus(),
+                UserMapper.toUserDto(series.getBooker()),
+                ItemMapper.toItemDto(series.getItem())
+        );
+    }
+
+    public static BookingShortDto toBookingShortDto(BookingOccurrence occurrence) {
+        return new BookingShortDto(
+                null,
+                occurrence.getSeries().getBooker().getId(),
+                occurrence.getStart(),
+                occurrence.getEnd(),
+                occurrence.getSeries().getId()
         );
     }
 
@@ -28,4 +102,51 @@ public class BookingMapper {
         booking.setStatus(BookingStatus.WAITING);
         return booking;
     }
+
+    public static BookingShortDto toBookingShortDto(BookingEdgeView edge) {
+        return new BookingShortDto(
+                edge.getId(),
+                edge.getBookerId(),
+                edge.getStartDate(),
+                edge.getEndDate(),
+                null
+        );
+    }
+
+    public static BookingShortDto toLastBookingDto(ItemBookingPointer pointer) {
+        if (pointer == null || pointer.getLastBookingId() == null) {
+            return null;
+        }
+        return new BookingShortDto(
+                pointer.getLastBookingId(),
+                pointer.getLastBookerId(),
+                pointer.getLastStart(),
+                pointer.getLastEnd(),
+                null
+        );
+    }
+
+    public static BookingShortDto toNextBookingDto(ItemBookingPointer pointer) {
+        if (pointer == null || pointer.getNextBookingId() == null) {
+            return null;
+        }
+        return new BookingShortDto(
+                pointer.getNextBookingId(),
+                pointer.getNextBookerId(),
+                pointer.getNextStart(),
+                pointer.getNextEnd(),
+                null
+        );
+    }
+
+    public static BookingSummaryDto toBookingSummaryDto(BookingSummaryView summary) {
+        return new BookingSummaryDto(
+                summary.getTotalCount(),
+                summary.getCurrentCount(),
+                summary.getPastCount(),
+                summary.getFutureCount(),
+                summary.getWaitingCount(),
+                summary.getRejectedCount()
+        );
+    }
 }
\ No newline at end of file
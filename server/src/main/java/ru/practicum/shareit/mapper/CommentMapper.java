@@ -1,6 +1,7 @@
 package ru.practicum.shareit.mapper;
 
 import ru.practicum.shareit.dto.item.CommentDto;
+import ru.practicum.shareit.dto.item.RecentCommentView;
 import ru.practicum.shareit.model.Comment;
 import ru.practicum.shareit.model.Item;
 import ru.practicum.shareit.model.User;
@@ -17,6 +18,15 @@ public class CommentMapper {
         );
     }
 
+    public static CommentDto toCommentDto(RecentCommentView comment) {
+        return new CommentDto(
+                comment.getId(),
+                comment.getText(),
+                comment.getAuthorName(),
+                comment.getCreated()
+        );
+    }
+
     public static Comment toComment(CommentDto commentDto, Item item, User author, LocalDateTime created) {
         Comment comment = new Comment();
         comment.setText(commentDto.getText());
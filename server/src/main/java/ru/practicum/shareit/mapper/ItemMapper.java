@@ -1,9 +1,15 @@
 package ru.practicum.shareit.mapper;
 
+import ru.practicum.shareit.dto.item.CommentDto;
+import ru.practicum.shareit.dto.item.ItemDetailView;
 import ru.practicum.shareit.dto.item.ItemDto;
+import ru.practicum.shareit.dto.item.ItemWithBookingsDto;
 import ru.practicum.shareit.model.Item;
+import ru.practicum.shareit.search.ItemDocument;
 
 import java.util.Collections;
+import java.util.List;
+import java.util.stream.Collectors;
 
 public class ItemMapper {
     public static ItemDto toItemDto(Item item) {
@@ -16,10 +22,64 @@ public class ItemMapper {
                 item.getRequestId(),
                 Collections.emptyList(),
                 null,
+                null,
+                null
+        );
+    }
+
+    public static ItemDto toItemDto(ItemDocument document) {
+        return new ItemDto(
+                document.getId(),
+                document.getName(),
+                document.getDescription(),
+                document.getAvailable(),
+                document.getOwnerId(),
+                document.getRequestId(),
+                Collections.emptyList(),
+                null,
+                null,
+                null
+        );
+    }
+
+    public static ItemDto toItemDto(List<ItemDetailView> rows) {
+        ItemDetailView item = rows.getFirst();
+        List<CommentDto> comments = rows.stream()
+                .filter(row -> row.getCommentId() != null)
+                .map(row -> new CommentDto(
+                        row.getCommentId(),
+                        row.getCommentText(),
+                        row.getAuthorName(),
+                        row.getCommentCreated()))
+                .collect(Collectors.toList());
+        return new ItemDto(
+                item.getId(),
+                item.getName(),
+                item.getDescription(),
+                item.getAvailable(),
+                item.getOwnerId(),
+                item.getRequestId(),
+                comments,
+                item.getCommentsCount(),
+                null,
                 null
         );
     }
 
+    public static ItemWithBookingsDto toItemWithBookingsDto(ItemDto itemDto) {
+        return new ItemWithBookingsDto(
+                itemDto.getId(),
+                itemDto.getName(),
+                itemDto.getDescription(),
+                itemDto.getAvailable(),
+                itemDto.getRequestId(),
+                null,
+                null,
+                itemDto.getComments(),
+                itemDto.getCommentsCount()
+        );
+    }
+
     public static Item toItem(ItemDto itemDto, Long ownerId) {
         return new Item(
                 itemDto.getId(),
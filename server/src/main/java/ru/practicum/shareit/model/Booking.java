@@ -13,6 +13,12 @@ import java.time.LocalDateTime;
 @Entity
 @Table(name = "bookings")
 public class Booking {
+    /**
+     * Ограничение исключения в PostgreSQL, которое запрещает пересечение подтверждённых
+     * бронирований одной вещи. Интервалы заполняет триггер {@code sync_booking_slot}.
+     */
+    public static final String OVERLAP_CONSTRAINT = "excl_booking_slots_overlap";
+
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
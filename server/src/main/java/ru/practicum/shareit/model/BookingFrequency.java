@@ -0,0 +1,18 @@
+package ru.practicum.shareit.model;
+
+import java.time.Duration;
+
+public enum BookingFrequency {
+    DAILY(Duration.ofDays(1)),
+    WEEKLY(Duration.ofDays(7));
+
+    private final Duration step;
+
+    BookingFrequency(Duration step) {
+        this.step = step;
+    }
+
+    public Duration getStep() {
+        return step;
+    }
+}
@@ -4,4 +4,5 @@ public enum BookingStatus {
     WAITING,
     APPROVED,
     REJECTED,
+    EXPIRED,
 }
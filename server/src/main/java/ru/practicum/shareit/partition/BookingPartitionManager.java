@@ -0,0 +1,187 @@
+package ru.practicum.shareit.partition;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.time.format.DateTimeFormatter;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Обслуживание помесячных секций таблицы {@code bookings} в PostgreSQL.
+ * Вперёд создаются секции на {@code months-ahead} месяцев; строки, попавшие в секцию по умолчанию,
+ * переносятся в новую секцию при её создании. Месяцы старше {@code retention-months} отсоединяются
+ * от {@code bookings} и подключаются к секционированной таблице {@code bookings_archive} без копирования
+ * строк, поэтому запросы по прошлым бронированиям по-прежнему видят все строки.
+ * <p>
+ * Отсоединение с {@code CONCURRENTLY} невозможно, пока у {@code bookings} есть секция по умолчанию,
+ * а архив при переподключении пропал бы из запросов. Поэтому месяцы переносятся в одной короткой
+ * транзакции, которая меняет только каталог: проверки диапазонов заранее доказывают границы секций
+ * и секции по умолчанию, и подключение ничего не сканирует. Ожидание блокировок ограничено
+ * {@code lock-timeout}. Экземпляры приложения не выполняют обслуживание одновременно: его
+ * охраняет транзакционная рекомендательная блокировка, а шаги выполняются в отдельных транзакциях.
+ */
+@Slf4j
+@Component
+public class BookingPartitionManager {
+    public static final long LOCK_KEY = 0x626F6F6B696E6770L;
+
+    private static final String PARENT = "bookings";
+    private static final String ARCHIVE = "bookings_archive";
+    private static final String DEFAULT = "bookings_default";
+    private static final String DEFAULT_CHECK = "chk_bookings_default_from_";
+    private static final Pattern MONTHLY = Pattern.compile("bookings_p(\\d{6})");
+    private static final Pattern UPPER_BOUND = Pattern.compile("TO \\('([^']+)'\\)");
+    private static final DateTimeFormatter SUFFIX = DateTimeFormatter.ofPattern("yyyyMM");
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final TransactionTemplate stepTemplate;
+    private final BookingPartitionProperties properties;
+
+    public BookingPartitionManager(JdbcTemplate jdbcTemplate, TransactionTemplate transactionTemplate,
+                                   BookingPartitionProperties properties) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.stepTemplate = new TransactionTemplate(transactionTemplate.getTransactionManager());
+        this.stepTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.properties = properties;
+    }
+
+    /**
+     * Выполняет обслуживание, если его не выполняет другой экземпляр.
+     *
+     * @return {@code false}, если блокировка занята и обслуживание пропущено
+     */
+    public boolean maintain(LocalDate today) {
+        return Boolean.TRUE.equals(transactionTemplate.execute(status -> {
+            if (!Boolean.TRUE.equals(jdbcTemplate.queryForObject(
+                    "SELECT pg_try_advisory_xact_lock(?)", Boolean.class, LOCK_KEY))) {
+                log.info("Секции бронирований обслуживает другой экземпляр");
+                return false;
+            }
+            YearMonth current = YearMonth.from(today);
+            LocalDate bound = current.minusMonths(properties.getRetentionMonths()).atDay(1);
+
+            if (archiveBound().isBefore(bound)) {
+                archive(bound);
+            }
+            YearMonth last = current.plusMonths(properties.getMonthsAhead());
+            for (YearMonth month = YearMonth.from(bound); !month.isAfter(last); month = month.plusMonths(1)) {
+                if (!monthlyPartitions().containsKey(month)) {
+                    createPartition(month);
+                }
+            }
+            return true;
+        }));
+    }
+
+    public LocalDate archiveBound() {
+        String bound = jdbcTemplate.queryForObject(
+                "SELECT pg_get_expr(c.relpartbound, c.oid) FROM pg_class c WHERE c.relname = ?", String.class, ARCHIVE);
+        Matcher matcher = UPPER_BOUND.matcher(bound);
+        if (!matcher.find()) {
+            throw new IllegalStateException("Unexpected archive partition bound: " + bound);
+        }
+        return LocalDate.parse(matcher.group(1).substring(0, 10));
+    }
+
+    public Map<YearMonth, String> monthlyPartitions() {
+        Map<YearMonth, String> partitions = new TreeMap<>();
+        List<String> names = jdbcTemplate.queryForList("SELECT c.relname FROM pg_inherits i " +
+                "JOIN pg_class c ON c.oid = i.inhrelid WHERE i.inhparent = 'bookings'::regclass", String.class);
+        for (String name : names) {
+            Matcher matcher = MONTHLY.matcher(name);
+            if (matcher.matches()) {
+                partitions.put(YearMonth.parse(matcher.group(1), SUFFIX), name);
+            }
+        }
+        return partitions;
+    }
+
+    private void createPartition(YearMonth month) {
+        String name = "bookings_p" + month.format(SUFFIX);
+        String from = literal(month.atDay(1));
+        String to = literal(month.plusMonths(1).atDay(1));
+
+        stepTemplate.executeWithoutResult(status -> {
+            setLockTimeout();
+            jdbcTemplate.execute("LOCK TABLE " + DEFAULT + " IN EXCLUSIVE MODE");
+            jdbcTemplate.execute("CREATE TABLE " + name + " (LIKE " + PARENT + " INCLUDING DEFAULTS)");
+            jdbcTemplate.execute("ALTER TABLE " + name + " ADD CONSTRAINT chk_" + name + "_range " +
+                    "CHECK (start_date >= " + from + " AND start_date < " + to + ")");
+            int moved = jdbcTemplate.update("WITH moved AS (DELETE FROM " + DEFAULT + " " +
+                    "WHERE start_date >= " + from + " AND start_date < " + to + " RETURNING *) " +
+                    "INSERT INTO " + name + " SELECT * FROM moved");
+            jdbcTemplate.execute("ALTER TABLE " + PARENT + " ATTACH PARTITION " + name +
+                    " FOR VALUES FROM (" + from + ") TO (" + to + ")");
+            log.info("Создана секция бронирований {}, перенесено строк: {}", name, moved);
+        });
+    }
+
+    private void archive(LocalDate bound) {
+        String check = DEFAULT_CHECK + bound.format(SUFFIX);
+        String to = literal(bound);
+
+        stepTemplate.executeWithoutResult(status -> {
+            setLockTimeout();
+            jdbcTemplate.execute("ALTER TABLE " + DEFAULT + " DROP CONSTRAINT IF EXISTS " + check);
+            jdbcTemplate.execute("ALTER TABLE " + DEFAULT + " ADD CONSTRAINT " + check +
+                    " CHECK (start_date >= " + to + ") NOT VALID");
+        });
+        List<LocalDate> stranded = stepTemplate.execute(status -> jdbcTemplate.queryForList(
+                "SELECT DISTINCT date_trunc('month', start_date)::date FROM " + DEFAULT + " WHERE start_date < " + to,
+                LocalDate.class));
+        Map<YearMonth, String> partitions = monthlyPartitions();
+        stranded.stream()
+                .map(YearMonth::from)
+                .filter(month -> !partitions.containsKey(month))
+                .sorted()
+                .forEach(this::createPartition);
+        stepTemplate.executeWithoutResult(status ->
+                jdbcTemplate.execute("ALTER TABLE " + DEFAULT + " VALIDATE CONSTRAINT " + check));
+
+        stepTemplate.executeWithoutResult(status -> {
+            setLockTimeout();
+            jdbcTemplate.execute("ALTER TABLE " + PARENT + " DETACH PARTITION " + ARCHIVE);
+            int archived = 0;
+            for (Map.Entry<YearMonth, String> partition : monthlyPartitions().entrySet()) {
+                YearMonth month = partition.getKey();
+                if (month.atDay(1).isBefore(bound)) {
+                    jdbcTemplate.execute("ALTER TABLE " + PARENT + " DETACH PARTITION " + partition.getValue());
+                    jdbcTemplate.execute("ALTER TABLE " + ARCHIVE + " ATTACH PARTITION " + partition.getValue() +
+                            " FOR VALUES FROM (" + literal(month.atDay(1)) + ") TO (" +
+                            literal(month.plusMonths(1).atDay(1)) + ")");
+                    archived++;
+                }
+            }
+            jdbcTemplate.execute("ALTER TABLE " + PARENT + " ATTACH PARTITION " + ARCHIVE +
+                    " FOR VALUES FROM (MINVALUE) TO (" + to + ")");
+            List<String> staleChecks = jdbcTemplate.queryForList("SELECT conname FROM pg_constraint " +
+                    "WHERE conrelid = ?::regclass AND conname LIKE ? AND conname <> ?", String.class,
+                    DEFAULT, DEFAULT_CHECK + "%", check);
+            staleChecks.forEach(name -> jdbcTemplate.execute("ALTER TABLE " + DEFAULT + " DROP CONSTRAINT " + name));
+            log.info("Секции бронирований до {} подключены к архиву: {}", bound, archived);
+        });
+
+        Integer slots = stepTemplate.execute(status ->
+                jdbcTemplate.update("DELETE FROM booking_slots WHERE upper(period) < " + to));
+        log.info("Удалено интервалов занятости до {}: {}", bound, slots);
+    }
+
+    private void setLockTimeout() {
+        jdbcTemplate.execute("SET LOCAL lock_timeout = '" + properties.getLockTimeout().toMillis() + "ms'");
+    }
+
+    private static String literal(LocalDate date) {
+        return "'" + date + " 00:00:00'";
+    }
+}
@@ -0,0 +1,15 @@
+package ru.practicum.shareit.partition;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@Data
+@ConfigurationProperties(prefix = "shareit.booking-partitions")
+public class BookingPartitionProperties {
+    private boolean enabled = false;
+    private int monthsAhead = 3;
+    private int retentionMonths = 12;
+    private Duration lockTimeout = Duration.ofSeconds(5);
+}
@@ -1,61 +1,275 @@
 package ru.practicum.shareit.repository;
 
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
+import ru.practicum.shareit.dto.booking.BookingEdgeView;
+import ru.practicum.shareit.dto.booking.BookingSummaryView;
+import ru.practicum.shareit.dto.booking.ItemEdgeView;
+import ru.practicum.shareit.export.BookingExportRow;
 import ru.practicum.shareit.model.Booking;
 import ru.practicum.shareit.model.BookingStatus;
+import ru.practicum.shareit.timeline.BookingInterval;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
 
 public interface BookingRepository extends JpaRepository<Booking, Long> {
+    String BEFORE_CURSOR = "AND (b.start < :cursorStart OR (b.start = :cursorStart AND b.id < :cursorId)) ";
+
+    String KEYSET_ORDER = "ORDER BY b.start DESC, b.id DESC";
+
+    String SUMMARY = "SELECT COUNT(*) AS totalCount, " +
+            "COUNT(*) FILTER (WHERE b.start_date < :current AND b.end_date > :current) AS currentCount, " +
+            "COUNT(*) FILTER (WHERE b.end_date < :current) AS pastCount, " +
+            "COUNT(*) FILTER (WHERE b.start_date > :current) AS futureCount, " +
+            "COUNT(*) FILTER (WHERE b.status = 'WAITING') AS waitingCount, " +
+            "COUNT(*) FILTER (WHERE b.status = 'REJECTED') AS rejectedCount FROM bookings b ";
+
+    @EntityGraph(attributePaths = {"item", "booker"})
+    Optional<Booking> findWithItemAndBookerById(Long id);
+
+    @EntityGraph(attributePaths = {"item", "booker"})
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true"))
+    List<Booking> findWithItemAndBookerByIdIn(Collection<Long> ids);
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE Booking b SET b.status = :status " +
+            "WHERE b.id = :bookingId AND b.status = ru.practicum.shareit.model.BookingStatus.WAITING " +
+            "AND b.item.id IN (SELECT i.id FROM Item i WHERE i.ownerId = :ownerId)")
+    int decideWaiting(@Param("bookingId") Long bookingId,
+                      @Param("ownerId") Long ownerId,
+                      @Param("status") BookingStatus status);
+
+    @Query(value = "SELECT b.id FROM bookings b WHERE b.status = 'WAITING' AND b.start_date < :current " +
+            "ORDER BY b.start_date LIMIT :limit FOR UPDATE SKIP LOCKED", nativeQuery = true)
+    List<Long> lockStaleWaitingIds(@Param("current") LocalDateTime current, @Param("limit") int limit);
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE Booking b SET b.status = ru.practicum.shareit.model.BookingStatus.EXPIRED " +
+            "WHERE b.id IN :ids AND b.status = ru.practicum.shareit.model.BookingStatus.WAITING")
+    int expireWaiting(@Param("ids") Collection<Long> ids);
+
+    @Query(value = "SELECT MIN(b.start_date) FROM bookings b WHERE b.status = 'WAITING' AND b.start_date < :current",
+            nativeQuery = true)
+    LocalDateTime findOldestStaleWaitingStart(@Param("current") LocalDateTime current);
+
+    @EntityGraph(attributePaths = {"item", "booker"})
     List<Booking> findByBookerIdOrderByStartDesc(Long bookerId, Pageable pageable);
 
+    @EntityGraph(attributePaths = {"item", "booker"})
     List<Booking> findByBookerIdAndStartBeforeAndEndAfterOrderByStartDesc(
             Long bookerId, LocalDateTime start, LocalDateTime end, Pageable pageable);
 
+    @EntityGraph(attributePaths = {"item", "booker"})
     List<Booking> findByBookerIdAndEndBeforeOrderByStartDesc(
             Long bookerId, LocalDateTime end, Pageable pageable);
 
+    @EntityGraph(attributePaths = {"item", "booker"})
     List<Booking> findByBookerIdAndStartAfterOrderByStartDesc(
             Long bookerId, LocalDateTime start, Pageable pageable);
 
+    @EntityGraph(attributePaths = {"item", "booker"})
     List<Booking> findByBookerIdAndStatusOrderByStartDesc(
             Long bookerId, BookingStatus status, Pageable pageable);
 
+    @EntityGraph(attributePaths = {"item", "booker"})
     List<Booking> findByItemOwnerIdOrderByStartDesc(Long ownerId, Pageable pageable);
 
+    @EntityGraph(attributePaths = {"item", "booker"})
     List<Booking> findByItemOwnerIdAndStartBeforeAndEndAfterOrderByStartDesc(
             Long ownerId, LocalDateTime start, LocalDateTime end, Pageable pageable);
 
+    @EntityGraph(attributePaths = {"item", "booker"})
     List<Booking> findByItemOwnerIdAndEndBeforeOrderByStartDesc(
             Long ownerId, LocalDateTime end, Pageable pageable);
 
+    @EntityGraph(attributePaths = {"item", "booker"})
     List<Booking> findByItemOwnerIdAndStartAfterOrderByStartDesc(
             Long ownerId, LocalDateTime start, Pageable pageable);
 
+    @EntityGraph(attributePaths = {"item", "booker"})
     List<Booking> findByItemOwnerIdAndStatusOrderByStartDesc(
             Long ownerId, BookingStatus status, Pageable pageable);
 
-    @Query("SELECT b FROM Booking b WHERE b.item.id = :itemId AND b.status = 'APPROVED' " +
-            "AND b.end < :current ORDER BY b.end DESC")
-    List<Booking> findLastBooking(@Param("itemId") Long itemId, @Param("current") LocalDateTime current);
+    @EntityGraph(attributePaths = {"item", "booker"})
+    @Query("SELECT b FROM Booking b WHERE b.booker.id = :bookerId " + BEFORE_CURSOR + KEYSET_ORDER)
+    List<Booking> findPageByBookerId(@Param("bookerId") Long bookerId,
+                                     @Param("cursorStart") LocalDateTime cursorStart,
+                                     @Param("cursorId") Long cursorId,
+                                     Pageable pageable);
+
+    @EntityGraph(attributePaths = {"item", "booker"})
+    @Query("SELECT b FROM Booking b WHERE b.booker.id = :bookerId AND b.start < :current AND b.end > :current " +
+            BEFORE_CURSOR + KEYSET_ORDER)
+    List<Booking> findCurrentPageByBookerId(@Param("bookerId") Long bookerId,
+                                            @Param("current") LocalDateTime current,
+                                            @Param("cursorStart") LocalDateTime cursorStart,
+                                            @Param("cursorId") Long cursorId,
+                                            Pageable pageable);
+
+    @EntityGraph(attributePaths = {"item", "booker"})
+    @Query("SELECT b FROM Booking b WHERE b.booker.id = :bookerId AND b.end < :current " +
+            BEFORE_CURSOR + KEYSET_ORDER)
+    List<Booking> findPastPageByBookerId(@Param("bookerId") Long bookerId,
+                                         @Param("current") LocalDateTime current,
+                                         @Param("cursorStart") LocalDateTime cursorStart,
+                                         @Param("cursorId") Long cursorId,
+                                         Pageable pageable);
+
+    @EntityGraph(attributePaths = {"item", "booker"})
+    @Query("SELECT b FROM Booking b WHERE b.booker.id = :bookerId AND b.start > :current " +
+            BEFORE_CURSOR + KEYSET_ORDER)
+    List<Booking> findFuturePageByBookerId(@Param("bookerId") Long bookerId,
+                                           @Param("current") LocalDateTime current,
+                                           @Param("cursorStart") LocalDateTime cursorStart,
+                                           @Param("cursorId") Long cursorId,
+                                           Pageable pageable);
+
+    @EntityGraph(attributePaths = {"item", "booker"})
+    @Query("SELECT b FROM Booking b WHERE b.booker.id = :bookerId AND b.status = :status " +
+            BEFORE_CURSOR + KEYSET_ORDER)
+    List<Booking> findPageByBookerIdAndStatus(@Param("bookerId") Long bookerId,
+                                              @Param("status") BookingStatus status,
+                                              @Param("cursorStart") LocalDateTime cursorStart,
+                                              @Param("cursorId") Long cursorId,
+                                              Pageable pageable);
 
-    @Query("SELECT b FROM Booking b WHERE b.item.id = :itemId AND b.status = 'APPROVED' " +
-            "AND b.start > :current ORDER BY b.start ASC")
-    List<Booking> findNextBooking(@Param("itemId") Long itemId, @Param("current") LocalDateTime current);
+    @EntityGraph(attributePaths = {"item", "booker"})
+    @Query("SELECT b FROM Booking b WHERE b.item.ownerId = :ownerId " + BEFORE_CURSOR + KEYSET_ORDER)
+    List<Booking> findPageByItemOwnerId(@Param("ownerId") Long ownerId,
+                                        @Param("cursorStart") LocalDateTime cursorStart,
+                                        @Param("cursorId") Long cursorId,
+                                        Pageable pageable);
+
+    @EntityGraph(attributePaths = {"item", "booker"})
+    @Query("SELECT b FROM Booking b WHERE b.item.ownerId = :ownerId AND b.start < :current AND b.end > :current " +
+            BEFORE_CURSOR + KEYSET_ORDER)
+    List<Booking> findCurrentPageByItemOwnerId(@Param("ownerId") Long ownerId,
+                                               @Param("current") LocalDateTime current,
+                                               @Param("cursorStart") LocalDateTime cursorStart,
+                                               @Param("cursorId") Long cursorId,
+                                               Pageable pageable);
+
+    @EntityGraph(attributePaths = {"item", "booker"})
+    @Query("SELECT b FROM Booking b WHERE b.item.ownerId = :ownerId AND b.end < :current " +
+            BEFORE_CURSOR + KEYSET_ORDER)
+    List<Booking> findPastPageByItemOwnerId(@Param("ownerId") Long ownerId,
+                                            @Param("current") LocalDateTime current,
+                                            @Param("cursorStart") LocalDateTime cursorStart,
+                                            @Param("cursorId") Long cursorId,
+                                            Pageable pageable);
+
+    @EntityGraph(attributePaths = {"item", "booker"})
+    @Query("SELECT b FROM Booking b WHERE b.item.ownerId = :ownerId AND b.start > :current " +
+            BEFORE_CURSOR + KEYSET_ORDER)
+    List<Booking> findFuturePageByItemOwnerId(@Param("ownerId") Long ownerId,
+                                              @Param("current") LocalDateTime current,
+                                              @Param("cursorStart") LocalDateTime cursorStart,
+                                              @Param("cursorId") Long cursorId,
+                                              Pageable pageable);
+
+    @EntityGraph(attributePaths = {"item", "booker"})
+    @Query("SELECT b FROM Booking b WHERE b.item.ownerId = :ownerId AND b.status = :status " +
+            BEFORE_CURSOR + KEYSET_ORDER)
+    List<Booking> findPageByItemOwnerIdAndStatus(@Param("ownerId") Long ownerId,
+                                                 @Param("status") BookingStatus status,
+                                                 @Param("cursorStart") LocalDateTime cursorStart,
+                                                 @Param("cursorId") Long cursorId,
+                                                 Pageable pageable);
+
+    @Query("SELECT 'LAST' AS kind, i.id AS itemId, l.id AS id, l.bookerId AS bookerId, " +
+            "l.startDate AS startDate, l.endDate AS endDate FROM Item i JOIN LATERAL (" +
+            "SELECT b.id AS id, b.booker.id AS bookerId, b.start AS startDate, b.end AS endDate FROM Booking b " +
+            "WHERE b.item.id = i.id AND b.status = ru.practicum.shareit.model.BookingStatus.APPROVED " +
+            "AND b.start < :current AND b.end < :current ORDER BY b.start DESC, b.id DESC LIMIT 1) l " +
+            "WHERE i.id IN :itemIds " +
+            "UNION ALL " +
+            "SELECT 'NEXT' AS kind, i.id AS itemId, n.id AS id, n.bookerId AS bookerId, " +
+            "n.startDate AS startDate, n.endDate AS endDate FROM Item i JOIN LATERAL (" +
+            "SELECT b.id AS id, b.booker.id AS bookerId, b.start AS startDate, b.end AS endDate FROM Booking b " +
+            "WHERE b.item.id = i.id AND b.status = ru.practicum.shareit.model.BookingStatus.APPROVED " +
+            "AND b.start > :current ORDER BY b.start, b.id LIMIT 1) n " +
+            "WHERE i.id IN :itemIds")
+    List<BookingEdgeView> findLastAndNextBookings(@Param("itemIds") Collection<Long> itemIds,
+                                                  @Param("current") LocalDateTime current);
+
+    @Query(value = "SELECT kind, item_id AS itemId, id, booker_id AS bookerId, start_date AS startDate, " +
+            "end_date AS endDate, frequency, until_date AS untilDate FROM (" +
+            "(SELECT 'LAST' AS kind, b.item_id, b.id, b.booker_id, b.start_date, b.end_date, " +
+            "CAST(NULL AS VARCHAR(20)) AS frequency, CAST(NULL AS TIMESTAMP) AS until_date " +
+            "FROM bookings b WHERE b.item_id = :itemId AND b.status = 'APPROVED' AND b.start_date < :current " +
+            "AND b.end_date < :current ORDER BY b.start_date DESC, b.id DESC LIMIT 1) " +
+            "UNION ALL " +
+            "(SELECT 'NEXT' AS kind, b.item_id, b.id, b.booker_id, b.start_date, b.end_date, " +
+            "CAST(NULL AS VARCHAR(20)) AS frequency, CAST(NULL AS TIMESTAMP) AS until_date " +
+            "FROM bookings b WHERE b.item_id = :itemId AND b.status = 'APPROVED' AND b.start_date > :current " +
+            "ORDER BY b.start_date ASC, b.id ASC LIMIT 1) " +
+            "UNION ALL " +
+            "SELECT 'SERIES' AS kind, s.item_id, s.id, s.booker_id, s.start_date, s.end_date, " +
+            "s.frequency, s.until_date " +
+            "FROM booking_series s WHERE s.item_id = :itemId AND s.status = 'APPROVED'" +
+            ") edges",
+            nativeQuery = true)
+    List<ItemEdgeView> findItemEdges(@Param("itemId") Long itemId, @Param("current") LocalDateTime current);
+
+    @Query("SELECT b.item.id, MIN(b.end) FROM Booking b WHERE b.item.id IN :itemIds " +
+            "AND b.status = 'APPROVED' AND b.end > :current GROUP BY b.item.id")
+    List<Object[]> findNearestEnds(@Param("itemIds") Collection<Long> itemIds,
+                                   @Param("current") LocalDateTime current);
+
+    @Query("SELECT COUNT(b) > 0 FROM Booking b WHERE b.item.id = :itemId AND b.status = 'APPROVED' " +
+            "AND b.start < :end AND b.end > :start")
+    boolean existsApprovedOverlap(@Param("itemId") Long itemId,
+                                  @Param("start") LocalDateTime start,
+                                  @Param("end") LocalDateTime end);
 
     @Query("SELECT b FROM Booking b WHERE b.item.id IN :itemIds AND b.status = 'APPROVED' " +
-            "AND (b.start < :current OR b.end > :current) ORDER BY b.item.id, b.start")
-    List<Booking> findApprovedBookingsForItems(@Param("itemIds") List<Long> itemIds,
-                                               @Param("current") LocalDateTime current);
+            "AND b.start < :end AND b.end > :start")
+    List<Booking> findApprovedOverlapping(@Param("itemIds") Collection<Long> itemIds,
+                                          @Param("start") LocalDateTime start,
+                                          @Param("end") LocalDateTime end);
+
+    @Query(value = SUMMARY + "WHERE b.booker_id = :bookerId", nativeQuery = true)
+    BookingSummaryView summarizeByBookerId(@Param("bookerId") Long bookerId, @Param("current") LocalDateTime current);
 
+    @Query(value = SUMMARY + "JOIN items i ON i.id = b.item_id WHERE i.owner_id = :ownerId", nativeQuery = true)
+    BookingSummaryView summarizeByItemOwnerId(@Param("ownerId") Long ownerId, @Param("current") LocalDateTime current);
 
     @Query("SELECT COUNT(b) > 0 FROM Booking b WHERE b.item.id = :itemId AND b.booker.id = :userId " +
             "AND b.status = 'APPROVED' AND b.end < :current")
     boolean existsCompletedBooking(@Param("itemId") Long itemId,
                                    @Param("userId") Long userId,
                                    @Param("current") LocalDateTime current);
-}
\ No newline at end of file
+
+    @Query("SELECT new ru.practicum.shareit.timeline.BookingInterval(b.id, b.item.id, b.booker.id, b.start, b.end) " +
+            "FROM Booking b WHERE b.item.id = :itemId AND b.status IN :statuses " +
+            "AND b.start < :to AND b.end > :from ORDER BY b.start")
+    List<BookingInterval> findIntervalsInRange(@Param("itemId") Long itemId,
+                                               @Param("statuses") Collection<BookingStatus> statuses,
+                                               @Param("from") LocalDateTime from,
+                                               @Param("to") LocalDateTime to);
+
+    @Query("SELECT new ru.practicum.shareit.timeline.BookingInterval(b.id, b.item.id, b.booker.id, b.start, b.end) " +
+            "FROM Booking b WHERE b.item.id = :itemId AND b.status = 'APPROVED' ORDER BY b.start")
+    List<BookingInterval> findApprovedIntervalsByItemId(@Param("itemId") Long itemId);
+
+    /**
+     * Строки выгрузки без общей сортировки: секции читаются по очереди и строки уходят клиенту
+     * по мере чтения, не дожидаясь сортировки всей истории владельца. Порядок строк не задан.
+     */
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"))
+    @Query("SELECT new ru.practicum.shareit.export.BookingExportRow(" +
+            "b.id, i.id, i.name, b.booker.id, b.start, b.end, b.status) " +
+            "FROM Booking b JOIN b.item i WHERE i.ownerId = :ownerId")
+    Stream<BookingExportRow> streamExportRowsByItemOwnerId(@Param("ownerId") Long ownerId);
+}
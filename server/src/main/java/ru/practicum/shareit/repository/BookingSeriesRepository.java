@@ -0,0 +1,34 @@
+package ru.practicum.shareit.repository;
+
+import org.springframework.data.jpa.repository.EntityGraph;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import ru.practicum.shareit.model.BookingSeries;
+import ru.practicum.shareit.model.BookingStatus;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+public interface BookingSeriesRepository extends JpaRepository<BookingSeries, Long> {
+    @EntityGraph(attributePaths = {"item", "booker"})
+    Optional<BookingSeries> findWithItemAndBookerById(Long id);
+
+    @EntityGraph(attributePaths = {"item", "booker"})
+    List<BookingSeries> findByBookerId(Long bookerId);
+
+    @EntityGraph(attributePaths = {"item", "booker"})
+    List<BookingSeries> findByItemOwnerId(Long ownerId);
+
+    List<BookingSeries> findByItemIdInAndStatusIn(Collection<Long> itemIds, Collection<BookingStatus> statuses);
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE BookingSeries s SET s.status = :status " +
+            "WHERE s.id = :seriesId AND s.status = ru.practicum.shareit.model.BookingStatus.WAITING " +
+            "AND s.item.id IN (SELECT i.id FROM Item i WHERE i.ownerId = :ownerId)")
+    int decideWaiting(@Param("seriesId") Long seriesId,
+                      @Param("ownerId") Long ownerId,
+                      @Param("status") BookingStatus status);
+}
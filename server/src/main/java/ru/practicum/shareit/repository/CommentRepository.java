@@ -1,12 +1,49 @@
 package ru.practicum.shareit.repository;
 
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import ru.practicum.shareit.dto.item.CommentCountView;
+import ru.practicum.shareit.dto.item.CommentDto;
+import ru.practicum.shareit.dto.item.RecentCommentView;
 import ru.practicum.shareit.model.Comment;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 
 public interface CommentRepository extends JpaRepository<Comment, Long> {
-    List<Comment> findByItemId(Long itemId);
+    String COMMENT_DTO = "SELECT new ru.practicum.shareit.dto.item.CommentDto(c.id, c.text, a.name, c.created) " +
+            "FROM Comment c JOIN c.author a WHERE c.item.id = :itemId ";
 
-    List<Comment> findByItemIdIn(List<Long> itemIds);
-}
\ No newline at end of file
+    String KEYSET_ORDER = "ORDER BY c.created DESC, c.id DESC";
+
+    @Query(COMMENT_DTO + KEYSET_ORDER)
+    List<CommentDto> findPageByItemId(@Param("itemId") Long itemId, Pageable pageable);
+
+    @Query(COMMENT_DTO + "AND (c.created < :cursorCreated OR (c.created = :cursorCreated AND c.id < :cursorId)) " +
+            KEYSET_ORDER)
+    List<CommentDto> findPageByItemIdBefore(@Param("itemId") Long itemId,
+                                            @Param("cursorCreated") LocalDateTime cursorCreated,
+                                            @Param("cursorId") Long cursorId,
+                                            Pageable pageable);
+
+    /**
+     * Последние {@code limit} отзывов каждой вещи: по одному ограниченному подзапросу на вещь
+     * по индексу (item_id, created, id), без чтения и подсчёта остальных отзывов.
+     */
+    @Query("SELECT i.id AS itemId, r.id AS id, r.text AS text, r.authorName AS authorName, r.created AS created " +
+            "FROM Item i JOIN LATERAL (" +
+            "SELECT c.id AS id, c.text AS text, a.name AS authorName, c.created AS created " +
+            "FROM Comment c JOIN c.author a WHERE c.item.id = i.id " +
+            "ORDER BY c.created DESC, c.id DESC LIMIT :limit) r " +
+            "WHERE i.id IN :itemIds " +
+            "ORDER BY i.id, r.created DESC, r.id DESC")
+    List<RecentCommentView> findRecentByItemIdIn(@Param("itemIds") Collection<Long> itemIds,
+                                                 @Param("limit") int limit);
+
+    @Query("SELECT c.item.id AS itemId, COUNT(c) AS total FROM Comment c " +
+            "WHERE c.item.id IN :itemIds GROUP BY c.item.id")
+    List<CommentCountView> countByItemIdIn(@Param("itemIds") Collection<Long> itemIds);
+}
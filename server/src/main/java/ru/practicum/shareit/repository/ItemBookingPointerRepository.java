@@ -0,0 +1,36 @@
+package ru.practicum.shareit.repository;
+
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import ru.practicum.shareit.model.ItemBookingPointer;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+public interface ItemBookingPointerRepository extends JpaRepository<ItemBookingPointer, Long> {
+    @Query("SELECT p.itemId FROM ItemBookingPointer p WHERE p.validUntil <= :current ORDER BY p.validUntil")
+    List<Long> findExpiredItemIds(@Param("current") LocalDateTime current, Pageable pageable);
+
+    /**
+     * Вставляет указатель или перезаписывает существующий одной командой:
+     * на PostgreSQL это {@code INSERT ... ON CONFLICT (item_id) DO UPDATE}.
+     */
+    @Modifying
+    @Query("INSERT INTO ItemBookingPointer (itemId, lastBookingId, lastBookerId, lastStart, lastEnd, " +
+            "nextBookingId, nextBookerId, nextStart, nextEnd, validUntil) " +
+            "VALUES (:#{#p.itemId}, :#{#p.lastBookingId}, :#{#p.lastBookerId}, :#{#p.lastStart}, :#{#p.lastEnd}, " +
+            ":#{#p.nextBookingId}, :#{#p.nextBookerId}, :#{#p.nextStart}, :#{#p.nextEnd}, :#{#p.validUntil}) " +
+            "ON CONFLICT (itemId) DO UPDATE SET lastBookingId = excluded.lastBookingId, " +
+            "lastBookerId = excluded.lastBookerId, lastStart = excluded.lastStart, lastEnd = excluded.lastEnd, " +
+            "nextBookingId = excluded.nextBookingId, nextBookerId = excluded.nextBookerId, " +
+            "nextStart = excluded.nextStart, nextEnd = excluded.nextEnd, validUntil = excluded.validUntil")
+    void upsert(@Param("p") ItemBookingPointer pointer);
+
+    @Modifying
+    @Query("DELETE FROM ItemBookingPointer p WHERE p.itemId IN :itemIds")
+    void deleteByItemIds(@Param("itemIds") Collection<Long> itemIds);
+}
@@ -1,19 +1,69 @@
 package ru.practicum.shareit.repository;
 
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
+import ru.practicum.shareit.dto.item.ItemDetailView;
+import ru.practicum.shareit.export.ItemExportRow;
 import ru.practicum.shareit.model.Item;
+import ru.practicum.shareit.search.ItemDocument;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.stream.Stream;
 
 public interface ItemRepository extends JpaRepository<Item, Long> {
-    List<Item> findByOwnerId(Long ownerId);
+    List<Item> findByOwnerIdOrderById(Long ownerId, Pageable pageable);
 
-    @Query("SELECT i FROM Item i WHERE i.available = true AND " +
-            "(LOWER(i.name) LIKE LOWER(CONCAT('%', :text, '%')) OR " +
-            "LOWER(i.description) LIKE LOWER(CONCAT('%', :text, '%')))")
-    List<Item> searchAvailable(@Param("text") String text);
+    List<Item> findByOwnerIdAndIdGreaterThanOrderById(Long ownerId, Long afterId, Pageable pageable);
+
+    @Query(value = "SELECT i.id, i.name, i.description, i.is_available AS available, i.owner_id AS ownerId, " +
+            "i.request_id AS requestId, (SELECT COUNT(*) FROM comments cc WHERE cc.item_id = i.id) AS commentsCount, " +
+            "c.id AS commentId, c.text AS commentText, u.name AS authorName, c.created AS commentCreated " +
+            "FROM items i LEFT JOIN (" +
+            "SELECT * FROM comments WHERE item_id = :itemId ORDER BY created DESC, id DESC LIMIT :limit" +
+            ") c ON c.item_id = i.id LEFT JOIN users u ON u.id = c.author_id " +
+            "WHERE i.id = :itemId ORDER BY c.created DESC, c.id DESC",
+            nativeQuery = true)
+    List<ItemDetailView> findDetailRows(@Param("itemId") Long itemId, @Param("limit") int limit);
+
+    @Query(value = "SELECT i.* FROM items i " +
+            "WHERE i.is_available = true AND (" +
+            "i.search_vector @@ plainto_tsquery('simple', :text) OR " +
+            "LOWER(i.name) LIKE '%' || LOWER(:text) || '%' OR " +
+            "LOWER(i.description) LIKE '%' || LOWER(:text) || '%') " +
+            "ORDER BY ts_rank(i.search_vector, plainto_tsquery('simple', :text)) DESC, " +
+            "similarity(LOWER(i.name), LOWER(:text)) DESC, i.id",
+            nativeQuery = true)
+    List<Item> searchAvailable(@Param("text") String text, Pageable pageable);
+
+    @Query("SELECT DISTINCT i.name FROM Item i WHERE i.available = true AND " +
+            "LOWER(i.name) LIKE CONCAT(LOWER(:prefix), '%') ORDER BY i.name")
+    List<String> findAvailableNamesByPrefix(@Param("prefix") String prefix, Pageable pageable);
 
     List<Item> findByRequestIdIn(List<Long> requestIds);
-}
\ No newline at end of file
+
+    @Query("SELECT i.id FROM Item i WHERE i.id > :afterId ORDER BY i.id")
+    List<Long> findIdsAfter(@Param("afterId") Long afterId, Pageable pageable);
+
+    /**
+     * Блокирует строки вещей до конца транзакции. Строки берутся в порядке id,
+     * поэтому транзакции, блокирующие пересекающиеся наборы вещей, не взаимоблокируются.
+     */
+    @Query(value = "SELECT id FROM items WHERE id IN (:itemIds) ORDER BY id FOR UPDATE", nativeQuery = true)
+    List<Long> lockByIdIn(@Param("itemIds") Collection<Long> itemIds);
+
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"))
+    @Query("SELECT new ru.practicum.shareit.search.ItemDocument(" +
+            "i.id, i.name, i.description, i.available, i.ownerId, i.requestId) FROM Item i ORDER BY i.id")
+    Stream<ItemDocument> streamAllDocuments();
+
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"))
+    @Query("SELECT new ru.practicum.shareit.export.ItemExportRow(" +
+            "i.id, i.name, i.description, i.available, i.requestId) FROM Item i WHERE i.ownerId = :ownerId ORDER BY i.id")
+    Stream<ItemExportRow> streamExportRowsByOwnerId(@Param("ownerId") Long ownerId);
+}
@@ -1,10 +1,26 @@
 package ru.practicum.shareit.repository;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import ru.practicum.shareit.model.User;
 
+import java.util.Optional;
+
 public interface UserRepository extends JpaRepository<User, Long> {
     boolean existsByEmail(String email);
 
     boolean existsByEmailAndIdNot(String email, Long id);
+
+    /**
+     * Проверяет пользователя и наличие у него серий бронирований одним запросом.
+     * Пустой результат означает, что пользователь не найден.
+     */
+    @Query("SELECT CASE WHEN EXISTS (SELECT s.id FROM BookingSeries s WHERE s.booker.id = u.id) " +
+            "THEN true ELSE false END FROM User u WHERE u.id = :userId")
+    Optional<Boolean> findHasSeriesAsBooker(@Param("userId") Long userId);
+
+    @Query("SELECT CASE WHEN EXISTS (SELECT s.id FROM BookingSeries s WHERE s.item.ownerId = u.id) " +
+            "THEN true ELSE false END FROM User u WHERE u.id = :userId")
+    Optional<Boolean> findHasSeriesAsOwner(@Param("userId") Long userId);
 }
\ No newline at end of file
@@ -0,0 +1,25 @@
+package ru.practicum.shareit.search;
+
+import lombok.Value;
+import ru.practicum.shareit.model.Item;
+
+@Value
+public class ItemDocument {
+    Long id;
+    String name;
+    String description;
+    Boolean available;
+    Long ownerId;
+    Long requestId;
+
+    public static ItemDocument of(Item item) {
+        return new ItemDocument(
+                item.getId(),
+                item.getName(),
+                item.getDescription(),
+                item.getAvailable(),
+                item.getOwnerId(),
+                item.getRequestId()
+        );
+    }
+}
@@ -0,0 +1,54 @@
+package ru.practicum.shareit.search;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionalEventListener;
+import ru.practicum.shareit.event.ItemSavedEvent;
+import ru.practicum.shareit.repository.ItemRepository;
+
+import java.util.stream.Stream;
+
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class ItemIndexer {
+    private final ItemRepository itemRepository;
+    private final ItemSearchIndex searchIndex;
+    private final ItemNameTrie nameTrie;
+    private final SearchProperties searchProperties;
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional(readOnly = true)
+    public void buildIndexes() {
+        boolean searchIndexEnabled = searchProperties.isMemory();
+        log.info("Построение индексов вещей, поисковый индекс: {}", searchIndexEnabled);
+        long startedAt = System.currentTimeMillis();
+        try (Stream<ItemDocument> documents = itemRepository.streamAllDocuments()) {
+            documents.forEach(document -> {
+                nameTrie.putIfAbsent(document);
+                if (searchIndexEnabled) {
+                    searchIndex.indexIfAbsent(document);
+                }
+            });
+        }
+        nameTrie.markReady();
+        if (searchIndexEnabled) {
+            searchIndex.markReady();
+            log.info("Поисковый индекс построен: {} вещей", searchIndex.size());
+        }
+        log.info("Индексы вещей построены за {} мс", System.currentTimeMillis() - startedAt);
+    }
+
+    @TransactionalEventListener
+    public void onItemSaved(ItemSavedEvent event) {
+        ItemDocument document = ItemDocument.of(event.getItem());
+        nameTrie.put(document);
+        if (searchProperties.isMemory()) {
+            searchIndex.index(document);
+        }
+    }
+}
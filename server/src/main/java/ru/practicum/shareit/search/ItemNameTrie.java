@@ -0,0 +1,303 @@
+package ru.practicum.shareit.search;
+
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Сжатое префиксное дерево (radix trie) названий вещей для автодополнения.
+ * В каждом узле хранится число доступных вещей в поддереве, поэтому обход
+ * пропускает ветки без доступных вещей и останавливается на первых {@code limit} названиях.
+ * Поиск подсказок не создаёт объектов, кроме списка результатов.
+ */
+@Component
+public class ItemNameTrie {
+    private static final Node[] NO_CHILDREN = new Node[0];
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Node root = new Node(new char[0]);
+    private final Map<Long, Entry> entries = new HashMap<>();
+    private volatile boolean ready;
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    public void markReady() {
+        ready = true;
+    }
+
+    public int nodeCount() {
+        lock.readLock().lock();
+        try {
+            return count(root);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public void put(ItemDocument document) {
+        lock.writeLock().lock();
+        try {
+            putInternal(document);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void putIfAbsent(ItemDocument document) {
+        lock.writeLock().lock();
+        try {
+            if (!entries.containsKey(document.getId())) {
+                putInternal(document);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public List<String> suggest(String prefix, int limit) {
+        if (prefix == null || limit <= 0) {
+            return Collections.emptyList();
+        }
+
+        int begin = 0;
+        int end = prefix.length();
+        while (begin < end && Character.isWhitespace(prefix.charAt(begin))) {
+            begin++;
+        }
+        while (end > begin && Character.isWhitespace(prefix.charAt(end - 1))) {
+            end--;
+        }
+        if (begin == end) {
+            return Collections.emptyList();
+        }
+
+        lock.readLock().lock();
+        try {
+            Node node = root;
+            int position = begin;
+            while (position < end) {
+                Node child = node.child(Character.toLowerCase(prefix.charAt(position)));
+                if (child == null) {
+                    return Collections.emptyList();
+                }
+                for (int i = 0; i < child.label.length && position < end; i++, position++) {
+                    if (child.label[i] != Character.toLowerCase(prefix.charAt(position))) {
+                        return Collections.emptyList();
+                    }
+                }
+                node = child;
+            }
+
+            if (node.subtreeAvailable == 0) {
+                return Collections.emptyList();
+            }
+            List<String> result = new ArrayList<>(Math.min(limit, node.subtreeAvailable));
+            collect(node, result, limit);
+            return result;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private void putInternal(ItemDocument document) {
+        String name = document.getName() == null ? "" : document.getName().trim();
+        boolean available = Boolean.TRUE.equals(document.getAvailable());
+        char[] key = normalize(name);
+
+        Entry previous = entries.get(document.getId());
+        if (previous != null) {
+            if (previous.available == available && previous.name.equals(name)) {
+                return;
+            }
+            remove(previous);
+        }
+
+        if (key.length == 0) {
+            entries.remove(document.getId());
+            return;
+        }
+        insert(key, name, available);
+        entries.put(document.getId(), new Entry(key, name, available));
+    }
+
+    private void insert(char[] key, String name, boolean available) {
+        int delta = available ? 1 : 0;
+        Node node = root;
+        node.subtreeAvailable += delta;
+        int position = 0;
+
+        while (position < key.length) {
+            int index = node.childIndex(key[position]);
+            if (index < 0) {
+                Node leaf = new Node(Arrays.copyOfRange(key, position, key.length));
+                node.insertChild(-index - 1, leaf);
+                node = leaf;
+                node.subtreeAvailable += delta;
+                position = key.length;
+                break;
+            }
+
+            Node child = node.children[index];
+            int common = 0;
+            while (common < child.label.length && position + common < key.length
+                    && child.label[common] == key[position + common]) {
+                common++;
+            }
+            if (common < child.label.length) {
+                Node middle = new Node(Arrays.copyOf(child.label, common));
+                child.label = Arrays.copyOfRange(child.label, common, child.label.length);
+                middle.children = new Node[]{child};
+                middle.childCount = 1;
+                middle.subtreeAvailable = child.subtreeAvailable;
+                node.children[index] = middle;
+                child = middle;
+            }
+            node = child;
+            node.subtreeAvailable += delta;
+            position += common;
+        }
+
+        node.terminalTotal++;
+        node.terminalAvailable += delta;
+        node.name = name;
+    }
+
+    private void remove(Entry entry) {
+        int delta = entry.available ? 1 : 0;
+        Node[] path = new Node[entry.key.length + 1];
+        int depth = 0;
+        Node node = root;
+        node.subtreeAvailable -= delta;
+        path[depth] = node;
+        int position = 0;
+        while (position < entry.key.length) {
+            node = node.child(entry.key[position]);
+            node.subtreeAvailable -= delta;
+            position += node.label.length;
+            path[++depth] = node;
+        }
+
+        node.terminalTotal--;
+        node.terminalAvailable -= delta;
+        if (node.terminalTotal == 0) {
+            node.name = null;
+            prune(path, depth);
+        }
+    }
+
+    /**
+     * Удаляет опустевшие узлы на пути от листа к корню и склеивает
+     * нетерминальный узел с единственным потомком, сохраняя дерево сжатым.
+     */
+    private static void prune(Node[] path, int depth) {
+        for (int i = depth; i > 0; i--) {
+            Node node = path[i];
+            if (node.terminalTotal > 0) {
+                return;
+            }
+            if (node.childCount == 0) {
+                path[i - 1].removeChild(node.label[0]);
+                continue;
+            }
+            if (node.childCount == 1) {
+                Node child = node.children[0];
+                char[] label = Arrays.copyOf(node.label, node.label.length + child.label.length);
+                System.arraycopy(child.label, 0, label, node.label.length, child.label.length);
+                child.label = label;
+                path[i - 1].children[path[i - 1].childIndex(label[0])] = child;
+            }
+            return;
+        }
+    }
+
+    private static void collect(Node node, List<String> result, int limit) {
+        if (node.terminalAvailable > 0) {
+            result.add(node.name);
+        }
+        for (int i = 0; i < node.childCount && result.size() < limit; i++) {
+            Node child = node.children[i];
+            if (child.subtreeAvailable > 0) {
+                collect(child, result, limit);
+            }
+        }
+    }
+
+    private static int count(Node node) {
+        int count = 1;
+        for (int i = 0; i < node.childCount; i++) {
+            count += count(node.children[i]);
+        }
+        return count;
+    }
+
+    private static char[] normalize(String name) {
+        char[] key = new char[name.length()];
+        for (int i = 0; i < key.length; i++) {
+            key[i] = Character.toLowerCase(name.charAt(i));
+        }
+        return key;
+    }
+
+    private static final class Node {
+        private char[] label;
+        private Node[] children = NO_CHILDREN;
+        private int childCount;
+        private String name;
+        private int terminalTotal;
+        private int terminalAvailable;
+        private int subtreeAvailable;
+
+        Node(char[] label) {
+            this.label = label;
+        }
+
+        Node child(char first) {
+            int index = childIndex(first);
+            return index < 0 ? null : children[index];
+        }
+
+        int childIndex(char first) {
+            int low = 0;
+            int high = childCount - 1;
+            while (low <= high) {
+                int middle = (low + high) >>> 1;
+                char value = children[middle].label[0];
+                if (value < first) {
+                    low = middle + 1;
+                } else if (value > first) {
+                    high = middle - 1;
+                } else {
+                    return middle;
+                }
+            }
+            return -(low + 1);
+        }
+
+        void removeChild(char first) {
+            int index = childIndex(first);
+            System.arraycopy(children, index + 1, children, index, childCount - index - 1);
+            children[--childCount] = null;
+        }
+
+        void insertChild(int index, Node child) {
+            if (childCount == children.length) {
+                children = Arrays.copyOf(children, Math.max(2, childCount * 2));
+            }
+            System.arraycopy(children, index, children, index + 1, childCount - index);
+            children[index] = child;
+            childCount++;
+        }
+    }
+
+    private record Entry(char[] key, String name, boolean available) {
+    }
+}
@@ -0,0 +1,306 @@
+package ru.practicum.shareit.search;
+
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Инвертированный индекс названий и описаний вещей в памяти процесса.
+ * Постинг-листы хранят порядковые номера документов в отсортированных массивах {@code int[]},
+ * доступность вещи - отдельный {@link BitSet}, поэтому её переключение не трогает постинги.
+ * Термин запроса сопоставляется со всеми терминами индекса, начинающимися с него.
+ * Результаты ранжируются так же, как в БД: точное совпадение термина в названии весит
+ * {@value #NAME_WEIGHT}, в описании - {@value #DESCRIPTION_WEIGHT} (веса A и B у {@code ts_rank}),
+ * при равенстве выше вещь с названием, ближе по длине к запросу, затем с меньшим ID.
+ */
+@Component
+public class ItemSearchIndex {
+    private static final int INITIAL_CAPACITY = 1024;
+    private static final float NAME_WEIGHT = 1.0f;
+    private static final float DESCRIPTION_WEIGHT = 0.4f;
+    private static final Comparator<Ranked> RANKING = Comparator.comparingDouble(Ranked::score).reversed()
+            .thenComparingInt(Ranked::nameDistance)
+            .thenComparing(ranked -> ranked.document().getId());
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final NavigableMap<String, PostingList> postings = new TreeMap<>();
+    private final Map<Long, Integer> ordinals = new HashMap<>();
+    private final BitSet available = new BitSet();
+    private ItemDocument[] documents = new ItemDocument[INITIAL_CAPACITY];
+    private String[][] documentTerms = new String[INITIAL_CAPACITY][];
+    private String[][] nameTerms = new String[INITIAL_CAPACITY][];
+    private int documentCount;
+    private volatile boolean ready;
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    public void markReady() {
+        ready = true;
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return documentCount;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public void index(ItemDocument document) {
+        lock.writeLock().lock();
+        try {
+            put(document);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void indexIfAbsent(ItemDocument document) {
+        lock.writeLock().lock();
+        try {
+            if (!ordinals.containsKey(document.getId())) {
+                put(document);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public List<ItemDocument> search(String text, int from, int size) {
+        String[] queryTerms = tokenize(text);
+        if (queryTerms.length == 0 || size <= 0) {
+            return Collections.emptyList();
+        }
+
+        lock.readLock().lock();
+        try {
+            int[][] matches = new int[queryTerms.length][];
+            for (int i = 0; i < queryTerms.length; i++) {
+                matches[i] = prefixUnion(queryTerms[i]);
+                if (matches[i].length == 0) {
+                    return Collections.emptyList();
+                }
+            }
+            Arrays.sort(matches, (a, b) -> Integer.compare(a.length, b.length));
+
+            int[] candidates = matches[0];
+            int candidateCount = candidates.length;
+            for (int i = 1; i < matches.length && candidateCount > 0; i++) {
+                candidateCount = intersect(candidates, candidateCount, matches[i]);
+            }
+
+            int availableCount = 0;
+            for (int i = 0; i < candidateCount; i++) {
+                if (available.get(candidates[i])) {
+                    candidates[availableCount++] = candidates[i];
+                }
+            }
+            if (from >= availableCount) {
+                return Collections.emptyList();
+            }
+
+            int queryLength = text.trim().length();
+            Ranked[] ranked = new Ranked[availableCount];
+            for (int i = 0; i < availableCount; i++) {
+                int ordinal = candidates[i];
+                ItemDocument document = documents[ordinal];
+                ranked[i] = new Ranked(document, score(ordinal, queryTerms),
+                        Math.abs(document.getName().length() - queryLength));
+            }
+            Arrays.sort(ranked, RANKING);
+
+            int to = (int) Math.min(availableCount, (long) from + size);
+            List<ItemDocument> result = new ArrayList<>(to - from);
+            for (int i = from; i < to; i++) {
+                result.add(ranked[i].document());
+            }
+            return result;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private float score(int ordinal, String[] queryTerms) {
+        float score = 0;
+        for (String term : queryTerms) {
+            if (Arrays.binarySearch(nameTerms[ordinal], term) >= 0) {
+                score += NAME_WEIGHT;
+            } else if (Arrays.binarySearch(documentTerms[ordinal], term) >= 0) {
+                score += DESCRIPTION_WEIGHT;
+            }
+        }
+        return score;
+    }
+
+    private void put(ItemDocument document) {
+        Integer existing = ordinals.get(document.getId());
+        int ordinal;
+        if (existing == null) {
+            ordinal = documentCount++;
+            ensureCapacity(documentCount);
+            ordinals.put(document.getId(), ordinal);
+        } else {
+            ordinal = existing;
+        }
+
+        String[] oldTerms = documentTerms[ordinal];
+        String[] newTerms = tokenize(document.getName() + " " + document.getDescription());
+
+        if (oldTerms != null) {
+            for (String term : oldTerms) {
+                if (Arrays.binarySearch(newTerms, term) < 0) {
+                    PostingList list = postings.get(term);
+                    list.remove(ordinal);
+                    if (list.isEmpty()) {
+                        postings.remove(term);
+                    }
+                }
+            }
+        }
+        for (String term : newTerms) {
+            if (oldTerms == null || Arrays.binarySearch(oldTerms, term) < 0) {
+                postings.computeIfAbsent(term, t -> new PostingList()).add(ordinal);
+            }
+        }
+
+        documents[ordinal] = document;
+        documentTerms[ordinal] = newTerms;
+        nameTerms[ordinal] = tokenize(document.getName());
+        available.set(ordinal, Boolean.TRUE.equals(document.getAvailable()));
+    }
+
+    private void ensureCapacity(int capacity) {
+        if (capacity > documents.length) {
+            int newLength = Math.max(capacity, documents.length * 2);
+            documents = Arrays.copyOf(documents, newLength);
+            documentTerms = Arrays.copyOf(documentTerms, newLength);
+            nameTerms = Arrays.copyOf(nameTerms, newLength);
+        }
+    }
+
+    private int[] prefixUnion(String prefix) {
+        Collection<PostingList> lists = postings.subMap(prefix, true, prefix + Character.MAX_VALUE, false).values();
+        if (lists.isEmpty()) {
+            return new int[0];
+        }
+        if (lists.size() == 1) {
+            PostingList list = lists.iterator().next();
+            return Arrays.copyOf(list.ordinals, list.size);
+        }
+
+        int total = 0;
+        for (PostingList list : lists) {
+            total += list.size;
+        }
+        int[] merged = new int[total];
+        int position = 0;
+        for (PostingList list : lists) {
+            System.arraycopy(list.ordinals, 0, merged, position, list.size);
+            position += list.size;
+        }
+        Arrays.sort(merged);
+
+        int unique = 0;
+        for (int i = 0; i < merged.length; i++) {
+            if (i == 0 || merged[i] != merged[i - 1]) {
+                merged[unique++] = merged[i];
+            }
+        }
+        return unique == merged.length ? merged : Arrays.copyOf(merged, unique);
+    }
+
+    private static int intersect(int[] target, int targetCount, int[] other) {
+        int count = 0;
+        int j = 0;
+        for (int i = 0; i < targetCount && j < other.length; i++) {
+            int value = target[i];
+            while (j < other.length && other[j] < value) {
+                j++;
+            }
+            if (j < other.length && other[j] == value) {
+                target[count++] = value;
+            }
+        }
+        return count;
+    }
+
+    static String[] tokenize(String text) {
+        if (text == null || text.isBlank()) {
+            return new String[0];
+        }
+
+        String lower = text.toLowerCase(Locale.ROOT);
+        List<String> tokens = new ArrayList<>();
+        int start = -1;
+        for (int i = 0; i <= lower.length(); i++) {
+            boolean partOfToken = i < lower.length() && Character.isLetterOrDigit(lower.charAt(i));
+            if (partOfToken && start < 0) {
+                start = i;
+            } else if (!partOfToken && start >= 0) {
+                tokens.add(lower.substring(start, i));
+                start = -1;
+            }
+        }
+        return tokens.stream().distinct().sorted().toArray(String[]::new);
+    }
+
+    private record Ranked(ItemDocument document, float score, int nameDistance) {
+    }
+
+    private static final class PostingList {
+        private int[] ordinals = new int[4];
+        private int size;
+
+        void add(int ordinal) {
+            if (size == 0 || ordinals[size - 1] < ordinal) {
+                grow();
+                ordinals[size++] = ordinal;
+                return;
+            }
+            int position = Arrays.binarySearch(ordinals, 0, size, ordinal);
+            if (position >= 0) {
+                return;
+            }
+            int insertAt = -position - 1;
+            grow();
+            System.arraycopy(ordinals, insertAt, ordinals, insertAt + 1, size - insertAt);
+            ordinals[insertAt] = ordinal;
+            size++;
+        }
+
+        void remove(int ordinal) {
+            int position = Arrays.binarySearch(ordinals, 0, size, ordinal);
+            if (position < 0) {
+                return;
+            }
+            System.arraycopy(ordinals, position + 1, ordinals, position, size - position - 1);
+            size--;
+        }
+
+        boolean isEmpty() {
+            return size == 0;
+        }
+
+        private void grow() {
+            if (size == ordinals.length) {
+                ordinals = Arrays.copyOf(ordinals, ordinals.length * 2);
+            }
+        }
+    }
+}
@@ -0,0 +1,19 @@
+package ru.practicum.shareit.search;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+@Data
+@ConfigurationProperties(prefix = "shareit.search")
+public class SearchProperties {
+    private Mode mode = Mode.DATABASE;
+
+    public boolean isMemory() {
+        return mode == Mode.MEMORY;
+    }
+
+    public enum Mode {
+        DATABASE,
+        MEMORY
+    }
+}
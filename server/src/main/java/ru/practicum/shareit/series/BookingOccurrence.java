@@ -0,0 +1,13 @@
+package ru.practicum.shareit.series;
+
+import lombok.Value;
+import ru.practicum.shareit.model.BookingSeries;
+
+import java.time.LocalDateTime;
+
+@Value
+public class BookingOccurrence {
+    BookingSeries series;
+    LocalDateTime start;
+    LocalDateTime end;
+}
@@ -0,0 +1,96 @@
+package ru.practicum.shareit.series;
+
+import ru.practicum.shareit.model.BookingSeries;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Вычисление вхождений серии бронирований без их сохранения.
+ * Вхождение с номером i начинается в {@code start + i * шаг} и длится столько же, сколько первое;
+ * последнее вхождение начинается не позже {@code until}. Границы интервалов по началу вхождения
+ * исключающие, {@code null} означает отсутствие границы.
+ */
+public final class BookingOccurrences {
+    private BookingOccurrences() {
+    }
+
+    public static Duration duration(BookingSeries series) {
+        return Duration.between(series.getStart(), series.getEnd());
+    }
+
+    public static long count(BookingSeries series) {
+        if (series.getUntil().isBefore(series.getStart())) {
+            return 0;
+        }
+        return Duration.between(series.getStart(), series.getUntil()).dividedBy(series.getFrequency().getStep()) + 1;
+    }
+
+    public static BookingOccurrence get(BookingSeries series, long index) {
+        Duration offset = series.getFrequency().getStep().multipliedBy(index);
+        return new BookingOccurrence(series, series.getStart().plus(offset), series.getEnd().plus(offset));
+    }
+
+    public static long countBetween(BookingSeries series, LocalDateTime after, LocalDateTime before) {
+        return Math.max(0, last(series, before, false) - first(series, after) + 1);
+    }
+
+    public static List<BookingOccurrence> between(BookingSeries series, LocalDateTime after, LocalDateTime before) {
+        List<BookingOccurrence> occurrences = new ArrayList<>();
+        long last = last(series, before, false);
+        for (long index = first(series, after); index <= last; index++) {
+            occurrences.add(get(series, index));
+        }
+        return occurrences;
+    }
+
+    public static List<BookingOccurrence> latest(BookingSeries series, LocalDateTime after, LocalDateTime before,
+                                                 boolean includeBefore, int limit) {
+        List<BookingOccurrence> occurrences = new ArrayList<>();
+        long first = first(series, after);
+        for (long index = last(series, before, includeBefore); index >= first && occurrences.size() < limit; index--) {
+            occurrences.add(get(series, index));
+        }
+        return occurrences;
+    }
+
+    public static boolean overlaps(BookingSeries series, LocalDateTime start, LocalDateTime end) {
+        return countBetween(series, start.minus(duration(series)), end) > 0;
+    }
+
+    public static BookingOccurrence lastEnded(BookingSeries series, LocalDateTime now) {
+        long index = last(series, now.minus(duration(series)), false);
+        return index < 0 ? null : get(series, index);
+    }
+
+    public static BookingOccurrence nextStarting(BookingSeries series, LocalDateTime now) {
+        long index = first(series, now);
+        return index < count(series) ? get(series, index) : null;
+    }
+
+    private static long first(BookingSeries series, LocalDateTime after) {
+        if (after == null || after.isBefore(series.getStart())) {
+            return 0;
+        }
+        return Duration.between(series.getStart(), after).dividedBy(series.getFrequency().getStep()) + 1;
+    }
+
+    private static long last(BookingSeries series, LocalDateTime before, boolean inclusive) {
+        long count = count(series);
+        if (before == null) {
+            return count - 1;
+        }
+        if (!before.isAfter(series.getStart())) {
+            return inclusive && before.isEqual(series.getStart()) ? 0 : -1;
+        }
+        Duration step = series.getFrequency().getStep();
+        Duration elapsed = Duration.between(series.getStart(), before);
+        long index = elapsed.dividedBy(step);
+        if (!inclusive && elapsed.equals(step.multipliedBy(index))) {
+            index--;
+        }
+        return Math.min(count - 1, index);
+    }
+}
@@ -0,0 +1,11 @@
+package ru.practicum.shareit.service;
+
+import java.time.LocalDateTime;
+
+public interface BookingExpiryService {
+    int BATCH_SIZE = 500;
+
+    int expireBatch(LocalDateTime current);
+
+    void refreshLag(LocalDateTime current);
+}
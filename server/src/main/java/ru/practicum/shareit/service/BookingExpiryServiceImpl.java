@@ -0,0 +1,61 @@
+package ru.practicum.shareit.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import ru.practicum.shareit.event.BookingChangedEvent;
+import ru.practicum.shareit.repository.BookingRepository;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+@Slf4j
+@Service
+public class BookingExpiryServiceImpl implements BookingExpiryService {
+    private final BookingRepository bookingRepository;
+    private final ApplicationEventPublisher eventPublisher;
+    private final Counter processed;
+    private final AtomicLong lagSeconds = new AtomicLong();
+
+    public BookingExpiryServiceImpl(BookingRepository bookingRepository, ApplicationEventPublisher eventPublisher,
+                                    MeterRegistry meterRegistry) {
+        this.bookingRepository = bookingRepository;
+        this.eventPublisher = eventPublisher;
+        this.processed = Counter.builder("shareit.booking.expiry.processed")
+                .description("Неподтверждённые бронирования, переведённые в EXPIRED")
+                .register(meterRegistry);
+        Gauge.builder("shareit.booking.expiry.lag", lagSeconds, AtomicLong::get)
+                .description("Возраст самого старого просроченного бронирования в статусе WAITING")
+                .baseUnit("seconds")
+                .register(meterRegistry);
+    }
+
+    @Override
+    @Transactional
+    public int expireBatch(LocalDateTime current) {
+        List<Long> ids = bookingRepository.lockStaleWaitingIds(current, BATCH_SIZE);
+        if (ids.isEmpty()) {
+            return 0;
+        }
+
+        int expired = bookingRepository.expireWaiting(ids);
+        bookingRepository.findWithItemAndBookerByIdIn(ids)
+                .forEach(booking -> eventPublisher.publishEvent(BookingChangedEvent.of(booking)));
+        processed.increment(expired);
+        log.debug("Просрочено {} бронирований в статусе WAITING", expired);
+        return ids.size();
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public void refreshLag(LocalDateTime current) {
+        LocalDateTime oldest = bookingRepository.findOldestStaleWaitingStart(current);
+        lagSeconds.set(oldest == null ? 0 : Duration.between(oldest, current).toSeconds());
+    }
+}
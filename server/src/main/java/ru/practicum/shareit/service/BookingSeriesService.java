@@ -0,0 +1,12 @@
+package ru.practicum.shareit.service;
+
+import ru.practicum.shareit.dto.booking.BookingSeriesDto;
+import ru.practicum.shareit.dto.booking.BookingSeriesResponseDto;
+
+public interface BookingSeriesService {
+    long MAX_OCCURRENCES = 520;
+
+    BookingSeriesResponseDto createSeries(BookingSeriesDto seriesDto, Long bookerId);
+
+    BookingSeriesResponseDto updateSeriesStatus(Long seriesId, Boolean approved, Long ownerId);
+}
@@ -0,0 +1,123 @@
+package ru.practicum.shareit.service;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import ru.practicum.shareit.dto.booking.BookingSeriesDto;
+import ru.practicum.shareit.dto.booking.BookingSeriesResponseDto;
+import ru.practicum.shareit.event.BookingSeriesChangedEvent;
+import ru.practicum.shareit.exception.BadRequestException;
+import ru.practicum.shareit.mapper.BookingMapper;
+import ru.practicum.shareit.model.Booking;
+import ru.practicum.shareit.model.BookingSeries;
+import ru.practicum.shareit.model.BookingStatus;
+import ru.practicum.shareit.model.Item;
+import ru.practicum.shareit.model.User;
+import ru.practicum.shareit.repository.BookingRepository;
+import ru.practicum.shareit.repository.BookingSeriesRepository;
+import ru.practicum.shareit.repository.ItemRepository;
+import ru.practicum.shareit.repository.UserRepository;
+import ru.practicum.shareit.series.BookingOccurrence;
+import ru.practicum.shareit.series.BookingOccurrences;
+
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class BookingSeriesServiceImpl implements BookingSeriesService {
+    private final BookingSeriesRepository seriesRepository;
+    private final BookingRepository bookingRepository;
+    private final ItemRepository itemRepository;
+    private final UserRepository userRepository;
+    private final ApplicationEventPublisher eventPublisher;
+
+    @Override
+    @Transactional
+    public BookingSeriesResponseDto createSeries(BookingSeriesDto seriesDto, Long bookerId) {
+        log.info("Создание серии бронирований: {}, пользователем ID: {}", seriesDto, bookerId);
+
+        User booker = userRepository.findById(bookerId)
+                .orElseThrow(() -> new NoSuchElementException("User with id " + bookerId + " not found"));
+        Item item = itemRepository.findById(seriesDto.getItemId())
+                .orElseThrow(() -> new NoSuchElementException("Item with id " + seriesDto.getItemId() + " not found"));
+
+        if (seriesDto.getStart() == null || seriesDto.getEnd() == null || seriesDto.getUntil() == null
+                || seriesDto.getFrequency() == null || !seriesDto.getStart().isBefore(seriesDto.getEnd())
+                || seriesDto.getUntil().isBefore(seriesDto.getStart())) {
+            throw new BadRequestException("Invalid booking series");
+        }
+        if (!item.getAvailable()) {
+            throw new BadRequestException("Item is not available for booking");
+        }
+        if (item.getOwnerId().equals(bookerId)) {
+            throw new NoSuchElementException("Owner cannot book their own item");
+        }
+
+        BookingSeries series = BookingMapper.toBookingSeries(seriesDto, item, booker);
+        if (BookingOccurrences.duration(series).compareTo(series.getFrequency().getStep()) > 0) {
+            throw new BadRequestException("Booking is longer than the series step");
+        }
+        if (BookingOccurrences.count(series) > MAX_OCCURRENCES) {
+            throw new BadRequestException("Booking series is too long");
+        }
+        checkApprovedOverlaps(series);
+
+        series = seriesRepository.save(series);
+        eventPublisher.publishEvent(BookingSeriesChangedEvent.of(series));
+
+        log.info("Серия бронирований создана: {}", series);
+        return BookingMapper.toBookingSeriesResponseDto(series);
+    }
+
+    @Override
+    @Transactional
+    public BookingSeriesResponseDto updateSeriesStatus(Long seriesId, Boolean approved, Long ownerId) {
+        log.info("Обновление статуса серии бронирований ID: {}, approved: {}, владелец ID: {}",
+                seriesId, approved, ownerId);
+
+        BookingSeries series = seriesRepository.findWithItemAndBookerById(seriesId)
+                .orElseThrow(() -> new NoSuchElementException("Booking series with id " + seriesId + " not found"));
+        if (!series.getItem().getOwnerId().equals(ownerId)) {
+            throw new SecurityException("Only owner can update booking status");
+        }
+        if (series.getStatus() != BookingStatus.WAITING) {
+            throw new BadRequestException("Booking status already decided");
+        }
+
+        BookingStatus status = approved ? BookingStatus.APPROVED : BookingStatus.REJECTED;
+        if (approved) {
+            checkApprovedOverlaps(series);
+        }
+        if (seriesRepository.decideWaiting(seriesId, ownerId, status) == 0) {
+            throw new BadRequestException("Booking status already decided");
+        }
+        series.setStatus(status);
+        eventPublisher.publishEvent(BookingSeriesChangedEvent.of(series));
+
+        log.info("Статус серии бронирований обновлен: {}", series);
+        return BookingMapper.toBookingSeriesResponseDto(series);
+    }
+
+    private void checkApprovedOverlaps(BookingSeries series) {
+        List<BookingOccurrence> occurrences = BookingOccurrences.between(series, null, null);
+        List<Booking> bookings = bookingRepository.findApprovedOverlapping(List.of(series.getItem().getId()),
+                series.getStart(), occurrences.getLast().getEnd());
+        if (bookings.stream().anyMatch(booking ->
+                BookingOccurrences.overlaps(series, booking.getStart(), booking.getEnd()))) {
+            throw new IllegalArgumentException("Item is already booked for these dates");
+        }
+
+        for (BookingSeries other : seriesRepository.findByItemIdInAndStatusIn(
+                List.of(series.getItem().getId()), List.of(BookingStatus.APPROVED))) {
+            if (!Objects.equals(other.getId(), series.getId()) && occurrences.stream().anyMatch(occurrence ->
+                    BookingOccurrences.overlaps(other, occurrence.getStart(), occurrence.getEnd()))) {
+                throw new IllegalArgumentException("Item is already booked for these dates");
+            }
+        }
+    }
+}
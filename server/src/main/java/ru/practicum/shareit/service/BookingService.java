@@ -1,18 +1,37 @@
 package ru.practicum.shareit.service;
 
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import ru.practicum.shareit.dto.booking.BookingDecisionDto;
+import ru.practicum.shareit.dto.booking.BookingDecisionResultDto;
 import ru.practicum.shareit.dto.booking.BookingDto;
+import ru.practicum.shareit.dto.PageDto;
 import ru.practicum.shareit.dto.booking.BookingResponseDto;
+import ru.practicum.shareit.dto.booking.BookingSummaryDto;
 
 import java.util.List;
 
 public interface BookingService {
     BookingResponseDto createBooking(BookingDto bookingDto, Long bookerId);
 
+    List<BookingResponseDto> createBookings(List<BookingDto> bookingDtos, Long bookerId);
+
     BookingResponseDto updateBookingStatus(Long bookingId, Boolean approved, Long ownerId);
 
+    List<BookingDecisionResultDto> updateBookingStatuses(List<BookingDecisionDto> decisions, Long ownerId);
+
     BookingResponseDto getBookingById(Long bookingId, Long userId);
 
     List<BookingResponseDto> getUserBookings(Long userId, String state, int from, int size);
 
     List<BookingResponseDto> getOwnerBookings(Long ownerId, String state, int from, int size);
-}
\ No newline at end of file
+
+    PageDto<BookingResponseDto> getUserBookingsPage(Long userId, String state, String cursor, int size);
+
+    PageDto<BookingResponseDto> getOwnerBookingsPage(Long ownerId, String state, String cursor, int size);
+
+    BookingSummaryDto getUserBookingsSummary(Long userId);
+
+    BookingSummaryDto getOwnerBookingsSummary(Long ownerId);
+
+    SseEmitter streamOwnerBookings(Long ownerId);
+}
@@ -1,36 +1,85 @@
 package ru.practicum.shareit.service;
 
+import io.micrometer.core.instrument.MeterRegistry;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.support.GeneratedKeyHolder;
+import org.springframework.jdbc.support.KeyHolder;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import ru.practicum.shareit.dto.Cursor;
+import ru.practicum.shareit.dto.OffsetPageRequest;
+import ru.practicum.shareit.dto.PageDto;
+import ru.practicum.shareit.dto.booking.BookingDecisionDto;
+import ru.practicum.shareit.dto.booking.BookingDecisionResultDto;
 import ru.practicum.shareit.dto.booking.BookingDto;
 import ru.practicum.shareit.dto.booking.BookingResponseDto;
+import ru.practicum.shareit.dto.booking.BookingSummaryDto;
+import ru.practicum.shareit.event.BookingChangedEvent;
 import ru.practicum.shareit.exception.BadRequestException;
 import ru.practicum.shareit.mapper.BookingMapper;
 import ru.practicum.shareit.model.Booking;
+import ru.practicum.shareit.model.BookingSeries;
 import ru.practicum.shareit.model.Item;
 import ru.practicum.shareit.model.BookingStatus;
 import ru.practicum.shareit.model.User;
 import ru.practicum.shareit.repository.BookingRepository;
+import ru.practicum.shareit.repository.BookingSeriesRepository;
 import ru.practicum.shareit.repository.ItemRepository;
 import ru.practicum.shareit.repository.UserRepository;
+import ru.practicum.shareit.series.BookingOccurrence;
+import ru.practicum.shareit.series.BookingOccurrences;
+import ru.practicum.shareit.stream.BookingStreamBroadcaster;
 
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.time.Duration;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.function.Function;
 import java.util.NoSuchElementException;
+import java.util.Objects;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 @Slf4j
 @Service
 @RequiredArgsConstructor
 public class BookingServiceImpl implements BookingService {
+    private static final String SUMMARY_TIMER = "shareit.booking.summary";
+
+    private static final String DECIDE_WAITING = "UPDATE bookings SET status = ? WHERE id = ? AND status = 'WAITING'";
+
+    private static final String INSERT_BOOKING =
+            "INSERT INTO bookings (start_date, end_date, item_id, booker_id, status) VALUES (?, ?, ?, ?, ?)";
+
+    private static final Sort KEYSET_SORT = Sort.by(Sort.Direction.DESC, "start")
+            .and(Sort.by(Sort.Direction.DESC, "id"));
+
     private final BookingRepository bookingRepository;
+    private final BookingSeriesRepository seriesRepository;
     private final ItemRepository itemRepository;
     private final UserRepository userRepository;
+    private final ItemBookingPointerService pointerService;
+    private final ApplicationEventPublisher eventPublisher;
+    private final MeterRegistry meterRegistry;
+    private final JdbcTemplate jdbcTemplate;
+    private final BookingStreamBroadcaster streamBroadcaster;
 
     @Override
     @Transactional
@@ -48,8 +97,16 @@ public class BookingServiceImpl implements BookingService {
             throw new NoSuchElementException("Owner cannot book their own item");
         }
 
+        boolean overlaps = bookingRepository.existsApprovedOverlap(
+                item.getId(), bookingDto.getStart(), bookingDto.getEnd());
+        if (overlaps || overlapsSeries(approvedSeries(List.of(item.getId())).get(item.getId()),
+                bookingDto.getStart(), bookingDto.getEnd())) {
+            throw new IllegalArgumentException("Item is already booked for these dates");
+        }
+
         Booking booking = BookingMapper.toBooking(bookingDto, item, booker);
         booking = bookingRepository.save(booking);
+        eventPublisher.publishEvent(BookingChangedEvent.of(booking));
 
         log.info("Бронирование создано: {}", booking);
         return BookingMapper.toBookingResponseDto(booking);
@@ -57,28 +114,151 @@ public class BookingServiceImpl implements BookingService {
 
     @Override
     @Transactional
-    public BookingResponseDto updateBookingStatus(Long bookingId, Boolean approved, Long ownerId) {
-        log.info("Обновление статуса бронирования ID: {}, approved: {}, владелец ID: {}",
-                bookingId, approved, ownerId);
+    public List<BookingResponseDto> createBookings(List<BookingDto> bookingDtos, Long bookerId) {
+        log.info("Создание {} бронирований одним запросом, пользователем ID: {}", bookingDtos.size(), bookerId);
 
-        Booking booking = getBookingByIdOrThrow(bookingId);
-        Item item = booking.getItem();
+        User booker = getUserByIdOrThrow(bookerId);
+        Map<Long, Item> items = itemRepository.findAllById(bookingDtos.stream()
+                        .map(BookingDto::getItemId)
+                        .collect(Collectors.toSet())).stream()
+                .collect(Collectors.toMap(Item::getId, Function.identity()));
 
-        if (!item.getOwnerId().equals(ownerId)) {
-            throw new SecurityException("Only owner can update booking status");
+        for (int i = 0; i < bookingDtos.size(); i++) {
+            BookingDto bookingDto = bookingDtos.get(i);
+            Item item = items.get(bookingDto.getItemId());
+            if (item == null) {
+                throw new NoSuchElementException("Item with id " + bookingDto.getItemId() + " not found");
+            }
+            if (!item.getAvailable()) {
+                throw new BadRequestException("Item " + item.getId() + " is not available for booking");
+            }
+            if (item.getOwnerId().equals(bookerId)) {
+                throw new NoSuchElementException("Owner cannot book their own item");
+            }
+            for (int j = 0; j < i; j++) {
+                BookingDto other = bookingDtos.get(j);
+                if (other.getItemId().equals(bookingDto.getItemId())
+                        && other.getStart().isBefore(bookingDto.getEnd())
+                        && other.getEnd().isAfter(bookingDto.getStart())) {
+                    throw new IllegalArgumentException("Bookings for item " + item.getId() + " overlap each other");
+                }
+            }
         }
+        checkApprovedOverlaps(bookingDtos);
+        checkSeriesOverlaps(bookingDtos);
+
+        List<Booking> bookings = bookingDtos.stream()
+                .map(bookingDto -> BookingMapper.toBooking(bookingDto, items.get(bookingDto.getItemId()), booker))
+                .toList();
+        insertBookings(bookings);
+        bookings.forEach(booking -> eventPublisher.publishEvent(BookingChangedEvent.of(booking)));
+
+        log.info("Создано бронирований: {}", bookings.size());
+        return bookings.stream()
+                .map(BookingMapper::toBookingResponseDto)
+                .collect(Collectors.toList());
+    }
 
-        if (booking.getStatus() != BookingStatus.WAITING) {
+    @Override
+    @Transactional
+    public BookingResponseDto updateBookingStatus(Long bookingId, Boolean approved, Long ownerId) {
+        log.info("Обновление статуса бронирования ID: {}, approved: {}, владелец ID: {}",
+                bookingId, approved, ownerId);
+
+        BookingStatus status = approved ? BookingStatus.APPROVED : BookingStatus.REJECTED;
+        if (bookingRepository.decideWaiting(bookingId, ownerId, status) == 0) {
+            Booking booking = getBookingByIdOrThrow(bookingId);
+            if (!booking.getItem().getOwnerId().equals(ownerId)) {
+                throw new SecurityException("Only owner can update booking status");
+            }
             throw new BadRequestException("Booking status already decided");
         }
 
-        booking.setStatus(approved ? BookingStatus.APPROVED : BookingStatus.REJECTED);
-        booking = bookingRepository.save(booking);
+        Booking booking = bookingRepository.findWithItemAndBookerById(bookingId).orElseThrow();
+        if (approved) {
+            pointerService.refresh(booking.getItem().getId());
+        }
+        eventPublisher.publishEvent(BookingChangedEvent.of(booking));
 
         log.info("Статус бронирования обновлен: {}", booking);
         return BookingMapper.toBookingResponseDto(booking);
     }
 
+    @Override
+    @Transactional
+    public List<BookingDecisionResultDto> updateBookingStatuses(List<BookingDecisionDto> decisions, Long ownerId) {
+        log.info("Пакетное обновление статусов {} бронирований, владелец ID: {}", decisions.size(), ownerId);
+
+        Map<Long, Booking> bookings = bookingRepository.findWithItemAndBookerByIdIn(decisions.stream()
+                        .map(BookingDecisionDto::getBookingId)
+                        .collect(Collectors.toSet())).stream()
+                .collect(Collectors.toMap(Booking::getId, Function.identity()));
+        Map<Long, List<BookingSeries>> series = approvedSeries(bookings.values().stream()
+                .map(booking -> booking.getItem().getId())
+                .collect(Collectors.toSet()));
+        Map<Long, List<Booking>> approvedBookings = approvedOverlapping(decisions.stream()
+                .filter(decision -> Boolean.TRUE.equals(decision.getApproved()))
+                .map(decision -> bookings.get(decision.getBookingId()))
+                .filter(Objects::nonNull)
+                .toList());
+
+        BookingDecisionResultDto[] results = new BookingDecisionResultDto[decisions.size()];
+        List<Integer> positions = new ArrayList<>();
+        List<Object[]> updates = new ArrayList<>();
+        Set<Long> decided = new HashSet<>();
+        for (int i = 0; i < decisions.size(); i++) {
+            BookingDecisionDto decision = decisions.get(i);
+            Booking booking = bookings.get(decision.getBookingId());
+            if (booking == null) {
+                results[i] = new BookingDecisionResultDto(decision.getBookingId(), null,
+                        "Booking with id " + decision.getBookingId() + " not found");
+            } else if (!booking.getItem().getOwnerId().equals(ownerId)) {
+                results[i] = new BookingDecisionResultDto(booking.getId(), null, "Only owner can update booking status");
+            } else if (booking.getStatus() != BookingStatus.WAITING || !decided.add(booking.getId())) {
+                results[i] = new BookingDecisionResultDto(booking.getId(), booking.getStatus(),
+                        "Booking status already decided");
+            } else if (Boolean.TRUE.equals(decision.getApproved())
+                    && (overlapsBookings(approvedBookings.get(booking.getItem().getId()), booking)
+                    || overlapsSeries(series.get(booking.getItem().getId()), booking.getStart(), booking.getEnd()))) {
+                results[i] = new BookingDecisionResultDto(booking.getId(), null,
+                        "Item is already booked for these dates");
+            } else {
+                BookingStatus status = Boolean.TRUE.equals(decision.getApproved())
+                        ? BookingStatus.APPROVED : BookingStatus.REJECTED;
+                if (status == BookingStatus.APPROVED) {
+                    approvedBookings.computeIfAbsent(booking.getItem().getId(), itemId -> new ArrayList<>())
+                            .add(booking);
+                }
+                results[i] = new BookingDecisionResultDto(booking.getId(), status, null);
+                positions.add(i);
+                updates.add(new Object[]{status.name(), booking.getId()});
+            }
+        }
+
+        int[] counts = jdbcTemplate.batchUpdate(DECIDE_WAITING, updates);
+        Set<Long> approvedItems = new TreeSet<>();
+        int applied = 0;
+        for (int i = 0; i < counts.length; i++) {
+            BookingDecisionResultDto result = results[positions.get(i)];
+            Booking booking = bookings.get(result.getBookingId());
+            if (counts[i] == 0) {
+                results[positions.get(i)] = new BookingDecisionResultDto(booking.getId(), null,
+                        "Booking status already decided");
+                continue;
+            }
+            applied++;
+            booking.setStatus(result.getStatus());
+            if (result.getStatus() == BookingStatus.APPROVED) {
+                approvedItems.add(booking.getItem().getId());
+            }
+            eventPublisher.publishEvent(BookingChangedEvent.of(booking));
+        }
+        approvedItems.forEach(pointerService::refresh);
+
+        log.info("Обновлено статусов бронирований: {} из {}", applied, decisions.size());
+        return List.of(results);
+    }
+
     @Override
     @Transactional(readOnly = true)
     public BookingResponseDto getBookingById(Long bookingId, Long userId) {
@@ -99,26 +279,13 @@ public class BookingServiceImpl implements BookingService {
     public List<BookingResponseDto> getUserBookings(Long userId, String state, int from, int size) {
         log.info("Получение бронирований пользователя ID: {}, состояние: {}", userId, state);
 
-        getUserByIdOrThrow(userId);
-        Pageable pageable = PageRequest.of(from / size, size, Sort.by(Sort.Direction.DESC, "start"));
-
         LocalDateTime now = LocalDateTime.now();
-        List<Booking> bookings = switch (state.toUpperCase()) {
-            case "ALL" -> bookingRepository.findByBookerIdOrderByStartDesc(userId, pageable);
-            case "CURRENT" -> bookingRepository.findByBookerIdAndStartBeforeAndEndAfterOrderByStartDesc(
-                    userId, now, now, pageable);
-            case "PAST" -> bookingRepository.findByBookerIdAndEndBeforeOrderByStartDesc(userId, now, pageable);
-            case "FUTURE" -> bookingRepository.findByBookerIdAndStartAfterOrderByStartDesc(userId, now, pageable);
-            case "WAITING" -> bookingRepository.findByBookerIdAndStatusOrderByStartDesc(
-                    userId, BookingStatus.WAITING, pageable);
-            case "REJECTED" -> bookingRepository.findByBookerIdAndStatusOrderByStartDesc(
-                    userId, BookingStatus.REJECTED, pageable);
-            default -> throw new BadRequestException("Unknown state: " + state);
-        };
-
-        return bookings.stream()
-                .map(BookingMapper::toBookingResponseDto)
-                .collect(Collectors.toList());
+        if (!hasSeriesAsBooker(userId)) {
+            return merge(userBookings(userId, state, now, null, PageRequest.of(from / size, size, KEYSET_SORT)),
+                    List.of(), 0, size);
+        }
+        return offsetPage(seriesRepository.findByBookerId(userId), state, now, from, size,
+                pageable -> userBookings(userId, state, now, null, pageable));
     }
 
     @Override
@@ -126,28 +293,390 @@ public class BookingServiceImpl implements BookingService {
     public List<BookingResponseDto> getOwnerBookings(Long ownerId, String state, int from, int size) {
         log.info("Получение бронирований владельца ID: {}, состояние: {}", ownerId, state);
 
-        getUserByIdOrThrow(ownerId);
-        Pageable pageable = PageRequest.of(from / size, size, Sort.by(Sort.Direction.DESC, "start"));
+        LocalDateTime now = LocalDateTime.now();
+        if (!hasSeriesAsOwner(ownerId)) {
+            return merge(ownerBookings(ownerId, state, now, null, PageRequest.of(from / size, size, KEYSET_SORT)),
+                    List.of(), 0, size);
+        }
+        return offsetPage(seriesRepository.findByItemOwnerId(ownerId), state, now, from, size,
+                pageable -> ownerBookings(ownerId, state, now, null, pageable));
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public PageDto<BookingResponseDto> getUserBookingsPage(Long userId, String state, String cursor, int size) {
+        log.info("Получение страницы бронирований пользователя ID: {}, состояние: {}, курсор: {}",
+                userId, state, cursor);
 
+        if (cursor == null || cursor.isBlank()) {
+            return toPage(getUserBookings(userId, state, 0, size), size);
+        }
+
+        List<BookingSeries> series = hasSeriesAsBooker(userId) ? seriesRepository.findByBookerId(userId) : List.of();
+        Cursor position = Cursor.decode(cursor);
         LocalDateTime now = LocalDateTime.now();
-        List<Booking> bookings = switch (state.toUpperCase()) {
-            case "ALL" -> bookingRepository.findByItemOwnerIdOrderByStartDesc(ownerId, pageable);
-            case "CURRENT" -> bookingRepository.findByItemOwnerIdAndStartBeforeAndEndAfterOrderByStartDesc(
-                    ownerId, now, now, pageable);
-            case "PAST" -> bookingRepository.findByItemOwnerIdAndEndBeforeOrderByStartDesc(ownerId, now, pageable);
-            case "FUTURE" -> bookingRepository.findByItemOwnerIdAndStartAfterOrderByStartDesc(ownerId, now, pageable);
-            case "WAITING" -> bookingRepository.findByItemOwnerIdAndStatusOrderByStartDesc(
-                    ownerId, BookingStatus.WAITING, pageable);
-            case "REJECTED" -> bookingRepository.findByItemOwnerIdAndStatusOrderByStartDesc(
-                    ownerId, BookingStatus.REJECTED, pageable);
+        List<Booking> bookings = userBookings(userId, state, now, position, PageRequest.of(0, size));
+        return toPage(merge(bookings, occurrences(series, state, now, position, size), 0, size), size);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public PageDto<BookingResponseDto> getOwnerBookingsPage(Long ownerId, String state, String cursor, int size) {
+        log.info("Получение страницы бронирований владельца ID: {}, состояние: {}, курсор: {}",
+                ownerId, state, cursor);
+
+        if (cursor == null || cursor.isBlank()) {
+            return toPage(getOwnerBookings(ownerId, state, 0, size), size);
+        }
+
+        List<BookingSeries> series = hasSeriesAsOwner(ownerId) ? seriesRepository.findByItemOwnerId(ownerId) : List.of();
+        Cursor position = Cursor.decode(cursor);
+        LocalDateTime now = LocalDateTime.now();
+        List<Booking> bookings = ownerBookings(ownerId, state, now, position, PageRequest.of(0, size));
+        return toPage(merge(bookings, occurrences(series, state, now, position, size), 0, size), size);
+    }
+
+    /**
+     * Бронирования пользователя в порядке ключа (начало, id) по убыванию: с начала списка,
+     * если {@code position} не задан, иначе строго после него.
+     */
+    private List<Booking> userBookings(Long userId, String state, LocalDateTime now, Cursor position,
+                                       Pageable pageable) {
+        if (position == null) {
+            return switch (state.toUpperCase()) {
+                case "ALL" -> bookingRepository.findByBookerIdOrderByStartDesc(userId, pageable);
+                case "CURRENT" -> bookingRepository.findByBookerIdAndStartBeforeAndEndAfterOrderByStartDesc(
+                        userId, now, now, pageable);
+                case "PAST" -> bookingRepository.findByBookerIdAndEndBeforeOrderByStartDesc(userId, now, pageable);
+                case "FUTURE" -> bookingRepository.findByBookerIdAndStartAfterOrderByStartDesc(userId, now, pageable);
+                case "WAITING" -> bookingRepository.findByBookerIdAndStatusOrderByStartDesc(
+                        userId, BookingStatus.WAITING, pageable);
+                case "REJECTED" -> bookingRepository.findByBookerIdAndStatusOrderByStartDesc(
+                        userId, BookingStatus.REJECTED, pageable);
+                default -> throw new BadRequestException("Unknown state: " + state);
+            };
+        }
+        Pageable limit = PageRequest.of(0, pageable.getPageSize());
+        return switch (state.toUpperCase()) {
+            case "ALL" -> bookingRepository.findPageByBookerId(
+                    userId, position.getPosition(), position.getId(), limit);
+            case "CURRENT" -> bookingRepository.findCurrentPageByBookerId(
+                    userId, now, position.getPosition(), position.getId(), limit);
+            case "PAST" -> bookingRepository.findPastPageByBookerId(
+                    userId, now, position.getPosition(), position.getId(), limit);
+            case "FUTURE" -> bookingRepository.findFuturePageByBookerId(
+                    userId, now, position.getPosition(), position.getId(), limit);
+            case "WAITING" -> bookingRepository.findPageByBookerIdAndStatus(
+                    userId, BookingStatus.WAITING, position.getPosition(), position.getId(), limit);
+            case "REJECTED" -> bookingRepository.findPageByBookerIdAndStatus(
+                    userId, BookingStatus.REJECTED, position.getPosition(), position.getId(), limit);
             default -> throw new BadRequestException("Unknown state: " + state);
         };
+    }
 
-        return bookings.stream()
-                .map(BookingMapper::toBookingResponseDto)
+    private List<Booking> ownerBookings(Long ownerId, String state, LocalDateTime now, Cursor position,
+                                        Pageable pageable) {
+        if (position == null) {
+            return switch (state.toUpperCase()) {
+                case "ALL" -> bookingRepository.findByItemOwnerIdOrderByStartDesc(ownerId, pageable);
+                case "CURRENT" -> bookingRepository.findByItemOwnerIdAndStartBeforeAndEndAfterOrderByStartDesc(
+                        ownerId, now, now, pageable);
+                case "PAST" -> bookingRepository.findByItemOwnerIdAndEndBeforeOrderByStartDesc(ownerId, now, pageable);
+                case "FUTURE" -> bookingRepository.findByItemOwnerIdAndStartAfterOrderByStartDesc(
+                        ownerId, now, pageable);
+                case "WAITING" -> bookingRepository.findByItemOwnerIdAndStatusOrderByStartDesc(
+                        ownerId, BookingStatus.WAITING, pageable);
+                case "REJECTED" -> bookingRepository.findByItemOwnerIdAndStatusOrderByStartDesc(
+                        ownerId, BookingStatus.REJECTED, pageable);
+                default -> throw new BadRequestException("Unknown state: " + state);
+            };
+        }
+        Pageable limit = PageRequest.of(0, pageable.getPageSize());
+        return switch (state.toUpperCase()) {
+            case "ALL" -> bookingRepository.findPageByItemOwnerId(
+                    ownerId, position.getPosition(), position.getId(), limit);
+            case "CURRENT" -> bookingRepository.findCurrentPageByItemOwnerId(
+                    ownerId, now, position.getPosition(), position.getId(), limit);
+            case "PAST" -> bookingRepository.findPastPageByItemOwnerId(
+                    ownerId, now, position.getPosition(), position.getId(), limit);
+            case "FUTURE" -> bookingRepository.findFuturePageByItemOwnerId(
+                    ownerId, now, position.getPosition(), position.getId(), limit);
+            case "WAITING" -> bookingRepository.findPageByItemOwnerIdAndStatus(
+                    ownerId, BookingStatus.WAITING, position.getPosition(), position.getId(), limit);
+            case "REJECTED" -> bookingRepository.findPageByItemOwnerIdAndStatus(
+                    ownerId, BookingStatus.REJECTED, position.getPosition(), position.getId(), limit);
+            default -> throw new BadRequestException("Unknown state: " + state);
+        };
+    }
+
+    private boolean hasSeriesAsBooker(Long userId) {
+        return userRepository.findHasSeriesAsBooker(userId)
+                .orElseThrow(() -> new NoSuchElementException("User with id " + userId + " not found"));
+    }
+
+    private boolean hasSeriesAsOwner(Long ownerId) {
+        return userRepository.findHasSeriesAsOwner(ownerId)
+                .orElseThrow(() -> new NoSuchElementException("User with id " + ownerId + " not found"));
+    }
+
+    /**
+     * Страница объединённого списка бронирований и вхождений серий со смещением {@code from}.
+     * Перед страницей может стоять не больше вхождений, чем их всего, поэтому её бронирования
+     * начинаются не раньше позиции {@code offset - total} и читаются одним запросом со смещением.
+     * Вхождения перед первым прочитанным бронированием считаются в замкнутом виде,
+     * что даёт его позицию в объединённом списке.
+     */
+    private static List<BookingResponseDto> offsetPage(List<BookingSeries> series, String state, LocalDateTime now,
+                                                       int from, int size,
+                                                       Function<Pageable, List<Booking>> bookingsPage) {
+        long offset = (long) from / size * size;
+        long skipped = Math.max(0, offset - countOccurrences(series, state, now, null));
+        int limit = Math.toIntExact(offset - skipped + size);
+        List<Booking> bookings = bookingsPage.apply(new OffsetPageRequest(skipped, limit, KEYSET_SORT));
+
+        Cursor anchor = null;
+        long anchorIndex = 0;
+        if (skipped > 0) {
+            if (bookings.isEmpty()) {
+                return List.of();
+            }
+            anchor = new Cursor(bookings.getFirst().getStart(), bookings.getFirst().getId());
+            anchorIndex = skipped + countOccurrences(series, state, now, anchor);
+        }
+        return merge(bookings, occurrences(series, state, now, anchor, limit),
+                Math.toIntExact(offset - anchorIndex), size);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public BookingSummaryDto getUserBookingsSummary(Long userId) {
+        log.info("Получение сводки бронирований пользователя ID: {}", userId);
+        boolean hasSeries = hasSeriesAsBooker(userId);
+        LocalDateTime now = LocalDateTime.now();
+        BookingSummaryDto summary = BookingMapper.toBookingSummaryDto(meterRegistry.timer(SUMMARY_TIMER, "role", "booker")
+                .record(() -> bookingRepository.summarizeByBookerId(userId, now)));
+        return hasSeries ? withSeries(summary, seriesRepository.findByBookerId(userId), now) : summary;
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public BookingSummaryDto getOwnerBookingsSummary(Long ownerId) {
+        log.info("Получение сводки бронирований владельца ID: {}", ownerId);
+        boolean hasSeries = hasSeriesAsOwner(ownerId);
+        LocalDateTime now = LocalDateTime.now();
+        BookingSummaryDto summary = BookingMapper.toBookingSummaryDto(meterRegistry.timer(SUMMARY_TIMER, "role", "owner")
+                .record(() -> bookingRepository.summarizeByItemOwnerId(ownerId, now)));
+        return hasSeries ? withSeries(summary, seriesRepository.findByItemOwnerId(ownerId), now) : summary;
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public SseEmitter streamOwnerBookings(Long ownerId) {
+        log.info("Подписка владельца ID: {} на новые бронирования", ownerId);
+        getUserByIdOrThrow(ownerId);
+        return streamBroadcaster.subscribe(ownerId);
+    }
+
+    private static PageDto<BookingResponseDto> toPage(List<BookingResponseDto> bookings, int size) {
+        String nextCursor = null;
+        if (!bookings.isEmpty() && bookings.size() == size) {
+            BookingResponseDto last = bookings.getLast();
+            nextCursor = new Cursor(last.getStart(), keysetId(last)).encode();
+        }
+        return new PageDto<>(bookings, nextCursor);
+    }
+
+    private static List<BookingResponseDto> merge(List<Booking> bookings, List<BookingOccurrence> occurrences,
+                                                  int skip, int size) {
+        return Stream.concat(
+                        bookings.stream().map(BookingMapper::toBookingResponseDto),
+                        occurrences.stream().map(BookingMapper::toBookingResponseDto))
+                .sorted(Comparator.comparing(BookingResponseDto::getStart)
+                        .thenComparing(BookingServiceImpl::keysetId)
+                        .reversed())
+                .skip(skip)
+                .limit(size)
                 .collect(Collectors.toList());
     }
 
+    private static List<BookingOccurrence> occurrences(List<BookingSeries> series, String state, LocalDateTime now,
+                                                       Cursor position, int limit) {
+        List<BookingOccurrence> occurrences = new ArrayList<>();
+        for (BookingSeries candidate : series) {
+            StartRange range = startRange(candidate, state, now);
+            if (range == null) {
+                continue;
+            }
+            LocalDateTime before = range.before();
+            boolean includeBefore = false;
+            if (position != null && (before == null || position.getPosition().isBefore(before))) {
+                before = position.getPosition();
+                includeBefore = -candidate.getId() < position.getId();
+            }
+            occurrences.addAll(BookingOccurrences.latest(candidate, range.after(), before, includeBefore, limit));
+        }
+        return occurrences;
+    }
+
+    /**
+     * Число вхождений, стоящих в списке перед {@code position} (или всех, если позиция не задана),
+     * без перебора самих вхождений.
+     */
+    private static long countOccurrences(List<BookingSeries> series, String state, LocalDateTime now,
+                                         Cursor position) {
+        long count = 0;
+        for (BookingSeries candidate : series) {
+            StartRange range = startRange(candidate, state, now);
+            if (range == null) {
+                continue;
+            }
+            LocalDateTime after = range.after();
+            if (position != null) {
+                LocalDateTime bound = -candidate.getId() > position.getId()
+                        ? position.getPosition().minusNanos(1)
+                        : position.getPosition();
+                if (after == null || bound.isAfter(after)) {
+                    after = bound;
+                }
+            }
+            count += BookingOccurrences.countBetween(candidate, after, range.before());
+        }
+        return count;
+    }
+
+    /**
+     * Границы начала вхождений серии, подходящих под состояние, или {@code null}, если серия
+     * под состояние не подходит.
+     */
+    private static StartRange startRange(BookingSeries candidate, String state, LocalDateTime now) {
+        Duration duration = BookingOccurrences.duration(candidate);
+        return switch (state.toUpperCase()) {
+            case "CURRENT" -> new StartRange(now.minus(duration), now);
+            case "PAST" -> new StartRange(null, now.minus(duration));
+            case "FUTURE" -> new StartRange(now, null);
+            case "WAITING", "REJECTED" -> candidate.getStatus() == BookingStatus.valueOf(state.toUpperCase())
+                    ? new StartRange(null, null)
+                    : null;
+            default -> new StartRange(null, null);
+        };
+    }
+
+    private record StartRange(LocalDateTime after, LocalDateTime before) {
+    }
+
+    private static Long keysetId(BookingResponseDto booking) {
+        return booking.getId() != null ? booking.getId() : -booking.getSeriesId();
+    }
+
+    private static BookingSummaryDto withSeries(BookingSummaryDto summary, List<BookingSeries> series,
+                                                LocalDateTime now) {
+        for (BookingSeries candidate : series) {
+            Duration duration = BookingOccurrences.duration(candidate);
+            long count = BookingOccurrences.count(candidate);
+            summary.setAll(summary.getAll() + count);
+            summary.setCurrent(summary.getCurrent()
+                    + BookingOccurrences.countBetween(candidate, now.minus(duration), now));
+            summary.setPast(summary.getPast() + BookingOccurrences.countBetween(candidate, null, now.minus(duration)));
+            summary.setFuture(summary.getFuture() + BookingOccurrences.countBetween(candidate, now, null));
+            if (candidate.getStatus() == BookingStatus.WAITING) {
+                summary.setWaiting(summary.getWaiting() + count);
+            } else if (candidate.getStatus() == BookingStatus.REJECTED) {
+                summary.setRejected(summary.getRejected() + count);
+            }
+        }
+        return summary;
+    }
+
+    private void checkApprovedOverlaps(List<BookingDto> bookingDtos) {
+        LocalDateTime from = bookingDtos.stream().map(BookingDto::getStart)
+                .min(LocalDateTime::compareTo).orElseThrow();
+        LocalDateTime to = bookingDtos.stream().map(BookingDto::getEnd)
+                .max(LocalDateTime::compareTo).orElseThrow();
+        Map<Long, List<Booking>> approved = bookingRepository.findApprovedOverlapping(bookingDtos.stream()
+                        .map(BookingDto::getItemId)
+                        .collect(Collectors.toSet()), from, to).stream()
+                .collect(Collectors.groupingBy(booking -> booking.getItem().getId()));
+        for (BookingDto bookingDto : bookingDtos) {
+            boolean overlaps = approved.getOrDefault(bookingDto.getItemId(), List.of()).stream()
+                    .anyMatch(booking -> booking.getStart().isBefore(bookingDto.getEnd())
+                            && booking.getEnd().isAfter(bookingDto.getStart()));
+            if (overlaps) {
+                throw new IllegalArgumentException("Item " + bookingDto.getItemId()
+                        + " is already booked for these dates");
+            }
+        }
+    }
+
+    private Map<Long, List<Booking>> approvedOverlapping(List<Booking> bookings) {
+        if (bookings.isEmpty()) {
+            return new HashMap<>();
+        }
+        LocalDateTime from = bookings.stream().map(Booking::getStart).min(LocalDateTime::compareTo).orElseThrow();
+        LocalDateTime to = bookings.stream().map(Booking::getEnd).max(LocalDateTime::compareTo).orElseThrow();
+        return bookingRepository.findApprovedOverlapping(bookings.stream()
+                        .map(booking -> booking.getItem().getId())
+                        .collect(Collectors.toSet()), from, to).stream()
+                .collect(Collectors.groupingBy(booking -> booking.getItem().getId(), HashMap::new,
+                        Collectors.toCollection(ArrayList::new)));
+    }
+
+    private static boolean overlapsBookings(List<Booking> approved, Booking booking) {
+        return approved != null && approved.stream()
+                .anyMatch(other -> other.getStart().isBefore(booking.getEnd())
+                        && other.getEnd().isAfter(booking.getStart()));
+    }
+
+    private void checkSeriesOverlaps(List<BookingDto> bookingDtos) {
+        Map<Long, List<BookingSeries>> series = approvedSeries(bookingDtos.stream()
+                .map(BookingDto::getItemId)
+                .collect(Collectors.toSet()));
+        for (BookingDto bookingDto : bookingDtos) {
+            if (overlapsSeries(series.get(bookingDto.getItemId()), bookingDto.getStart(), bookingDto.getEnd())) {
+                throw new IllegalArgumentException("Item " + bookingDto.getItemId()
+                        + " is already booked for these dates");
+            }
+        }
+    }
+
+    private Map<Long, List<BookingSeries>> approvedSeries(Collection<Long> itemIds) {
+        if (itemIds.isEmpty()) {
+            return Map.of();
+        }
+        return seriesRepository.findByItemIdInAndStatusIn(itemIds, List.of(BookingStatus.APPROVED)).stream()
+                .collect(Collectors.groupingBy(series -> series.getItem().getId()));
+    }
+
+    private static boolean overlapsSeries(List<BookingSeries> series, LocalDateTime start, LocalDateTime end) {
+        return series != null && series.stream()
+                .anyMatch(candidate -> BookingOccurrences.overlaps(candidate, start, end));
+    }
+
+    private void insertBookings(List<Booking> bookings) {
+        KeyHolder keyHolder = new GeneratedKeyHolder();
+        jdbcTemplate.batchUpdate(connection -> connection.prepareStatement(INSERT_BOOKING, new String[]{"id"}),
+                new BatchPreparedStatementSetter() {
+                    @Override
+                    public void setValues(PreparedStatement ps, int i) throws SQLException {
+                        Booking booking = bookings.get(i);
+                        ps.setObject(1, booking.getStart());
+                        ps.setObject(2, booking.getEnd());
+                        ps.setLong(3, booking.getItem().getId());
+                        ps.setLong(4, booking.getBooker().getId());
+                        ps.setString(5, booking.getStatus().name());
+                    }
+
+                    @Override
+                    public int getBatchSize() {
+                        return bookings.size();
+                    }
+                }, keyHolder);
+
+        List<Map<String, Object>> keys = keyHolder.getKeyList();
+        for (int i = 0; i < bookings.size(); i++) {
+            bookings.get(i).setId(((Number) keys.get(i).values().iterator().next()).longValue());
+        }
+    }
+
     private ru.practicum.shareit.model.User getUserByIdOrThrow(Long userId) {
         return userRepository.findById(userId)
                 .orElseThrow(() -> new NoSuchElementException("User with id " + userId + " not found"));
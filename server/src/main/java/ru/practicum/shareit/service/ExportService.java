@@ -0,0 +1,10 @@
+package ru.practicum.shareit.service;
+
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import ru.practicum.shareit.export.ExportFormat;
+
+public interface ExportService {
+    StreamingResponseBody exportItemsByOwner(Long ownerId, ExportFormat format);
+
+    StreamingResponseBody exportOwnerBookings(Long ownerId, ExportFormat format);
+}
@@ -0,0 +1,122 @@
+package ru.practicum.shareit.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import ru.practicum.shareit.export.BookingExportRow;
+import ru.practicum.shareit.export.ExportFormat;
+import ru.practicum.shareit.export.ExportRow;
+import ru.practicum.shareit.export.ExportWriter;
+import ru.practicum.shareit.export.ItemExportRow;
+import ru.practicum.shareit.model.BookingSeries;
+import ru.practicum.shareit.repository.BookingRepository;
+import ru.practicum.shareit.repository.BookingSeriesRepository;
+import ru.practicum.shareit.repository.ItemRepository;
+import ru.practicum.shareit.repository.UserRepository;
+import ru.practicum.shareit.series.BookingOccurrence;
+import ru.practicum.shareit.series.BookingOccurrences;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.stream.Stream;
+
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class ExportServiceImpl implements ExportService {
+    private final ItemRepository itemRepository;
+    private final BookingRepository bookingRepository;
+    private final BookingSeriesRepository seriesRepository;
+    private final UserRepository userRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final ObjectMapper objectMapper;
+
+    @Override
+    public StreamingResponseBody exportItemsByOwner(Long ownerId, ExportFormat format) {
+        log.info("Выгрузка вещей владельца ID: {} в формате {}", ownerId, format);
+        checkUserExists(ownerId);
+
+        return output -> {
+            ExportWriter writer = new ExportWriter(format, output, objectMapper, ItemExportRow.HEADER);
+            inTransaction(() -> {
+                try (Stream<ItemExportRow> rows = itemRepository.streamExportRowsByOwnerId(ownerId)) {
+                    writeAll(writer, rows.iterator());
+                }
+            });
+            log.info("Выгружено {} вещей владельца ID: {}", writer.finish(), ownerId);
+        };
+    }
+
+    @Override
+    public StreamingResponseBody exportOwnerBookings(Long ownerId, ExportFormat format) {
+        log.info("Выгрузка бронирований владельца ID: {} в формате {}", ownerId, format);
+        checkUserExists(ownerId);
+
+        return output -> {
+            ExportWriter writer = new ExportWriter(format, output, objectMapper, BookingExportRow.HEADER);
+            inTransaction(() -> {
+                try (Stream<BookingExportRow> rows = bookingRepository.streamExportRowsByItemOwnerId(ownerId)) {
+                    writeAll(writer, rows.iterator());
+                }
+                for (BookingSeries series : seriesRepository.findByItemOwnerId(ownerId)) {
+                    long count = BookingOccurrences.count(series);
+                    for (long index = 0; index < count; index++) {
+                        writer.write(toExportRow(BookingOccurrences.get(series, index)));
+                    }
+                }
+            });
+            log.info("Выгружено {} бронирований владельца ID: {}", writer.finish(), ownerId);
+        };
+    }
+
+    private void checkUserExists(Long userId) {
+        if (!userRepository.existsById(userId)) {
+            String errorMessage = String.format("Пользователь с ID %d не найден", userId);
+            log.error(errorMessage);
+            throw new NoSuchElementException(errorMessage);
+        }
+    }
+
+    private void inTransaction(IoAction action) throws IOException {
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                try {
+                    action.run();
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+    }
+
+    private static void writeAll(ExportWriter writer, Iterator<? extends ExportRow> rows) throws IOException {
+        while (rows.hasNext()) {
+            writer.write(rows.next());
+        }
+    }
+
+    private static BookingExportRow toExportRow(BookingOccurrence occurrence) {
+        BookingSeries series = occurrence.getSeries();
+        return new BookingExportRow(
+                null,
+                series.getId(),
+                series.getItem().getId(),
+                series.getItem().getName(),
+                series.getBooker().getId(),
+                occurrence.getStart(),
+                occurrence.getEnd(),
+                series.getStatus()
+        );
+    }
+
+    private interface IoAction {
+        void run() throws IOException;
+    }
+}
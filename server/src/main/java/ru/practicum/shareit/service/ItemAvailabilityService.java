@@ -0,0 +1,9 @@
+package ru.practicum.shareit.service;
+
+import ru.practicum.shareit.dto.item.ItemAvailabilityDto;
+
+import java.time.LocalDateTime;
+
+public interface ItemAvailabilityService {
+    ItemAvailabilityDto getAvailability(Long itemId, LocalDateTime from, LocalDateTime to, boolean includeWaiting);
+}
@@ -0,0 +1,103 @@
+package ru.practicum.shareit.service;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.practicum.shareit.availability.AvailabilityCache;
+import ru.practicum.shareit.availability.AvailabilityCacheProperties;
+import ru.practicum.shareit.dto.item.ItemAvailabilityDto;
+import ru.practicum.shareit.dto.item.TimeIntervalDto;
+import ru.practicum.shareit.exception.BadRequestException;
+import ru.practicum.shareit.model.BookingSeries;
+import ru.practicum.shareit.model.BookingStatus;
+import ru.practicum.shareit.repository.BookingRepository;
+import ru.practicum.shareit.repository.BookingSeriesRepository;
+import ru.practicum.shareit.repository.ItemRepository;
+import ru.practicum.shareit.series.BookingOccurrence;
+import ru.practicum.shareit.series.BookingOccurrences;
+import ru.practicum.shareit.timeline.BookingInterval;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.NoSuchElementException;
+
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class ItemAvailabilityServiceImpl implements ItemAvailabilityService {
+    private static final List<BookingStatus> APPROVED = List.of(BookingStatus.APPROVED);
+    private static final List<BookingStatus> APPROVED_OR_WAITING = List.of(BookingStatus.APPROVED, BookingStatus.WAITING);
+
+    private final BookingRepository bookingRepository;
+    private final BookingSeriesRepository seriesRepository;
+    private final ItemRepository itemRepository;
+    private final AvailabilityCache availabilityCache;
+    private final AvailabilityCacheProperties properties;
+    private final TransactionTemplate transactionTemplate;
+
+    @Override
+    public ItemAvailabilityDto getAvailability(Long itemId, LocalDateTime from, LocalDateTime to,
+                                               boolean includeWaiting) {
+        log.debug("Получение доступности вещи ID: {} с {} по {}", itemId, from, to);
+
+        if (from == null || to == null || !from.isBefore(to)) {
+            throw new BadRequestException("Invalid availability range");
+        }
+        if (Duration.between(from, to).compareTo(properties.getMaxRange()) > 0) {
+            throw new BadRequestException("Availability range is too long");
+        }
+
+        return availabilityCache.get(itemId, from, to, includeWaiting,
+                () -> transactionTemplate.execute(status -> compute(itemId, from, to, includeWaiting)));
+    }
+
+    private ItemAvailabilityDto compute(Long itemId, LocalDateTime from, LocalDateTime to, boolean includeWaiting) {
+        if (!itemRepository.existsById(itemId)) {
+            throw new NoSuchElementException(String.format("Вещь с ID %d не найдена", itemId));
+        }
+
+        List<BookingStatus> statuses = includeWaiting ? APPROVED_OR_WAITING : APPROVED;
+        List<BookingInterval> bookings = new ArrayList<>(bookingRepository.findIntervalsInRange(
+                itemId, statuses, from, to));
+        for (BookingSeries series : seriesRepository.findByItemIdInAndStatusIn(List.of(itemId), statuses)) {
+            for (BookingOccurrence occurrence : BookingOccurrences.between(
+                    series, from.minus(BookingOccurrences.duration(series)), to)) {
+                bookings.add(new BookingInterval(null, itemId, series.getBooker().getId(),
+                        occurrence.getStart(), occurrence.getEnd()));
+            }
+        }
+        bookings.sort(Comparator.comparing(BookingInterval::getStart));
+
+        List<TimeIntervalDto> busy = new ArrayList<>();
+        for (BookingInterval booking : bookings) {
+            LocalDateTime start = booking.getStart().isBefore(from) ? from : booking.getStart();
+            LocalDateTime end = booking.getEnd().isAfter(to) ? to : booking.getEnd();
+            TimeIntervalDto previous = busy.isEmpty() ? null : busy.getLast();
+            if (previous != null && !start.isAfter(previous.getEnd())) {
+                if (end.isAfter(previous.getEnd())) {
+                    previous.setEnd(end);
+                }
+            } else {
+                busy.add(new TimeIntervalDto(start, end));
+            }
+        }
+
+        List<TimeIntervalDto> free = new ArrayList<>();
+        LocalDateTime cursor = from;
+        for (TimeIntervalDto interval : busy) {
+            if (cursor.isBefore(interval.getStart())) {
+                free.add(new TimeIntervalDto(cursor, interval.getStart()));
+            }
+            cursor = interval.getEnd();
+        }
+        if (cursor.isBefore(to)) {
+            free.add(new TimeIntervalDto(cursor, to));
+        }
+
+        return new ItemAvailabilityDto(itemId, from, to, busy, free);
+    }
+}
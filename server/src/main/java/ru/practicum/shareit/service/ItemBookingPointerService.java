@@ -0,0 +1,16 @@
+package ru.practicum.shareit.service;
+
+import ru.practicum.shareit.model.ItemBookingPointer;
+
+import java.util.Collection;
+import java.util.Map;
+
+public interface ItemBookingPointerService {
+    Map<Long, ItemBookingPointer> getPointers(Collection<Long> itemIds);
+
+    void refresh(Long itemId);
+
+    int rollExpired();
+
+    int reconcile();
+}
@@ -0,0 +1,206 @@
+package ru.practicum.shareit.service;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.practicum.shareit.dto.booking.BookingEdgeView;
+import ru.practicum.shareit.model.ItemBookingPointer;
+import ru.practicum.shareit.repository.BookingRepository;
+import ru.practicum.shareit.repository.ItemBookingPointerRepository;
+import ru.practicum.shareit.repository.ItemRepository;
+import ru.practicum.shareit.timeline.BookingInterval;
+import ru.practicum.shareit.timeline.BookingTimeline;
+
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.stream.Collectors;
+
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class ItemBookingPointerServiceImpl implements ItemBookingPointerService {
+    private static final int BATCH_SIZE = 500;
+
+    private final ItemBookingPointerRepository pointerRepository;
+    private final BookingRepository bookingRepository;
+    private final ItemRepository itemRepository;
+    private final BookingTimeline timeline;
+    private final TransactionTemplate transactionTemplate;
+
+    @Override
+    @Transactional(readOnly = true)
+    public Map<Long, ItemBookingPointer> getPointers(Collection<Long> itemIds) {
+        if (itemIds.isEmpty()) {
+            return Collections.emptyMap();
+        }
+
+        LocalDateTime now = LocalDateTime.now();
+        if (timeline.isEnabled()) {
+            return fromTimeline(itemIds, now);
+        }
+
+        Map<Long, ItemBookingPointer> pointers = new HashMap<>();
+        List<Long> expiredIds = new ArrayList<>();
+        for (ItemBookingPointer pointer : pointerRepository.findAllById(itemIds)) {
+            if (pointer.getValidUntil() != null && !pointer.getValidUntil().isAfter(now)) {
+                expiredIds.add(pointer.getItemId());
+            } else {
+                pointers.put(pointer.getItemId(), pointer);
+            }
+        }
+
+        if (!expiredIds.isEmpty()) {
+            log.debug("Указатели бронирований устарели для {} вещей, вычисляются по бронированиям", expiredIds.size());
+            pointers.putAll(compute(expiredIds, now));
+        }
+        return pointers;
+    }
+
+    /**
+     * Пересчитывает указатели под блокировкой строки вещи: параллельные подтверждения
+     * бронирований одной вещи пересчитывают их по очереди, и каждое видит уже
+     * зафиксированные подтверждения остальных.
+     */
+    @Override
+    @Transactional
+    public void refresh(Long itemId) {
+        log.debug("Обновление указателей бронирований вещи ID: {}", itemId);
+        itemRepository.lockByIdIn(List.of(itemId));
+        store(List.of(itemId), compute(List.of(itemId), LocalDateTime.now()));
+    }
+
+    @Override
+    public int rollExpired() {
+        LocalDateTime now = LocalDateTime.now();
+        int rolled = 0;
+        int batch;
+        do {
+            batch = transactionTemplate.execute(status -> {
+                List<Long> itemIds = pointerRepository.findExpiredItemIds(now, PageRequest.of(0, BATCH_SIZE));
+                if (!itemIds.isEmpty()) {
+                    itemRepository.lockByIdIn(itemIds);
+                    store(itemIds, compute(itemIds, now));
+                }
+                return itemIds.size();
+            });
+            rolled += batch;
+        } while (batch > 0);
+
+        if (rolled > 0) {
+            log.info("Сдвинуты указатели бронирований для {} вещей", rolled);
+        }
+        return rolled;
+    }
+
+    @Override
+    public int reconcile() {
+        log.info("Сверка указателей бронирований с таблицей бронирований");
+        LocalDateTime now = LocalDateTime.now();
+        int checked = 0;
+        int drift = 0;
+        List<Long> itemIds = itemRepository.findIdsAfter(0L, PageRequest.of(0, BATCH_SIZE));
+        while (!itemIds.isEmpty()) {
+            List<Long> batch = itemIds;
+            drift += transactionTemplate.execute(status -> reconcileBatch(batch, now));
+            checked += batch.size();
+            itemIds = itemRepository.findIdsAfter(batch.getLast(), PageRequest.of(0, BATCH_SIZE));
+        }
+
+        log.info("Сверка указателей бронирований завершена: проверено {} вещей, расхождений {}", checked, drift);
+        return drift;
+    }
+
+    private int reconcileBatch(List<Long> itemIds, LocalDateTime now) {
+        itemRepository.lockByIdIn(itemIds);
+        Map<Long, ItemBookingPointer> expected = compute(itemIds, now);
+        Map<Long, ItemBookingPointer> stored = pointerRepository.findAllById(itemIds).stream()
+                .collect(Collectors.toMap(ItemBookingPointer::getItemId, pointer -> pointer));
+
+        int drift = 0;
+        for (Long itemId : itemIds) {
+            if (!Objects.equals(expected.get(itemId), stored.get(itemId))) {
+                log.warn("Расхождение указателей бронирований вещи ID: {}, ожидалось: {}, сохранено: {}",
+                        itemId, expected.get(itemId), stored.get(itemId));
+                drift++;
+            }
+        }
+
+        store(itemIds, expected);
+        return drift;
+    }
+
+    private Map<Long, ItemBookingPointer> compute(Collection<Long> itemIds, LocalDateTime now) {
+        Map<Long, ItemBookingPointer> pointers = new HashMap<>();
+
+        for (BookingEdgeView edge : bookingRepository.findLastAndNextBookings(itemIds, now)) {
+            ItemBookingPointer pointer = pointers.computeIfAbsent(edge.getItemId(), ItemBookingPointerServiceImpl::empty);
+            if (edge.isLast()) {
+                pointer.setLastBookingId(edge.getId());
+                pointer.setLastBookerId(edge.getBookerId());
+                pointer.setLastStart(edge.getStartDate());
+                pointer.setLastEnd(edge.getEndDate());
+            } else {
+                pointer.setNextBookingId(edge.getId());
+                pointer.setNextBookerId(edge.getBookerId());
+                pointer.setNextStart(edge.getStartDate());
+                pointer.setNextEnd(edge.getEndDate());
+                pointer.setValidUntil(edge.getStartDate());
+            }
+        }
+
+        for (Object[] row : bookingRepository.findNearestEnds(itemIds, now)) {
+            ItemBookingPointer pointer = pointers.computeIfAbsent((Long) row[0], ItemBookingPointerServiceImpl::empty);
+            LocalDateTime nearestEnd = (LocalDateTime) row[1];
+            if (pointer.getValidUntil() == null || nearestEnd.isBefore(pointer.getValidUntil())) {
+                pointer.setValidUntil(nearestEnd);
+            }
+        }
+        return pointers;
+    }
+
+    private Map<Long, ItemBookingPointer> fromTimeline(Collection<Long> itemIds, LocalDateTime now) {
+        Map<Long, ItemBookingPointer> pointers = new HashMap<>();
+        for (Long itemId : itemIds) {
+            BookingInterval last = timeline.last(itemId, now);
+            BookingInterval next = timeline.next(itemId, now);
+            if (last == null && next == null) {
+                continue;
+            }
+
+            ItemBookingPointer pointer = empty(itemId);
+            if (last != null) {
+                pointer.setLastBookingId(last.getId());
+                pointer.setLastBookerId(last.getBookerId());
+                pointer.setLastStart(last.getStart());
+                pointer.setLastEnd(last.getEnd());
+            }
+            if (next != null) {
+                pointer.setNextBookingId(next.getId());
+                pointer.setNextBookerId(next.getBookerId());
+                pointer.setNextStart(next.getStart());
+                pointer.setNextEnd(next.getEnd());
+            }
+            pointers.put(itemId, pointer);
+        }
+        return pointers;
+    }
+
+    private void store(Collection<Long> itemIds, Map<Long, ItemBookingPointer> pointers) {
+        List<Long> emptyIds = itemIds.stream()
+                .filter(itemId -> !pointers.containsKey(itemId))
+                .collect(Collectors.toList());
+        if (!emptyIds.isEmpty()) {
+            pointerRepository.deleteByItemIds(emptyIds);
+        }
+        pointers.values().forEach(pointerRepository::upsert);
+    }
+
+    private static ItemBookingPointer empty(Long itemId) {
+        ItemBookingPointer pointer = new ItemBookingPointer();
+        pointer.setItemId(itemId);
+        return pointer;
+    }
+}
@@ -1,5 +1,7 @@
 package ru.practicum.shareit.service;
 
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import ru.practicum.shareit.dto.PageDto;
 import ru.practicum.shareit.dto.item.CommentDto;
 import ru.practicum.shareit.dto.item.ItemDto;
 import ru.practicum.shareit.dto.item.ItemWithBookingsDto;
@@ -14,13 +16,21 @@ public interface ItemService {
 
     ItemDto getItemById(Long id, Long userId);
 
-    List<ItemDto> searchItems(String text);
+    Object getItemDetails(Long id, Long userId);
+
+    List<ItemDto> searchItems(String text, int from, int size);
+
+    List<String> suggestItemNames(String prefix, int size);
 
     CommentDto addComment(Long itemId, CommentDto commentDto, Long userId);
 
+    PageDto<CommentDto> getComments(Long itemId, String cursor, int size);
+
     ItemWithBookingsDto getItemWithBookings(Long itemId, Long userId);
 
-    List<ItemWithBookingsDto> getItemsWithBookingsByOwner(Long ownerId);
+    List<ItemWithBookingsDto> getItemsWithBookingsByOwner(Long ownerId, int from, int size);
+
+    StreamingResponseBody streamItemsWithBookingsByOwner(Long ownerId);
 
     Map<Long, List<ItemDto>> getItemsByRequestIds(List<Long> requestIds);
 }
@@ -1,21 +1,43 @@
 package ru.practicum.shareit.service;
 
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
-import ru.practicum.shareit.dto.booking.BookingShortDto;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import ru.practicum.shareit.cache.ItemDetailCache;
+import ru.practicum.shareit.dto.Cursor;
+import ru.practicum.shareit.dto.PageDto;
+import ru.practicum.shareit.dto.booking.ItemEdgeView;
+import ru.practicum.shareit.dto.item.CommentCountView;
 import ru.practicum.shareit.dto.item.CommentDto;
+import ru.practicum.shareit.dto.item.ItemDetailView;
 import ru.practicum.shareit.dto.item.ItemDto;
 import ru.practicum.shareit.dto.item.ItemWithBookingsDto;
+import ru.practicum.shareit.dto.item.RecentCommentView;
+import ru.practicum.shareit.event.CommentAddedEvent;
+import ru.practicum.shareit.event.ItemSavedEvent;
 import ru.practicum.shareit.exception.BadRequestException;
+import ru.practicum.shareit.mapper.BookingMapper;
 import ru.practicum.shareit.mapper.CommentMapper;
 import ru.practicum.shareit.mapper.ItemMapper;
-import ru.practicum.shareit.model.Booking;
+import ru.practicum.shareit.model.BookingSeries;
+import ru.practicum.shareit.model.BookingStatus;
 import ru.practicum.shareit.model.Comment;
 import ru.practicum.shareit.model.Item;
+import ru.practicum.shareit.model.ItemBookingPointer;
 import ru.practicum.shareit.model.User;
 import ru.practicum.shareit.repository.*;
+import ru.practicum.shareit.search.ItemNameTrie;
+import ru.practicum.shareit.search.ItemSearchIndex;
+import ru.practicum.shareit.search.SearchProperties;
+import ru.practicum.shareit.series.BookingOccurrence;
+import ru.practicum.shareit.series.BookingOccurrences;
 
 import java.time.LocalDateTime;
 import java.util.*;
@@ -25,11 +47,22 @@ import java.util.stream.Collectors;
 @Service
 @RequiredArgsConstructor
 public class ItemServiceImpl implements ItemService {
+    private static final int RECENT_COMMENTS = 10;
+    private static final int STREAM_CHUNK_SIZE = 500;
+
     private final ItemRepository itemRepository;
     private final BookingRepository bookingRepository;
+    private final BookingSeriesRepository seriesRepository;
     private final CommentRepository commentRepository;
     private final UserRepository userRepository;
     private final ItemRequestRepository requestRepository;
+    private final ItemBookingPointerService pointerService;
+    private final ItemSearchIndex searchIndex;
+    private final ItemNameTrie nameTrie;
+    private final SearchProperties searchProperties;
+    private final ApplicationEventPublisher eventPublisher;
+    private final ItemDetailCache itemDetailCache;
+    private final ObjectMapper objectMapper;
 
     private Item getItemByIdOrThrow(Long id) {
         return itemRepository.findById(id)
@@ -67,6 +100,7 @@ public class ItemServiceImpl implements ItemService {
 
         Item item = ItemMapper.toItem(itemDto, ownerId);
         Item savedItem = itemRepository.save(item);
+        eventPublisher.publishEvent(new ItemSavedEvent(savedItem));
 
         log.info("Вещь успешно создана: {}", savedItem);
         return ItemMapper.toItemDto(savedItem);
@@ -100,46 +134,90 @@ public class ItemServiceImpl implements ItemService {
         }
 
         Item updatedItem = itemRepository.save(existingItem);
+        eventPublisher.publishEvent(new ItemSavedEvent(updatedItem));
         log.info("Вещь с ID: {} успешно обновлена: {}", id, updatedItem);
         return ItemMapper.toItemDto(updatedItem);
     }
 
     @Override
-    @Transactional(readOnly = true)
     public ItemDto getItemById(Long id, Long userId) {
         log.debug("Поиск вещи по ID: {}", id);
-        Item item = getItemByIdOrThrow(id);
+        return itemDetailCache.get(id, () -> loadItemDto(id));
+    }
 
-        List<Comment> comments = commentRepository.findByItemId(id);
-        ItemDto itemDto = ItemMapper.toItemDto(item);
-        itemDto.setComments(comments.stream()
-                .map(CommentMapper::toCommentDto)
-                .collect(Collectors.toList()));
+    private ItemDto loadItemDto(Long id) {
+        List<ItemDetailView> rows = itemRepository.findDetailRows(id, RECENT_COMMENTS);
+        if (rows.isEmpty()) {
+            String errorMessage = String.format("Вещь с ID %d не найдена", id);
+            log.error(errorMessage);
+            throw new NoSuchElementException(errorMessage);
+        }
+        return ItemMapper.toItemDto(rows);
+    }
 
-        return itemDto;
+    @Override
+    public Object getItemDetails(Long id, Long userId) {
+        ItemDto itemDto = getItemById(id, userId);
+        if (userId == null || !userId.equals(itemDto.getOwnerId())) {
+            return itemDto;
+        }
+        return withBookings(itemDto);
     }
 
     @Override
     @Transactional(readOnly = true)
-    public List<ItemWithBookingsDto> getItemsWithBookingsByOwner(Long ownerId) {
-        log.info("Получение всех вещей с бронированиями владельца с ID: {}", ownerId);
+    public List<ItemWithBookingsDto> getItemsWithBookingsByOwner(Long ownerId, int from, int size) {
+        log.info("Получение вещей с бронированиями владельца с ID: {}, from: {}, size: {}", ownerId, from, size);
         getUserByIdOrThrow(ownerId);
 
-        List<Item> items = itemRepository.findByOwnerId(ownerId);
+        List<Item> items = itemRepository.findByOwnerIdOrderById(ownerId, PageRequest.of(from / size, size));
+        List<ItemWithBookingsDto> result = toItemsWithBookings(items);
+
+        log.debug("Найдено {} вещей для владельца с ID: {}", result.size(), ownerId);
+        return result;
+    }
+
+    @Override
+    public StreamingResponseBody streamItemsWithBookingsByOwner(Long ownerId) {
+        log.info("Потоковая выдача вещей с бронированиями владельца с ID: {}", ownerId);
+        getUserByIdOrThrow(ownerId);
+
+        return output -> {
+            int written = 0;
+            try (JsonGenerator generator = objectMapper.getFactory().createGenerator(output)) {
+                generator.writeStartArray();
+                Pageable chunk = PageRequest.of(0, STREAM_CHUNK_SIZE);
+                List<Item> items = itemRepository.findByOwnerIdAndIdGreaterThanOrderById(ownerId, 0L, chunk);
+                while (!items.isEmpty()) {
+                    for (ItemWithBookingsDto itemDto : toItemsWithBookings(items)) {
+                        generator.writeObject(itemDto);
+                    }
+                    generator.flush();
+                    written += items.size();
+                    items = itemRepository.findByOwnerIdAndIdGreaterThanOrderById(ownerId, items.getLast().getId(), chunk);
+                }
+                generator.writeEndArray();
+            }
+            log.debug("Выдано {} вещей владельца с ID: {}", written, ownerId);
+        };
+    }
+
+    private List<ItemWithBookingsDto> toItemsWithBookings(List<Item> items) {
+        if (items.isEmpty()) {
+            return Collections.emptyList();
+        }
         List<Long> itemIds = items.stream().map(Item::getId).collect(Collectors.toList());
-        LocalDateTime now = LocalDateTime.now();
 
-        Map<Long, List<Booking>> bookingsMap = bookingRepository
-                .findApprovedBookingsForItems(itemIds, now)
-                .stream()
-                .collect(Collectors.groupingBy(booking -> booking.getItem().getId()));
+        Map<Long, ItemBookingPointer> pointers = pointerService.getPointers(itemIds);
+        Map<Long, List<BookingSeries>> seriesMap = approvedSeries(itemIds);
+        LocalDateTime now = LocalDateTime.now();
 
-        Map<Long, List<Comment>> commentsMap = commentRepository
-                .findByItemIdIn(itemIds)
-                .stream()
-                .collect(Collectors.groupingBy(comment -> comment.getItem().getId()));
+        Map<Long, List<RecentCommentView>> commentsMap = commentRepository
+                .findRecentByItemIdIn(itemIds, RECENT_COMMENTS + 1).stream()
+                .collect(Collectors.groupingBy(RecentCommentView::getItemId));
+        Map<Long, Long> commentCounts = countComments(commentsMap);
 
-        List<ItemWithBookingsDto> result = items.stream()
+        return items.stream()
                 .map(item -> {
                     ItemWithBookingsDto itemDto = new ItemWithBookingsDto();
                     itemDto.setId(item.getId());
@@ -148,63 +226,77 @@ public class ItemServiceImpl implements ItemService {
                     itemDto.setAvailable(item.getAvailable());
                     itemDto.setRequestId(item.getRequestId());
 
-                    List<Booking> itemBookings = bookingsMap.getOrDefault(item.getId(), Collections.emptyList());
-
-                    Booking lastBooking = itemBookings.stream()
-                            .filter(b -> b.getEnd().isBefore(now))
-                            .max(Comparator.comparing(Booking::getEnd))
-                            .orElse(null);
-
-                    Booking nextBooking = itemBookings.stream()
-                            .filter(b -> b.getStart().isAfter(now))
-                            .min(Comparator.comparing(Booking::getStart))
-                            .orElse(null);
-
-                    if (lastBooking != null) {
-                        itemDto.setLastBooking(new BookingShortDto(
-                                lastBooking.getId(),
-                                lastBooking.getBooker().getId(),
-                                lastBooking.getStart(),
-                                lastBooking.getEnd()
-                        ));
-                    }
-
-                    if (nextBooking != null) {
-                        itemDto.setNextBooking(new BookingShortDto(
-                                nextBooking.getId(),
-                                nextBooking.getBooker().getId(),
-                                nextBooking.getStart(),
-                                nextBooking.getEnd()
-                        ));
-                    }
+                    ItemBookingPointer pointer = pointers.get(item.getId());
+                    itemDto.setLastBooking(BookingMapper.toLastBookingDto(pointer));
+                    itemDto.setNextBooking(BookingMapper.toNextBookingDto(pointer));
+                    applySeries(itemDto, seriesMap.get(item.getId()), now);
 
-                    List<Comment> comments = commentsMap.getOrDefault(item.getId(), Collections.emptyList());
+                    List<RecentCommentView> comments = commentsMap.getOrDefault(item.getId(), Collections.emptyList());
                     itemDto.setComments(comments.stream()
+                            .limit(RECENT_COMMENTS)
                             .map(CommentMapper::toCommentDto)
                             .collect(Collectors.toList()));
+                    itemDto.setCommentsCount(commentCounts.getOrDefault(item.getId(), (long) comments.size()));
 
                     return itemDto;
                 })
                 .collect(Collectors.toList());
+    }
 
-        log.debug("Найдено {} вещей для владельца с ID: {}", result.size(), ownerId);
-        return result;
+    /**
+     * Считает отзывы только тех вещей, у которых нашлось больше {@link #RECENT_COMMENTS} последних отзывов:
+     * у остальных количество равно размеру выборки.
+     */
+    private Map<Long, Long> countComments(Map<Long, List<RecentCommentView>> commentsMap) {
+        List<Long> overflowing = commentsMap.entrySet().stream()
+                .filter(entry -> entry.getValue().size() > RECENT_COMMENTS)
+                .map(Map.Entry::getKey)
+                .collect(Collectors.toList());
+        if (overflowing.isEmpty()) {
+            return Collections.emptyMap();
+        }
+        return commentRepository.countByItemIdIn(overflowing).stream()
+                .collect(Collectors.toMap(CommentCountView::getItemId, CommentCountView::getTotal));
     }
 
     @Override
-    @Transactional(readOnly = true)
-    public List<ItemDto> searchItems(String text) {
-        log.info("Поиск вещей по тексту: '{}'", text);
+    public List<ItemDto> searchItems(String text, int from, int size) {
+        log.info("Поиск вещей по тексту: '{}', from: {}, size: {}", text, from, size);
 
-        List<Item> foundItems = itemRepository.searchAvailable(text);
-        List<ItemDto> result = foundItems.stream()
-                .map(ItemMapper::toItemDto)
-                .collect(Collectors.toList());
+        if (text == null || text.isBlank()) {
+            return Collections.emptyList();
+        }
+
+        List<ItemDto> result;
+        if (searchProperties.isMemory() && searchIndex.isReady()) {
+            result = searchIndex.search(text, from, size).stream()
+                    .map(ItemMapper::toItemDto)
+                    .collect(Collectors.toList());
+        } else {
+            Pageable pageable = PageRequest.of(from / size, size);
+            result = itemRepository.searchAvailable(text.trim(), pageable).stream()
+                    .map(ItemMapper::toItemDto)
+                    .collect(Collectors.toList());
+        }
 
         log.debug("Найдено {} вещей по запросу: '{}'", result.size(), text);
         return result;
     }
 
+    @Override
+    public List<String> suggestItemNames(String prefix, int size) {
+        log.debug("Подсказки названий вещей по префиксу: '{}'", prefix);
+
+        if (prefix == null || prefix.isBlank()) {
+            return Collections.emptyList();
+        }
+
+        if (nameTrie.isReady()) {
+            return nameTrie.suggest(prefix, size);
+        }
+        return itemRepository.findAvailableNamesByPrefix(prefix.trim(), PageRequest.of(0, size));
+    }
+
     @Override
     @Transactional
     public CommentDto addComment(Long itemId, CommentDto commentDto, Long userId) {
@@ -216,6 +308,11 @@ public class ItemServiceImpl implements ItemService {
         LocalDateTime now = LocalDateTime.now();
 
         boolean hasCompletedBookings = bookingRepository.existsCompletedBooking(itemId, userId, now);
+        if (!hasCompletedBookings) {
+            hasCompletedBookings = approvedSeries(List.of(itemId)).getOrDefault(itemId, List.of()).stream()
+                    .anyMatch(series -> series.getBooker().getId().equals(userId)
+                            && BookingOccurrences.lastEnded(series, now) != null);
+        }
 
         if (!hasCompletedBookings) {
             throw new BadRequestException("User can only comment on items they have booked");
@@ -223,6 +320,7 @@ public class ItemServiceImpl implements ItemService {
 
         Comment comment = CommentMapper.toComment(commentDto, item, author, now);
         comment = commentRepository.save(comment);
+        eventPublisher.publishEvent(new CommentAddedEvent(itemId, comment.getId()));
         log.info("Комментарий добавлен: {}", comment);
 
         return CommentMapper.toCommentDto(comment);
@@ -230,51 +328,58 @@ public class ItemServiceImpl implements ItemService {
 
     @Override
     @Transactional(readOnly = true)
+    public PageDto<CommentDto> getComments(Long itemId, String cursor, int size) {
+        log.debug("Получение комментариев вещи ID: {}, курсор: {}", itemId, cursor);
+        if (!itemRepository.existsById(itemId)) {
+            String errorMessage = String.format("Вещь с ID %d не найдена", itemId);
+            log.error(errorMessage);
+            throw new NoSuchElementException(errorMessage);
+        }
+
+        Pageable limit = PageRequest.of(0, size);
+        List<CommentDto> comments;
+        if (cursor == null || cursor.isBlank()) {
+            comments = commentRepository.findPageByItemId(itemId, limit);
+        } else {
+            Cursor position = Cursor.decode(cursor);
+            comments = commentRepository.findPageByItemIdBefore(itemId, position.getPosition(), position.getId(), limit);
+        }
+
+        String nextCursor = null;
+        if (!comments.isEmpty() && comments.size() == size) {
+            CommentDto last = comments.getLast();
+            nextCursor = new Cursor(last.getCreated(), last.getId()).encode();
+        }
+        return new PageDto<>(comments, nextCursor);
+    }
+
+    @Override
     public ItemWithBookingsDto getItemWithBookings(Long itemId, Long userId) {
         log.debug("Поиск вещи с бронированиями по ID: {}", itemId);
-        Item item = getItemByIdOrThrow(itemId);
+        ItemDto itemDto = getItemById(itemId, userId);
 
-        if (!item.getOwnerId().equals(userId)) {
+        if (!itemDto.getOwnerId().equals(userId)) {
             throw new NoSuchElementException("Only owner can view booking information");
         }
+        return withBookings(itemDto);
+    }
 
-        ItemWithBookingsDto itemDto = new ItemWithBookingsDto();
-        itemDto.setId(item.getId());
-        itemDto.setName(item.getName());
-        itemDto.setDescription(item.getDescription());
-        itemDto.setAvailable(item.getAvailable());
-        itemDto.setRequestId(item.getRequestId());
-
+    private ItemWithBookingsDto withBookings(ItemDto itemDto) {
+        ItemWithBookingsDto result = ItemMapper.toItemWithBookingsDto(itemDto);
         LocalDateTime now = LocalDateTime.now();
-        List<Booking> lastBookings = bookingRepository.findLastBooking(itemId, now);
-        List<Booking> nextBookings = bookingRepository.findNextBooking(itemId, now);
-
-        if (!lastBookings.isEmpty()) {
-            Booking lastBooking = lastBookings.getFirst();
-            itemDto.setLastBooking(new BookingShortDto(
-                    lastBooking.getId(),
-                    lastBooking.getBooker().getId(),
-                    lastBooking.getStart(),
-                    lastBooking.getEnd()
-            ));
-        }
 
-        if (!nextBookings.isEmpty()) {
-            Booking nextBooking = nextBookings.getFirst();
-            itemDto.setNextBooking(new BookingShortDto(
-                    nextBooking.getId(),
-                    nextBooking.getBooker().getId(),
-                    nextBooking.getStart(),
-                    nextBooking.getEnd()
-            ));
+        List<BookingSeries> series = new ArrayList<>();
+        for (ItemEdgeView edge : bookingRepository.findItemEdges(itemDto.getId(), now)) {
+            if (edge.isSeries()) {
+                series.add(BookingMapper.toBookingSeries(edge));
+            } else if (edge.isLast()) {
+                result.setLastBooking(BookingMapper.toBookingShortDto(edge));
+            } else {
+                result.setNextBooking(BookingMapper.toBookingShortDto(edge));
+            }
         }
-
-        List<Comment> comments = commentRepository.findByItemId(itemId);
-        itemDto.setComments(comments.stream()
-                .map(CommentMapper::toCommentDto)
-                .collect(Collectors.toList()));
-
-        return itemDto;
+        applySeries(result, series, now);
+        return result;
     }
 
     @Override
@@ -286,4 +391,30 @@ public class ItemServiceImpl implements ItemService {
                         Collectors.mapping(ItemMapper::toItemDto, Collectors.toList())
                 ));
     }
-}
\ No newline at end of file
+
+    private Map<Long, List<BookingSeries>> approvedSeries(Collection<Long> itemIds) {
+        if (itemIds.isEmpty()) {
+            return Collections.emptyMap();
+        }
+        return seriesRepository.findByItemIdInAndStatusIn(itemIds, List.of(BookingStatus.APPROVED)).stream()
+                .collect(Collectors.groupingBy(series -> series.getItem().getId()));
+    }
+
+    private static void applySeries(ItemWithBookingsDto itemDto, List<BookingSeries> series, LocalDateTime now) {
+        if (series == null) {
+            return;
+        }
+        for (BookingSeries candidate : series) {
+            BookingOccurrence last = BookingOccurrences.lastEnded(candidate, now);
+            if (last != null && (itemDto.getLastBooking() == null
+                    || last.getEnd().isAfter(itemDto.getLastBooking().getEnd()))) {
+                itemDto.setLastBooking(BookingMapper.toBookingShortDto(last));
+            }
+            BookingOccurrence next = BookingOccurrences.nextStarting(candidate, now);
+            if (next != null && (itemDto.getNextBooking() == null
+                    || next.getStart().isBefore(itemDto.getNextBooking().getStart()))) {
+                itemDto.setNextBooking(BookingMapper.toBookingShortDto(next));
+            }
+        }
+    }
+}
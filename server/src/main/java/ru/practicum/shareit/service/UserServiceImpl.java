@@ -2,11 +2,13 @@ package ru.practicum.shareit.service;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import ru.practicum.shareit.dto.user.UserCreateDto;
 import ru.practicum.shareit.dto.user.UserDto;
 import ru.practicum.shareit.dto.user.UserUpdateDto;
+import ru.practicum.shareit.event.UserRenamedEvent;
 import ru.practicum.shareit.mapper.UserMapper;
 import ru.practicum.shareit.model.User;
 import ru.practicum.shareit.repository.UserRepository;
@@ -20,6 +22,7 @@ import java.util.stream.Collectors;
 @RequiredArgsConstructor
 public class UserServiceImpl implements UserService {
     private final UserRepository userRepository;
+    private final ApplicationEventPublisher eventPublisher;
 
     @Override
     @Transactional
@@ -44,8 +47,10 @@ public class UserServiceImpl implements UserService {
         log.info("Обновление пользователя ID: {}, данные: {}", id, userUpdateDto);
         User existingUser = getUserByIdOrThrow(id);
 
-        if (userUpdateDto.getName() != null && !userUpdateDto.getName().isBlank()) {
+        if (userUpdateDto.getName() != null && !userUpdateDto.getName().isBlank()
+                && !userUpdateDto.getName().equals(existingUser.getName())) {
             existingUser.setName(userUpdateDto.getName());
+            eventPublisher.publishEvent(new UserRenamedEvent(id));
         }
 
         if (userUpdateDto.getEmail() != null) {
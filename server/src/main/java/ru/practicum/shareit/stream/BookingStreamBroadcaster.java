@@ -0,0 +1,251 @@
+package ru.practicum.shareit.stream;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import ru.practicum.shareit.dto.booking.BookingStreamEventDto;
+import ru.practicum.shareit.event.BookingChangedEvent;
+import ru.practicum.shareit.model.BookingStatus;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Рассылка новых бронирований владельцам вещей через SSE.
+ * У каждого подписчика своя ограниченная очередь; отправку выполняет общий пул потоков,
+ * не более одной задачи на подписчика; heartbeat тоже идёт через эту задачу. Если очередь заполнена,
+ * событие отбрасывается, а подписчик, потерявший подряд {@code shareit.booking-stream.max-drops} событий,
+ * отключается.
+ * <p>
+ * Запись в сокет выполняется в отдельном потоке, поток пула ждёт её не дольше
+ * {@code shareit.booking-stream.send-timeout}. Подписчик, не принявший событие за это время, отключается,
+ * и медленный клиент не занимает общий пул; зависшую запись прерывает таймаут записи контейнера.
+ */
+@Slf4j
+@Component
+public class BookingStreamBroadcaster {
+    private static final String EVENT_NAME = "booking";
+
+    private final Map<Long, Set<Subscriber>> subscribers = new ConcurrentHashMap<>();
+    private final AtomicInteger connections = new AtomicInteger();
+    private final BookingStreamProperties properties;
+    private final Executor executor;
+    private final Executor writer;
+    private final Counter dropped;
+    private final Counter evicted;
+
+    @Autowired
+    public BookingStreamBroadcaster(BookingStreamProperties properties, MeterRegistry meterRegistry) {
+        this(properties, meterRegistry,
+                Executors.newFixedThreadPool(properties.getSenderThreads(),
+                        Thread.ofPlatform().name("booking-stream-", 0).daemon().factory()),
+                Executors.newCachedThreadPool(Thread.ofPlatform().name("booking-stream-writer-", 0).daemon().factory()));
+    }
+
+    public BookingStreamBroadcaster(BookingStreamProperties properties, MeterRegistry meterRegistry,
+                                    Executor executor, Executor writer) {
+        this.properties = properties;
+        this.executor = executor;
+        this.writer = writer;
+        Gauge.builder("shareit.booking.stream.connections", connections, AtomicInteger::get)
+                .description("Открытые SSE-подключения владельцев")
+                .register(meterRegistry);
+        Gauge.builder("shareit.booking.stream.queue.depth", this, BookingStreamBroadcaster::queueDepth)
+                .description("События, ожидающие отправки подписчикам")
+                .register(meterRegistry);
+        this.dropped = Counter.builder("shareit.booking.stream.dropped")
+                .description("События, отброшенные из-за заполненной очереди")
+                .register(meterRegistry);
+        this.evicted = Counter.builder("shareit.booking.stream.evicted")
+                .description("Подписчики, отключённые как медленные")
+                .register(meterRegistry);
+    }
+
+    public SseEmitter subscribe(Long ownerId) {
+        SseEmitter emitter = new SseEmitter(properties.getTimeout().toMillis());
+        Subscriber subscriber = new Subscriber(ownerId, emitter, new ArrayBlockingQueue<>(properties.getQueueCapacity()));
+        emitter.onCompletion(() -> remove(subscriber));
+        emitter.onTimeout(() -> remove(subscriber));
+        emitter.onError(e -> remove(subscriber));
+
+        subscribers.computeIfAbsent(ownerId, id -> ConcurrentHashMap.newKeySet()).add(subscriber);
+        connections.incrementAndGet();
+        log.info("Владелец ID: {} подписался на новые бронирования", ownerId);
+        return emitter;
+    }
+
+    public void publish(Long ownerId, BookingStreamEventDto event) {
+        Set<Subscriber> ownerSubscribers = subscribers.get(ownerId);
+        if (ownerSubscribers == null) {
+            return;
+        }
+        for (Subscriber subscriber : ownerSubscribers) {
+            if (subscriber.queue.offer(event)) {
+                schedule(subscriber);
+                continue;
+            }
+            dropped.increment();
+            if (subscriber.drops.incrementAndGet() >= properties.getMaxDrops()) {
+                log.warn("Владелец ID: {} не успевает получать события, подключение закрыто", ownerId);
+                evicted.increment();
+                remove(subscriber);
+                writer.execute(subscriber.emitter::complete);
+            }
+        }
+    }
+
+    public int connectionCount() {
+        return connections.get();
+    }
+
+    public int queueDepth() {
+        int depth = 0;
+        for (Set<Subscriber> ownerSubscribers : subscribers.values()) {
+            for (Subscriber subscriber : ownerSubscribers) {
+                depth += subscriber.queue.size();
+            }
+        }
+        return depth;
+    }
+
+    @TransactionalEventListener
+    public void onBookingChanged(BookingChangedEvent event) {
+        if (event.getStatus() == BookingStatus.WAITING) {
+            publish(event.getOwnerId(), new BookingStreamEventDto(
+                    event.getBookingId(), event.getItemId(), event.getBookerId(), event.getStart(), event.getEnd()));
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${shareit.booking-stream.heartbeat:PT15S}",
+            initialDelayString = "${shareit.booking-stream.heartbeat:PT15S}")
+    public void heartbeat() {
+        for (Set<Subscriber> ownerSubscribers : subscribers.values()) {
+            for (Subscriber subscriber : ownerSubscribers) {
+                if (subscriber.queue.isEmpty()) {
+                    subscriber.ping.set(true);
+                    schedule(subscriber);
+                }
+            }
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        subscribers.values().forEach(ownerSubscribers -> ownerSubscribers.forEach(s -> s.emitter.complete()));
+        if (executor instanceof ExecutorService service) {
+            service.shutdownNow();
+        }
+        if (writer instanceof ExecutorService service) {
+            service.shutdownNow();
+        }
+    }
+
+    private void schedule(Subscriber subscriber) {
+        if (subscriber.draining.compareAndSet(false, true)) {
+            executor.execute(() -> drain(subscriber));
+        }
+    }
+
+    private void drain(Subscriber subscriber) {
+        try {
+            BookingStreamEventDto event;
+            while (!subscriber.closed.get() && (event = subscriber.queue.poll()) != null) {
+                if (!send(subscriber, SseEmitter.event()
+                        .name(EVENT_NAME)
+                        .id(String.valueOf(event.getBookingId()))
+                        .data(event, MediaType.APPLICATION_JSON))) {
+                    return;
+                }
+                subscriber.drops.set(0);
+            }
+            if (!subscriber.closed.get() && subscriber.ping.getAndSet(false)
+                    && !send(subscriber, SseEmitter.event().comment("ping"))) {
+                return;
+            }
+        } finally {
+            subscriber.draining.set(false);
+        }
+        if (!subscriber.closed.get() && (!subscriber.queue.isEmpty() || subscriber.ping.get())) {
+            schedule(subscriber);
+        }
+    }
+
+    private boolean send(Subscriber subscriber, SseEmitter.SseEventBuilder event) {
+        CompletableFuture<Void> write = CompletableFuture.runAsync(() -> {
+            try {
+                subscriber.emitter.send(event);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }, writer);
+        try {
+            write.get(properties.getSendTimeout().toMillis(), TimeUnit.MILLISECONDS);
+            return true;
+        } catch (TimeoutException e) {
+            log.warn("Владелец ID: {} не принял событие за {}, подключение закрыто",
+                    subscriber.ownerId, properties.getSendTimeout());
+            evicted.increment();
+            remove(subscriber);
+            write.whenComplete((result, error) -> subscriber.emitter.complete());
+            return false;
+        } catch (ExecutionException e) {
+            log.debug("Подписчик владельца ID: {} отключился: {}", subscriber.ownerId, e.getCause().getMessage());
+            remove(subscriber);
+            return false;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            remove(subscriber);
+            return false;
+        }
+    }
+
+    private void remove(Subscriber subscriber) {
+        if (!subscriber.closed.compareAndSet(false, true)) {
+            return;
+        }
+        subscribers.computeIfPresent(subscriber.ownerId, (id, ownerSubscribers) -> {
+            ownerSubscribers.remove(subscriber);
+            return ownerSubscribers.isEmpty() ? null : ownerSubscribers;
+        });
+        subscriber.queue.clear();
+        connections.decrementAndGet();
+    }
+
+    private static final class Subscriber {
+        private final Long ownerId;
+        private final SseEmitter emitter;
+        private final BlockingQueue<BookingStreamEventDto> queue;
+        private final AtomicBoolean draining = new AtomicBoolean();
+        private final AtomicBoolean ping = new AtomicBoolean();
+        private final AtomicInteger drops = new AtomicInteger();
+        private final AtomicBoolean closed = new AtomicBoolean();
+
+        Subscriber(Long ownerId, SseEmitter emitter, BlockingQueue<BookingStreamEventDto> queue) {
+            this.ownerId = ownerId;
+            this.emitter = emitter;
+            this.queue = queue;
+        }
+    }
+}
@@ -0,0 +1,17 @@
+package ru.practicum.shareit.stream;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@Data
+@ConfigurationProperties(prefix = "shareit.booking-stream")
+public class BookingStreamProperties {
+    private int queueCapacity = 64;
+    private int maxDrops = 32;
+    private int senderThreads = 4;
+    private Duration sendTimeout = Duration.ofSeconds(10);
+    private Duration timeout = Duration.ofMinutes(30);
+    private Duration heartbeat = Duration.ofSeconds(15);
+}
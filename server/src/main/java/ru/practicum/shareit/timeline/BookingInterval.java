@@ -0,0 +1,14 @@
+package ru.practicum.shareit.timeline;
+
+import lombok.Value;
+
+import java.time.LocalDateTime;
+
+@Value
+public class BookingInterval {
+    Long id;
+    Long itemId;
+    Long bookerId;
+    LocalDateTime start;
+    LocalDateTime end;
+}
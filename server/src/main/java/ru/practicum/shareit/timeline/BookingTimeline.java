@@ -0,0 +1,193 @@
+package ru.practicum.shareit.timeline;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.LoadingCache;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import ru.practicum.shareit.event.BookingChangedEvent;
+import ru.practicum.shareit.model.BookingStatus;
+import ru.practicum.shareit.repository.BookingRepository;
+
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.List;
+
+/**
+ * Интервалы подтверждённых бронирований по вещам в памяти процесса.
+ * Подтверждённые бронирования одной вещи не пересекаются, поэтому массивы начал и окончаний
+ * отсортированы одновременно и вопросы о последнем и следующем бронировании
+ * решаются бинарным поиском. Время хранится в микросекундах эпохи в {@code long[]}.
+ * Объём ограничен {@code shareit.booking-timeline.max-intervals} интервалами (каждая вещь
+ * считается ещё за один): при превышении вытесняются давно не запрашивавшиеся вещи,
+ * а при промахе интервалы вещи заново читаются из БД.
+ * Данные локальны для экземпляра, поэтому служат только для отображения, а проверки
+ * пересечений и завершённых бронирований выполняются запросами к БД.
+ */
+@Component
+public class BookingTimeline {
+    private static final long SLOT_BYTES = 4L * Long.BYTES;
+    private static final long ITEM_OVERHEAD_BYTES = 128L;
+
+    private final LoadingCache<Long, ItemTimeline> timelines;
+    private final boolean enabled;
+
+    public BookingTimeline(BookingTimelineProperties properties, BookingRepository bookingRepository,
+                           MeterRegistry meterRegistry) {
+        this.enabled = properties.isEnabled();
+        this.timelines = Caffeine.newBuilder()
+                .maximumWeight(properties.getMaxIntervals())
+                .weigher((Long itemId, ItemTimeline timeline) -> timeline.size() + 1)
+                .expireAfterWrite(properties.getExpireAfterWrite())
+                .recordStats()
+                .build(itemId -> ItemTimeline.of(bookingRepository.findApprovedIntervalsByItemId(itemId)));
+        CaffeineCacheMetrics.monitor(meterRegistry, timelines, "bookingTimeline");
+        Gauge.builder("shareit.booking.timeline.intervals", this, BookingTimeline::intervalCount)
+                .description("Подтверждённые бронирования в памяти")
+                .register(meterRegistry);
+        Gauge.builder("shareit.booking.timeline.bytes", this, BookingTimeline::estimatedBytes)
+                .description("Оценка памяти, занятой интервалами бронирований")
+                .baseUnit("bytes")
+                .register(meterRegistry);
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public long intervalCount() {
+        long weight = timelines.policy().eviction()
+                .map(eviction -> eviction.weightedSize().orElse(0L))
+                .orElse(0L);
+        return Math.max(0L, weight - timelines.estimatedSize());
+    }
+
+    public long estimatedBytes() {
+        return intervalCount() * SLOT_BYTES + timelines.estimatedSize() * ITEM_OVERHEAD_BYTES;
+    }
+
+    public void add(BookingInterval interval) {
+        timelines.asMap().computeIfPresent(interval.getItemId(), (itemId, timeline) -> timeline.with(
+                interval.getId(), interval.getBookerId(), toEpoch(interval.getStart()), toEpoch(interval.getEnd())));
+    }
+
+    public BookingInterval last(Long itemId, LocalDateTime now) {
+        ItemTimeline timeline = timelines.get(itemId);
+        int index = lowerBound(timeline.ends, toEpoch(now)) - 1;
+        return index < 0 ? null : timeline.interval(itemId, index);
+    }
+
+    public BookingInterval next(Long itemId, LocalDateTime now) {
+        ItemTimeline timeline = timelines.get(itemId);
+        int index = upperBound(timeline.starts, toEpoch(now));
+        return index == timeline.size() ? null : timeline.interval(itemId, index);
+    }
+
+    @TransactionalEventListener
+    public void onBookingChanged(BookingChangedEvent event) {
+        if (enabled && event.getStatus() == BookingStatus.APPROVED) {
+            add(new BookingInterval(
+                    event.getBookingId(), event.getItemId(), event.getBookerId(), event.getStart(), event.getEnd()));
+        }
+    }
+
+    private static int lowerBound(long[] values, long key) {
+        int low = 0;
+        int high = values.length;
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            if (values[middle] < key) {
+                low = middle + 1;
+            } else {
+                high = middle;
+            }
+        }
+        return low;
+    }
+
+    private static int upperBound(long[] values, long key) {
+        int low = 0;
+        int high = values.length;
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            if (values[middle] <= key) {
+                low = middle + 1;
+            } else {
+                high = middle;
+            }
+        }
+        return low;
+    }
+
+    static long toEpoch(LocalDateTime time) {
+        return time.toEpochSecond(ZoneOffset.UTC) * 1_000_000L + time.getNano() / 1_000;
+    }
+
+    static LocalDateTime fromEpoch(long micros) {
+        return LocalDateTime.ofEpochSecond(
+                Math.floorDiv(micros, 1_000_000L), (int) Math.floorMod(micros, 1_000_000L) * 1_000, ZoneOffset.UTC);
+    }
+
+    /**
+     * Неизменяемый снимок интервалов одной вещи: добавление создаёт новый снимок,
+     * поэтому чтение не требует блокировок, а кэш пересчитывает вес записи.
+     */
+    private static final class ItemTimeline {
+        private final long[] starts;
+        private final long[] ends;
+        private final long[] ids;
+        private final long[] bookers;
+
+        private ItemTimeline(long[] starts, long[] ends, long[] ids, long[] bookers) {
+            this.starts = starts;
+            this.ends = ends;
+            this.ids = ids;
+            this.bookers = bookers;
+        }
+
+        static ItemTimeline of(List<BookingInterval> intervals) {
+            int size = intervals.size();
+            ItemTimeline timeline = new ItemTimeline(new long[size], new long[size], new long[size], new long[size]);
+            for (int i = 0; i < size; i++) {
+                BookingInterval interval = intervals.get(i);
+                timeline.starts[i] = toEpoch(interval.getStart());
+                timeline.ends[i] = toEpoch(interval.getEnd());
+                timeline.ids[i] = interval.getId();
+                timeline.bookers[i] = interval.getBookerId();
+            }
+            return timeline;
+        }
+
+        int size() {
+            return starts.length;
+        }
+
+        ItemTimeline with(long id, long booker, long start, long end) {
+            int position = upperBound(starts, start);
+            if (position > 0 && starts[position - 1] == start && ids[position - 1] == id) {
+                return this;
+            }
+
+            int size = size();
+            ItemTimeline copy = new ItemTimeline(
+                    new long[size + 1], new long[size + 1], new long[size + 1], new long[size + 1]);
+            insert(starts, copy.starts, position, start);
+            insert(ends, copy.ends, position, end);
+            insert(ids, copy.ids, position, id);
+            insert(bookers, copy.bookers, position, booker);
+            return copy;
+        }
+
+        BookingInterval interval(Long itemId, int index) {
+            return new BookingInterval(ids[index], itemId, bookers[index], fromEpoch(starts[index]), fromEpoch(ends[index]));
+        }
+
+        private static void insert(long[] source, long[] target, int position, long value) {
+            System.arraycopy(source, 0, target, 0, position);
+            target[position] = value;
+            System.arraycopy(source, position, target, position + 1, source.length - position);
+        }
+    }
+}
\ No newline at end of file
@@ -0,0 +1,20 @@
+package ru.practicum.shareit.timeline;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@Data
+@ConfigurationProperties(prefix = "shareit.booking-timeline")
+public class BookingTimelineProperties {
+    /**
+     * Последнее и следующее бронирование вещи берутся из памяти. Интервалы пополняются только
+     * событиями своего экземпляра: бронирование, подтверждённое на другом экземпляре, появится
+     * здесь лишь после перечитывания вещи из БД, то есть через {@code expire-after-write}.
+     * До этого другие экземпляры отдают устаревшие last/next.
+     */
+    private boolean enabled = false;
+    private int maxIntervals = 1_000_000;
+    private Duration expireAfterWrite = Duration.ofMinutes(10);
+}
@@ -1,8 +1,14 @@
+CREATE EXTENSION IF NOT EXISTS pg_trgm;
+CREATE EXTENSION IF NOT EXISTS btree_gist;
+
 DROP TABLE IF EXISTS users CASCADE;
 DROP TABLE IF EXISTS items CASCADE;
 DROP TABLE IF EXISTS bookings CASCADE;
 DROP TABLE IF EXISTS comments CASCADE;
 DROP TABLE IF EXISTS requests CASCADE;
+DROP TABLE IF EXISTS item_booking_pointers CASCADE;
+DROP TABLE IF EXISTS booking_slots CASCADE;
+DROP TABLE IF EXISTS booking_series CASCADE;
 
 CREATE TABLE IF NOT EXISTS users (
   id BIGINT GENERATED BY DEFAULT AS IDENTITY NOT NULL,
@@ -19,9 +25,18 @@ CREATE TABLE IF NOT EXISTS items (
   is_available BOOLEAN NOT NULL,
   owner_id BIGINT NOT NULL REFERENCES users (id),
   request_id BIGINT,
+  search_vector TSVECTOR GENERATED ALWAYS AS (
+    setweight(to_tsvector('simple', name), 'A') || setweight(to_tsvector('simple', description), 'B')
+  ) STORED,
   CONSTRAINT pk_item PRIMARY KEY (id)
 );
 
+CREATE INDEX IF NOT EXISTS idx_items_owner_id ON items (owner_id, id);
+CREATE INDEX IF NOT EXISTS idx_items_request_id ON items (request_id) WHERE request_id IS NOT NULL;
+CREATE INDEX IF NOT EXISTS idx_items_search_vector ON items USING GIN (search_vector) WHERE is_available = true;
+CREATE INDEX IF NOT EXISTS idx_items_name_trgm ON items USING GIN (LOWER(name) gin_trgm_ops) WHERE is_available = true;
+CREATE INDEX IF NOT EXISTS idx_items_description_trgm ON items USING GIN (LOWER(description) gin_trgm_ops) WHERE is_available = true;
+
 CREATE TABLE IF NOT EXISTS bookings (
   id BIGINT GENERATED BY DEFAULT AS IDENTITY NOT NULL,
   start_date TIMESTAMP WITHOUT TIME ZONE NOT NULL,
@@ -29,9 +44,101 @@ CREATE TABLE IF NOT EXISTS bookings (
   item_id BIGINT NOT NULL REFERENCES items (id),
   booker_id BIGINT NOT NULL REFERENCES users (id),
   status VARCHAR(20) NOT NULL,
-  CONSTRAINT pk_booking PRIMARY KEY (id)
+  CONSTRAINT pk_booking PRIMARY KEY (id, start_date)
+) PARTITION BY RANGE (start_date);
+
+CREATE TABLE IF NOT EXISTS bookings_archive PARTITION OF bookings FOR VALUES FROM (MINVALUE) TO ('2000-01-01')
+  PARTITION BY RANGE (start_date);
+CREATE TABLE IF NOT EXISTS bookings_archive_initial PARTITION OF bookings_archive
+  FOR VALUES FROM (MINVALUE) TO ('2000-01-01');
+CREATE TABLE IF NOT EXISTS bookings_default PARTITION OF bookings DEFAULT;
+
+CREATE TABLE IF NOT EXISTS booking_slots (
+  id BIGINT GENERATED BY DEFAULT AS IDENTITY NOT NULL,
+  booking_id BIGINT,
+  series_id BIGINT,
+  item_id BIGINT NOT NULL,
+  period TSRANGE NOT NULL,
+  CONSTRAINT pk_booking_slot PRIMARY KEY (id),
+  CONSTRAINT uq_booking_slots_booking UNIQUE (booking_id),
+  CONSTRAINT chk_booking_slots_source CHECK ((booking_id IS NULL) <> (series_id IS NULL)),
+  CONSTRAINT excl_booking_slots_overlap EXCLUDE USING gist (item_id WITH =, period WITH &&)
+);
+
+CREATE OR REPLACE FUNCTION sync_booking_slot() RETURNS TRIGGER AS '
+BEGIN
+  IF TG_OP = ''UPDATE'' AND OLD.status = ''APPROVED'' AND NEW.status <> ''APPROVED'' THEN
+    DELETE FROM booking_slots WHERE booking_id = OLD.id;
+  ELSIF NEW.status = ''APPROVED'' AND (TG_OP = ''INSERT'' OR OLD.status <> ''APPROVED'') THEN
+    INSERT INTO booking_slots (booking_id, item_id, period)
+    VALUES (NEW.id, NEW.item_id, tsrange(NEW.start_date, NEW.end_date, ''[)''));
+  END IF;
+  RETURN NULL;
+END' LANGUAGE plpgsql;
+
+CREATE TRIGGER trg_bookings_slot AFTER INSERT OR UPDATE OF status ON bookings
+  FOR EACH ROW EXECUTE FUNCTION sync_booking_slot();
+
+CREATE INDEX IF NOT EXISTS idx_bookings_booker_start ON bookings (booker_id, start_date DESC, id DESC);
+CREATE INDEX IF NOT EXISTS idx_bookings_booker_status_start ON bookings (booker_id, status, start_date DESC, id DESC);
+CREATE INDEX IF NOT EXISTS idx_bookings_waiting_start ON bookings (start_date) WHERE status = 'WAITING';
+CREATE INDEX IF NOT EXISTS idx_bookings_item_start ON bookings (item_id, start_date DESC, id DESC);
+CREATE INDEX IF NOT EXISTS idx_bookings_item_waiting ON bookings (item_id, start_date DESC, id DESC)
+  WHERE status = 'WAITING';
+CREATE INDEX IF NOT EXISTS idx_bookings_item_status_start ON bookings (item_id, status, start_date);
+CREATE INDEX IF NOT EXISTS idx_bookings_item_approved_end ON bookings (item_id, end_date)
+  WHERE status = 'APPROVED';
+CREATE INDEX IF NOT EXISTS idx_bookings_item_approved_booker ON bookings (item_id, booker_id, end_date)
+  WHERE status = 'APPROVED';
+
+CREATE TABLE IF NOT EXISTS booking_series (
+  id BIGINT GENERATED BY DEFAULT AS IDENTITY NOT NULL,
+  start_date TIMESTAMP WITHOUT TIME ZONE NOT NULL,
+  end_date TIMESTAMP WITHOUT TIME ZONE NOT NULL,
+  frequency VARCHAR(20) NOT NULL,
+  until_date TIMESTAMP WITHOUT TIME ZONE NOT NULL,
+  item_id BIGINT NOT NULL REFERENCES items (id),
+  booker_id BIGINT NOT NULL REFERENCES users (id),
+  status VARCHAR(20) NOT NULL,
+  CONSTRAINT pk_booking_series PRIMARY KEY (id)
 );
 
+CREATE INDEX IF NOT EXISTS idx_booking_series_booker ON booking_series (booker_id);
+CREATE INDEX IF NOT EXISTS idx_booking_series_item_status ON booking_series (item_id, status);
+CREATE INDEX IF NOT EXISTS idx_booking_slots_series ON booking_slots (series_id) WHERE series_id IS NOT NULL;
+
+CREATE OR REPLACE FUNCTION sync_series_slots() RETURNS TRIGGER AS '
+BEGIN
+  IF TG_OP = ''UPDATE'' AND OLD.status = ''APPROVED'' AND NEW.status <> ''APPROVED'' THEN
+    DELETE FROM booking_slots WHERE series_id = OLD.id;
+  ELSIF NEW.status = ''APPROVED'' AND (TG_OP = ''INSERT'' OR OLD.status <> ''APPROVED'') THEN
+    INSERT INTO booking_slots (series_id, item_id, period)
+    SELECT NEW.id, NEW.item_id, tsrange(occurrence, occurrence + (NEW.end_date - NEW.start_date), ''[)'')
+    FROM generate_series(NEW.start_date, NEW.until_date,
+      CASE NEW.frequency WHEN ''DAILY'' THEN interval ''1 day'' ELSE interval ''7 days'' END) AS occurrence;
+  END IF;
+  RETURN NULL;
+END' LANGUAGE plpgsql;
+
+CREATE TRIGGER trg_booking_series_slots AFTER INSERT OR UPDATE OF status ON booking_series
+  FOR EACH ROW EXECUTE FUNCTION sync_series_slots();
+
+CREATE TABLE IF NOT EXISTS item_booking_pointers (
+  item_id BIGINT NOT NULL REFERENCES items (id),
+  last_booking_id BIGINT,
+  last_booker_id BIGINT,
+  last_start TIMESTAMP WITHOUT TIME ZONE,
+  last_end TIMESTAMP WITHOUT TIME ZONE,
+  next_booking_id BIGINT,
+  next_booker_id BIGINT,
+  next_start TIMESTAMP WITHOUT TIME ZONE,
+  next_end TIMESTAMP WITHOUT TIME ZONE,
+  valid_until TIMESTAMP WITHOUT TIME ZONE,
+  CONSTRAINT pk_item_booking_pointer PRIMARY KEY (item_id)
+);
+
+CREATE INDEX IF NOT EXISTS idx_item_booking_pointers_valid_until ON item_booking_pointers (valid_until);
+
 CREATE TABLE IF NOT EXISTS comments (
   id BIGINT GENERATED BY DEFAULT AS IDENTITY NOT NULL,
   text VARCHAR(512) NOT NULL,
@@ -41,10 +148,15 @@ CREATE TABLE IF NOT EXISTS comments (
   CONSTRAINT pk_comment PRIMARY KEY (id)
 );
 
+CREATE INDEX IF NOT EXISTS idx_comments_item_id ON comments (item_id, created, id);
+
 CREATE TABLE IF NOT EXISTS requests (
   id BIGINT GENERATED BY DEFAULT AS IDENTITY NOT NULL,
   description VARCHAR(512) NOT NULL,
   requestor_id BIGINT NOT NULL REFERENCES users (id),
   created TIMESTAMP WITHOUT TIME ZONE NOT NULL,
   CONSTRAINT pk_request PRIMARY KEY (id)
-);
\ No newline at end of file
+);
+
+CREATE INDEX IF NOT EXISTS idx_requests_requestor_created ON requests (requestor_id, created DESC);
+CREATE INDEX IF NOT EXISTS idx_requests_created ON requests (created DESC);
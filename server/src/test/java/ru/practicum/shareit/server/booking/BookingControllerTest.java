@@ -0,0 +1,50 @@
+package ru.practicum.shareit.server.booking;
+
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import ru.practicum.shareit.controller.BookingController;
+import ru.practicum.shareit.service.BookingSeriesService;
+import ru.practicum.shareit.service.BookingService;
+import ru.practicum.shareit.service.ExportService;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.patch;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@WebMvcTest(controllers = BookingController.class)
+class BookingControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @MockBean
+    private BookingService bookingService;
+
+    @MockBean
+    private BookingSeriesService seriesService;
+
+    @MockBean
+    private ExportService exportService;
+
+    @Test
+    void updateBookingStatusesRejectsInvalidDecisions() throws Exception {
+        mockMvc.perform(patch("/bookings/batch")
+                        .header("X-Sharer-User-Id", 1L)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("[{\"bookingId\": 1}]"))
+                .andExpect(status().isBadRequest());
+        mockMvc.perform(patch("/bookings/batch")
+                        .header("X-Sharer-User-Id", 1L)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("[]"))
+                .andExpect(status().isBadRequest());
+
+        Mockito.verify(bookingService, Mockito.never()).updateBookingStatuses(anyList(), any());
+    }
+}
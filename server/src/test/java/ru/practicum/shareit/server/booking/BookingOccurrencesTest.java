@@ -0,0 +1,52 @@
+package ru.practicum.shareit.server.booking;
+
+import org.junit.jupiter.api.Test;
+import ru.practicum.shareit.model.BookingFrequency;
+import ru.practicum.shareit.model.BookingSeries;
+import ru.practicum.shareit.series.BookingOccurrence;
+import ru.practicum.shareit.series.BookingOccurrences;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BookingOccurrencesTest {
+    private static final LocalDateTime START = LocalDateTime.of(2024, 6, 3, 10, 0);
+
+    private final BookingSeries series = new BookingSeries(1L, START, START.plusHours(2), BookingFrequency.WEEKLY,
+            START.plusWeeks(4).plusDays(1), null, null, null);
+
+    @Test
+    void countsOccurrencesUpToUntil() {
+        assertEquals(5, BookingOccurrences.count(series));
+        assertEquals(START.plusWeeks(4), BookingOccurrences.get(series, 4).getStart());
+        assertEquals(2, BookingOccurrences.countBetween(series, START, START.plusWeeks(2).plusMinutes(1)));
+        assertEquals(1, BookingOccurrences.countBetween(series, START, START.plusWeeks(2)));
+    }
+
+    @Test
+    void listsLatestOccurrencesBeforeBound() {
+        List<BookingOccurrence> exclusive = BookingOccurrences.latest(series, null, START.plusWeeks(3), false, 2);
+        List<BookingOccurrence> inclusive = BookingOccurrences.latest(series, null, START.plusWeeks(3), true, 2);
+
+        assertEquals(List.of(START.plusWeeks(2), START.plusWeeks(1)),
+                exclusive.stream().map(BookingOccurrence::getStart).toList());
+        assertEquals(List.of(START.plusWeeks(3), START.plusWeeks(2)),
+                inclusive.stream().map(BookingOccurrence::getStart).toList());
+        assertTrue(BookingOccurrences.latest(series, START.plusWeeks(4), null, false, 10).isEmpty());
+    }
+
+    @Test
+    void findsOverlapsAndNeighboursByArithmetic() {
+        assertTrue(BookingOccurrences.overlaps(series, START.plusWeeks(1).plusHours(1), START.plusWeeks(1).plusHours(5)));
+        assertFalse(BookingOccurrences.overlaps(series, START.plusWeeks(1).plusHours(2), START.plusWeeks(2)));
+        assertFalse(BookingOccurrences.overlaps(series, START.plusWeeks(5), START.plusWeeks(6)));
+
+        LocalDateTime now = START.plusWeeks(2).plusHours(1);
+        assertEquals(START.plusWeeks(1), BookingOccurrences.lastEnded(series, now).getStart());
+        assertEquals(START.plusWeeks(3), BookingOccurrences.nextStarting(series, now).getStart());
+        assertNull(BookingOccurrences.lastEnded(series, START));
+        assertNull(BookingOccurrences.nextStarting(series, START.plusWeeks(4)));
+    }
+}
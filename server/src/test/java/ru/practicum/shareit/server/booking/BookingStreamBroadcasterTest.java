@@ -0,0 +1,104 @@
+package ru.practicum.shareit.server.booking;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import ru.practicum.shareit.dto.booking.BookingStreamEventDto;
+import ru.practicum.shareit.stream.BookingStreamBroadcaster;
+import ru.practicum.shareit.stream.BookingStreamProperties;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayDeque;
+import java.util.Queue;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BookingStreamBroadcasterTest {
+    private final Queue<Runnable> tasks = new ArrayDeque<>();
+
+    private BookingStreamProperties properties;
+    private SimpleMeterRegistry meterRegistry;
+    private BookingStreamBroadcaster broadcaster;
+
+    @BeforeEach
+    void setUp() {
+        properties = new BookingStreamProperties();
+        properties.setQueueCapacity(4);
+        properties.setMaxDrops(3);
+        meterRegistry = new SimpleMeterRegistry();
+        broadcaster = new BookingStreamBroadcaster(properties, meterRegistry, tasks::add, Runnable::run);
+    }
+
+    @Test
+    void deliversQueuedEventsWithOneSenderTaskPerSubscriber() {
+        broadcaster.subscribe(1L);
+        broadcaster.subscribe(2L);
+
+        broadcaster.publish(1L, event(10L));
+        broadcaster.publish(1L, event(11L));
+        broadcaster.publish(3L, event(12L));
+
+        assertEquals(1, tasks.size());
+        assertEquals(2, broadcaster.queueDepth());
+        assertEquals(2.0, meterRegistry.get("shareit.booking.stream.queue.depth").gauge().value());
+
+        tasks.poll().run();
+        assertEquals(0, broadcaster.queueDepth());
+        assertEquals(2, broadcaster.connectionCount());
+    }
+
+    @Test
+    void disconnectsSubscriberThatKeepsOverflowingItsQueue() {
+        broadcaster.subscribe(1L);
+        broadcaster.subscribe(2L);
+
+        for (long id = 0; id < 4 + 3; id++) {
+            broadcaster.publish(1L, event(id));
+        }
+
+        assertEquals(1, broadcaster.connectionCount());
+        assertEquals(0, broadcaster.queueDepth());
+        assertEquals(3.0, meterRegistry.get("shareit.booking.stream.dropped").counter().count());
+        assertEquals(1.0, meterRegistry.get("shareit.booking.stream.evicted").counter().count());
+        assertEquals(1.0, meterRegistry.get("shareit.booking.stream.connections").gauge().value());
+
+        tasks.forEach(Runnable::run);
+        broadcaster.publish(1L, event(100L));
+        assertEquals(0, broadcaster.queueDepth());
+    }
+
+    @Test
+    void sendsHeartbeatThroughTheSubscriberTask() {
+        broadcaster.subscribe(1L);
+
+        broadcaster.heartbeat();
+        broadcaster.heartbeat();
+        assertEquals(1, tasks.size());
+
+        tasks.poll().run();
+        assertTrue(tasks.isEmpty());
+        assertEquals(1, broadcaster.connectionCount());
+    }
+
+    @Test
+    void disconnectsSubscriberThatDoesNotAcceptEventInTime() {
+        properties.setSendTimeout(Duration.ofMillis(10));
+        broadcaster = new BookingStreamBroadcaster(properties, meterRegistry, tasks::add, task -> { });
+        broadcaster.subscribe(1L);
+
+        broadcaster.publish(1L, event(10L));
+        broadcaster.publish(1L, event(11L));
+        tasks.poll().run();
+
+        assertTrue(tasks.isEmpty());
+        assertEquals(0, broadcaster.connectionCount());
+        assertEquals(0, broadcaster.queueDepth());
+        assertEquals(1.0, meterRegistry.get("shareit.booking.stream.evicted").counter().count());
+    }
+
+    private static BookingStreamEventDto event(Long id) {
+        LocalDateTime start = LocalDateTime.of(2024, 6, 1, 12, 0);
+        return new BookingStreamEventDto(id, 5L, 7L, start, start.plusDays(1));
+    }
+}
@@ -0,0 +1,80 @@
+package ru.practicum.shareit.server.booking;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import ru.practicum.shareit.repository.BookingRepository;
+import ru.practicum.shareit.timeline.BookingInterval;
+import ru.practicum.shareit.timeline.BookingTimeline;
+import ru.practicum.shareit.timeline.BookingTimelineProperties;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.awaitility.Awaitility.await;
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class BookingTimelineTest {
+    private static final LocalDateTime NOW = LocalDateTime.of(2024, 6, 1, 12, 0);
+
+    private BookingRepository bookingRepository;
+    private SimpleMeterRegistry meterRegistry;
+    private BookingTimeline timeline;
+
+    @BeforeEach
+    void setUp() {
+        bookingRepository = mock(BookingRepository.class);
+        when(bookingRepository.findApprovedIntervalsByItemId(1L)).thenReturn(List.of(
+                interval(1L, 1L, 10L, NOW.minusDays(5), NOW.minusDays(4)),
+                interval(2L, 1L, 20L, NOW.minusHours(1), NOW.plusHours(1)),
+                interval(3L, 1L, 10L, NOW.plusDays(2), NOW.plusDays(3))));
+        meterRegistry = new SimpleMeterRegistry();
+        timeline = new BookingTimeline(new BookingTimelineProperties(), bookingRepository, meterRegistry);
+    }
+
+    @Test
+    void answersLastAndNextByPosition() {
+        assertEquals(1L, timeline.last(1L, NOW).getId());
+        assertEquals(3L, timeline.next(1L, NOW).getId());
+        assertEquals(NOW.plusDays(2), timeline.next(1L, NOW).getStart());
+
+        assertEquals(2L, timeline.last(1L, NOW.plusHours(2)).getId());
+        assertNull(timeline.next(1L, NOW.plusDays(7)));
+        assertNull(timeline.last(99L, NOW));
+        verify(bookingRepository, times(1)).findApprovedIntervalsByItemId(1L);
+    }
+
+    @Test
+    void insertsNewIntervalsInOrderAndIgnoresDuplicates() {
+        timeline.last(1L, NOW);
+        timeline.add(interval(4L, 1L, 20L, NOW.plusDays(1), NOW.plusDays(2)));
+        timeline.add(interval(1L, 1L, 10L, NOW.minusDays(5), NOW.minusDays(4)));
+
+        assertEquals(4L, timeline.next(1L, NOW).getId());
+        await().atMost(Duration.ofSeconds(5)).untilAsserted(() -> {
+            assertEquals(4, timeline.intervalCount());
+            assertEquals(4.0, meterRegistry.get("shareit.booking.timeline.intervals").gauge().value());
+        });
+        assertTrue(meterRegistry.get("shareit.booking.timeline.bytes").gauge().value() > 0);
+    }
+
+    @Test
+    void evictsItemsBeyondLimitAndReloadsThem() {
+        BookingTimelineProperties properties = new BookingTimelineProperties();
+        properties.setMaxIntervals(2);
+        BookingTimeline bounded = new BookingTimeline(properties, bookingRepository, new SimpleMeterRegistry());
+
+        assertEquals(1L, bounded.last(1L, NOW).getId());
+        await().atMost(Duration.ofSeconds(5)).untilAsserted(() -> {
+            assertEquals(1L, bounded.last(1L, NOW).getId());
+            verify(bookingRepository, atLeast(2)).findApprovedIntervalsByItemId(1L);
+        });
+    }
+
+    private static BookingInterval interval(Long id, Long itemId, Long bookerId,
+                                            LocalDateTime start, LocalDateTime end) {
+        return new BookingInterval(id, itemId, bookerId, start, end);
+    }
+}
\ No newline at end of file
@@ -0,0 +1,104 @@
+package ru.practicum.shareit.server.booking.service;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.testcontainers.service.connection.ServiceConnection;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+import ru.practicum.shareit.dto.booking.BookingDto;
+import ru.practicum.shareit.dto.item.ItemDto;
+import ru.practicum.shareit.dto.user.UserCreateDto;
+import ru.practicum.shareit.dto.user.UserDto;
+import ru.practicum.shareit.model.BookingStatus;
+import ru.practicum.shareit.repository.BookingRepository;
+import ru.practicum.shareit.service.BookingExpiryService;
+import ru.practicum.shareit.service.BookingService;
+import ru.practicum.shareit.service.ItemService;
+import ru.practicum.shareit.service.UserService;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(properties = "spring.sql.init.schema-locations=file:src/main/resources/schema.sql")
+@Testcontainers(disabledWithoutDocker = true)
+class BookingExpiryPostgresTest {
+    @Container
+    @ServiceConnection
+    static PostgreSQLContainer<?> postgres = new PostgreSQLContainer<>("postgres:16.1");
+
+    @Autowired
+    private BookingExpiryService expiryService;
+
+    @Autowired
+    private BookingService bookingService;
+
+    @Autowired
+    private BookingRepository bookingRepository;
+
+    @Autowired
+    private ItemService itemService;
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Test
+    void expireBatchSkipsBookingsLockedByAnotherWorker() throws Exception {
+        UserDto owner = userService.createUser(new UserCreateDto("owner", "expiry-owner@test.com"));
+        UserDto booker = userService.createUser(new UserCreateDto("booker", "expiry-booker@test.com"));
+        ItemDto item = itemService.createItem(
+                new ItemDto(null, "Мангал", "Складной", true, null, null, null, null, null, null), owner.getId());
+
+        LocalDateTime now = LocalDateTime.now().truncatedTo(ChronoUnit.SECONDS);
+        List<Long> stale = new ArrayList<>();
+        for (int i = 3; i > 0; i--) {
+            stale.add(bookingService.createBooking(new BookingDto(item.getId(), now.minusYears(50).minusDays(i),
+                    now.minusYears(50).minusDays(i).plusHours(1)), booker.getId()).getId());
+        }
+        Long upcoming = bookingService.createBooking(
+                new BookingDto(item.getId(), now.plusDays(1), now.plusDays(2)), booker.getId()).getId();
+
+        CountDownLatch locked = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        CompletableFuture<List<Long>> otherWorker = CompletableFuture.supplyAsync(() ->
+                transactionTemplate.execute(status -> {
+                    List<Long> ids = bookingRepository.lockStaleWaitingIds(now, 1);
+                    locked.countDown();
+                    try {
+                        release.await(30, TimeUnit.SECONDS);
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                    return ids;
+                }));
+        assertTrue(locked.await(30, TimeUnit.SECONDS));
+
+        while (expiryService.expireBatch(now) == BookingExpiryService.BATCH_SIZE) {
+            // обрабатываются все пакеты, кроме заблокированных строк
+        }
+        Long lockedId = stale.getFirst();
+        assertEquals(BookingStatus.WAITING, bookingRepository.findById(lockedId).orElseThrow().getStatus());
+        for (Long id : stale.subList(1, stale.size())) {
+            assertEquals(BookingStatus.EXPIRED, bookingRepository.findById(id).orElseThrow().getStatus());
+        }
+
+        release.countDown();
+        assertEquals(List.of(lockedId), otherWorker.get(30, TimeUnit.SECONDS));
+        expiryService.expireBatch(now);
+
+        assertEquals(BookingStatus.EXPIRED, bookingRepository.findById(lockedId).orElseThrow().getStatus());
+        assertEquals(BookingStatus.WAITING, bookingRepository.findById(upcoming).orElseThrow().getStatus());
+    }
+}
@@ -0,0 +1,132 @@
+package ru.practicum.shareit.server.booking.service;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.testcontainers.service.connection.ServiceConnection;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.test.web.servlet.MockMvc;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+import ru.practicum.shareit.dto.booking.BookingDto;
+import ru.practicum.shareit.dto.booking.BookingSeriesDto;
+import ru.practicum.shareit.dto.item.ItemDto;
+import ru.practicum.shareit.dto.user.UserCreateDto;
+import ru.practicum.shareit.dto.user.UserDto;
+import ru.practicum.shareit.model.Booking;
+import ru.practicum.shareit.model.BookingFrequency;
+import ru.practicum.shareit.service.BookingSeriesService;
+import ru.practicum.shareit.service.BookingService;
+import ru.practicum.shareit.service.ItemService;
+import ru.practicum.shareit.service.UserService;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.patch;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(properties = "spring.sql.init.schema-locations=file:src/main/resources/schema.sql")
+@AutoConfigureMockMvc
+@Testcontainers(disabledWithoutDocker = true)
+class BookingOverlapPostgresTest {
+    private static final int THREADS = 16;
+
+    @Container
+    @ServiceConnection
+    static PostgreSQLContainer<?> postgres = new PostgreSQLContainer<>("postgres:16.1");
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private BookingService bookingService;
+
+    @Autowired
+    private BookingSeriesService seriesService;
+
+    @Autowired
+    private ItemService itemService;
+
+    @Autowired
+    private UserService userService;
+
+    @Test
+    void concurrentApprovalsOfOverlappingBookingsLetExactlyOneThrough() throws Exception {
+        UserDto owner = userService.createUser(new UserCreateDto("owner", "overlap-owner@test.com"));
+        ItemDto item = itemService.createItem(
+                new ItemDto(null, "Палатка", "Четырёхместная", true, null, null, null, null, null, null), owner.getId());
+
+        LocalDateTime start = LocalDateTime.now().plusDays(1).truncatedTo(ChronoUnit.MINUTES);
+        List<Long> bookingIds = new ArrayList<>();
+        for (int i = 0; i < THREADS; i++) {
+            UserDto booker = userService.createUser(new UserCreateDto("booker", "overlap-booker" + i + "@test.com"));
+            LocalDateTime bookingStart = start.plusHours(i % 3);
+            bookingIds.add(bookingService.createBooking(
+                    new BookingDto(item.getId(), bookingStart, bookingStart.plusHours(4)), booker.getId()).getId());
+        }
+
+        ConcurrentCalls.Result result = ConcurrentCalls.race(THREADS, DataIntegrityViolationException.class,
+                i -> bookingService.updateBookingStatus(bookingIds.get(i), true, owner.getId()));
+
+        assertEquals(1, result.succeeded());
+        assertEquals(THREADS - 1, result.rejected());
+    }
+
+    @Test
+    void concurrentApprovalsOfSeriesAndOverlappingBookingLetExactlyOneThrough() throws Exception {
+        UserDto owner = userService.createUser(new UserCreateDto("owner", "series-owner@test.com"));
+        UserDto booker = userService.createUser(new UserCreateDto("booker", "series-booker@test.com"));
+        ItemDto item = itemService.createItem(
+                new ItemDto(null, "Лодка", "Надувная", true, null, null, null, null, null, null), owner.getId());
+
+        LocalDateTime start = LocalDateTime.now().plusDays(1).truncatedTo(ChronoUnit.MINUTES);
+        Long seriesId = seriesService.createSeries(new BookingSeriesDto(item.getId(), start, start.plusHours(2),
+                BookingFrequency.DAILY, start.plusDays(6)), booker.getId()).getId();
+        Long bookingId = bookingService.createBooking(
+                new BookingDto(item.getId(), start.plusDays(3).plusHours(1), start.plusDays(3).plusHours(3)),
+                booker.getId()).getId();
+
+        ConcurrentCalls.Result result = ConcurrentCalls.race(2, RuntimeException.class, i -> {
+            if (i == 0) {
+                seriesService.updateSeriesStatus(seriesId, true, owner.getId());
+            } else {
+                bookingService.updateBookingStatus(bookingId, true, owner.getId());
+            }
+        });
+
+        assertEquals(1, result.succeeded());
+        assertEquals(1, result.rejected());
+    }
+
+    @Test
+    void overlappingApprovalIsReportedAsConflict() throws Exception {
+        UserDto owner = userService.createUser(new UserCreateDto("owner", "conflict-owner@test.com"));
+        UserDto booker = userService.createUser(new UserCreateDto("booker", "conflict-booker@test.com"));
+        ItemDto item = itemService.createItem(
+                new ItemDto(null, "Мангал", "Складной", true, null, null, null, null, null, null), owner.getId());
+
+        LocalDateTime start = LocalDateTime.now().plusDays(1).truncatedTo(ChronoUnit.MINUTES);
+        Long first = bookingService.createBooking(
+                new BookingDto(item.getId(), start, start.plusHours(4)), booker.getId()).getId();
+        Long second = bookingService.createBooking(
+                new BookingDto(item.getId(), start.plusHours(2), start.plusHours(6)), booker.getId()).getId();
+        bookingService.updateBookingStatus(first, true, owner.getId());
+
+        DataIntegrityViolationException violation = assertThrows(DataIntegrityViolationException.class,
+                () -> bookingService.updateBookingStatus(second, true, owner.getId()));
+        assertTrue(violation.getMessage().contains(Booking.OVERLAP_CONSTRAINT));
+
+        mockMvc.perform(patch("/bookings/{bookingId}", second)
+                        .param("approved", "true")
+                        .header("X-Sharer-User-Id", owner.getId()))
+                .andExpect(status().isConflict())
+                .andExpect(jsonPath("$.error").value("Item is already booked for these dates"));
+    }
+}
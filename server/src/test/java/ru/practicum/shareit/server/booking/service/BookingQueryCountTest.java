@@ -0,0 +1,95 @@
+package ru.practicum.shareit.server.booking.service;
+
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import ru.practicum.shareit.dto.Cursor;
+import ru.practicum.shareit.dto.booking.BookingDto;
+import ru.practicum.shareit.dto.booking.BookingResponseDto;
+import ru.practicum.shareit.dto.item.ItemDto;
+import ru.practicum.shareit.dto.user.UserCreateDto;
+import ru.practicum.shareit.dto.user.UserDto;
+import ru.practicum.shareit.service.BookingService;
+import ru.practicum.shareit.service.ItemService;
+import ru.practicum.shareit.service.UserService;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@ActiveProfiles("test")
+class BookingQueryCountTest {
+    private static UserDto owner;
+    private static UserDto booker;
+
+    @Autowired
+    private BookingService bookingService;
+
+    @Autowired
+    private ItemService itemService;
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @BeforeEach
+    void setUp() {
+        if (owner != null) {
+            return;
+        }
+        owner = userService.createUser(new UserCreateDto("owner", "statements-owner@test.com"));
+        booker = userService.createUser(new UserCreateDto("booker", "statements-booker@test.com"));
+
+        LocalDateTime now = LocalDateTime.now().truncatedTo(ChronoUnit.SECONDS);
+        for (int i = 0; i < 4; i++) {
+            ItemDto item = itemService.createItem(
+                    new ItemDto(null, "Вещь " + i, "Описание " + i, true, null, null, null, null, null, null), owner.getId());
+            create(item, now.minusDays(3), now.minusDays(2), true);
+            create(item, now.minusHours(1), now.plusHours(1), true);
+            create(item, now.plusDays(1), now.plusDays(2), false);
+            create(item, now.plusDays(3), now.plusDays(4), null);
+        }
+    }
+
+    @ParameterizedTest
+    @CsvSource({
+            "booker, ALL", "booker, CURRENT", "booker, PAST", "booker, FUTURE", "booker, WAITING", "booker, REJECTED",
+            "owner, ALL", "owner, CURRENT", "owner, PAST", "owner, FUTURE", "owner, WAITING", "owner, REJECTED"
+    })
+    void bookingListIsLoadedWithOneStatementPerPage(String role, String state) {
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+
+        statistics.clear();
+        List<BookingResponseDto> page = "owner".equals(role)
+                ? bookingService.getOwnerBookings(owner.getId(), state, 0, 20)
+                : bookingService.getUserBookings(booker.getId(), state, 0, 20);
+        assertFalse(page.isEmpty());
+        assertEquals(2, statistics.getPrepareStatementCount(), "user lookup + one page query");
+
+        String cursor = new Cursor(LocalDateTime.now().plusYears(1), Long.MAX_VALUE).encode();
+        statistics.clear();
+        page = "owner".equals(role)
+                ? bookingService.getOwnerBookingsPage(owner.getId(), state, cursor, 20).getContent()
+                : bookingService.getUserBookingsPage(booker.getId(), state, cursor, 20).getContent();
+        assertFalse(page.isEmpty());
+        assertEquals(2, statistics.getPrepareStatementCount(), "user lookup + one page query");
+    }
+
+    private void create(ItemDto item, LocalDateTime start, LocalDateTime end, Boolean approved) {
+        BookingResponseDto booking = bookingService.createBooking(new BookingDto(item.getId(), start, end), booker.getId());
+        if (approved != null) {
+            bookingService.updateBookingStatus(booking.getId(), approved, owner.getId());
+        }
+    }
+}
@@ -0,0 +1,412 @@
+package ru.practicum.shareit.server.booking.service;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import ru.practicum.shareit.dto.PageDto;
+import ru.practicum.shareit.dto.booking.BookingDecisionDto;
+import ru.practicum.shareit.dto.booking.BookingDecisionResultDto;
+import ru.practicum.shareit.dto.booking.BookingDto;
+import ru.practicum.shareit.dto.booking.BookingResponseDto;
+import ru.practicum.shareit.dto.booking.BookingSeriesDto;
+import ru.practicum.shareit.dto.booking.BookingSeriesResponseDto;
+import ru.practicum.shareit.dto.booking.BookingSummaryDto;
+import ru.practicum.shareit.dto.item.ItemDto;
+import ru.practicum.shareit.dto.item.ItemWithBookingsDto;
+import ru.practicum.shareit.dto.user.UserCreateDto;
+import ru.practicum.shareit.dto.user.UserDto;
+import ru.practicum.shareit.exception.BadRequestException;
+import ru.practicum.shareit.export.ExportFormat;
+import ru.practicum.shareit.model.BookingFrequency;
+import ru.practicum.shareit.model.BookingStatus;
+import ru.practicum.shareit.service.BookingSeriesService;
+import ru.practicum.shareit.service.BookingService;
+import ru.practicum.shareit.service.ExportService;
+import ru.practicum.shareit.service.ItemService;
+import ru.practicum.shareit.service.UserService;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.NoSuchElementException;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class BookingServiceImplIntegrationTest {
+
+    @Autowired
+    private BookingService bookingService;
+
+    @Autowired
+    private BookingSeriesService seriesService;
+
+    @Autowired
+    private ItemService itemService;
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private ExportService exportService;
+
+    @Test
+    void getUserBookingsPageWalksAllBookingsWithoutGapsOrDuplicates() {
+        UserDto owner = userService.createUser(new UserCreateDto("owner", "keyset-owner@test.com"));
+        UserDto booker = userService.createUser(new UserCreateDto("booker", "keyset-booker@test.com"));
+        ItemDto item = itemService.createItem(
+                new ItemDto(null, "Дрель", "Аккумуляторная", true, null, null, null, null, null, null), owner.getId());
+
+        LocalDateTime start = LocalDateTime.now().plusDays(1).truncatedTo(ChronoUnit.SECONDS);
+        List<Long> expected = new ArrayList<>();
+        for (int i = 0; i < 7; i++) {
+            LocalDateTime bookingStart = start.plusHours(i / 2);
+            BookingResponseDto booking = bookingService.createBooking(
+                    new BookingDto(item.getId(), bookingStart, bookingStart.plusHours(1)), booker.getId());
+            expected.add(booking.getId());
+        }
+
+        List<Long> actual = new ArrayList<>();
+        PageDto<BookingResponseDto> page = bookingService.getUserBookingsPage(booker.getId(), "ALL", null, 3);
+        page.getContent().forEach(b -> actual.add(b.getId()));
+        while (page.getNextCursor() != null) {
+            page = bookingService.getUserBookingsPage(booker.getId(), "ALL", page.getNextCursor(), 3);
+            page.getContent().forEach(b -> actual.add(b.getId()));
+        }
+
+        assertEquals(expected.size(), actual.size());
+        assertTrue(actual.containsAll(expected));
+        assertEquals(bookingService.getUserBookings(booker.getId(), "ALL", 0, 10).stream()
+                .map(BookingResponseDto::getId)
+                .toList(), actual);
+
+        PageDto<BookingResponseDto> ownerPage = bookingService.getOwnerBookingsPage(owner.getId(), "WAITING", null, 10);
+        assertEquals(expected.size(), ownerPage.getContent().size());
+        assertNull(ownerPage.getNextCursor());
+    }
+
+    @Test
+    void createBookingRejectsOverlapWithApprovedBooking() {
+        UserDto owner = userService.createUser(new UserCreateDto("owner", "overlap-create-owner@test.com"));
+        UserDto booker = userService.createUser(new UserCreateDto("booker", "overlap-create-booker@test.com"));
+        ItemDto item = itemService.createItem(
+                new ItemDto(null, "Палатка", "Двухместная", true, null, null, null, null, null, null), owner.getId());
+
+        LocalDateTime start = LocalDateTime.now().plusDays(3).truncatedTo(ChronoUnit.SECONDS);
+        BookingResponseDto booking = bookingService.createBooking(
+                new BookingDto(item.getId(), start, start.plusDays(2)), booker.getId());
+        bookingService.updateBookingStatus(booking.getId(), true, owner.getId());
+
+        assertThrows(IllegalArgumentException.class, () -> bookingService.createBooking(
+                new BookingDto(item.getId(), start.plusDays(1), start.plusDays(4)), booker.getId()));
+        assertNotNull(bookingService.createBooking(
+                new BookingDto(item.getId(), start.plusDays(2), start.plusDays(3)), booker.getId()).getId());
+    }
+
+    @Test
+    void bookingSeriesIsExpandedIntoPagedListsAndItemBookings() {
+        UserDto owner = userService.createUser(new UserCreateDto("owner", "series-owner@test.com"));
+        UserDto booker = userService.createUser(new UserCreateDto("booker", "series-booker@test.com"));
+        ItemDto item = itemService.createItem(
+                new ItemDto(null, "Байдарка", "Двухместная", true, null, null, null, null, null, null), owner.getId());
+
+        LocalDateTime base = LocalDateTime.now().plusHours(1).truncatedTo(ChronoUnit.SECONDS);
+        BookingSeriesResponseDto series = seriesService.createSeries(new BookingSeriesDto(item.getId(),
+                base.minusWeeks(2), base.minusWeeks(2).plusHours(2), BookingFrequency.WEEKLY, base.plusWeeks(3)),
+                booker.getId());
+        assertEquals(6, series.getOccurrences());
+        seriesService.updateSeriesStatus(series.getId(), true, owner.getId());
+        BookingResponseDto booking = bookingService.createBooking(
+                new BookingDto(item.getId(), base.plusDays(3), base.plusDays(4)), booker.getId());
+
+        List<BookingResponseDto> all = bookingService.getUserBookings(booker.getId(), "ALL", 0, 10);
+        assertEquals(7, all.size());
+        assertEquals(6, all.stream().filter(b -> series.getId().equals(b.getSeriesId())).count());
+        assertEquals(base.plusWeeks(3), all.getFirst().getStart());
+        assertEquals(all.subList(2, 4), bookingService.getUserBookings(booker.getId(), "ALL", 2, 2));
+        assertEquals(all, bookingService.getOwnerBookings(owner.getId(), "ALL", 0, 10));
+        assertEquals(5, bookingService.getUserBookings(booker.getId(), "FUTURE", 0, 10).size());
+        assertEquals(2, bookingService.getUserBookings(booker.getId(), "PAST", 0, 10).size());
+        assertEquals(new BookingSummaryDto(7, 0, 2, 5, 1, 0), bookingService.getUserBookingsSummary(booker.getId()));
+
+        List<BookingResponseDto> walked = new ArrayList<>();
+        PageDto<BookingResponseDto> page = bookingService.getUserBookingsPage(booker.getId(), "ALL", null, 3);
+        walked.addAll(page.getContent());
+        while (page.getNextCursor() != null) {
+            page = bookingService.getUserBookingsPage(booker.getId(), "ALL", page.getNextCursor(), 3);
+            walked.addAll(page.getContent());
+        }
+        assertEquals(all, walked);
+
+        ItemWithBookingsDto withBookings = itemService.getItemWithBookings(item.getId(), owner.getId());
+        assertEquals(series.getId(), withBookings.getLastBooking().getSeriesId());
+        assertEquals(base.minusWeeks(1), withBookings.getLastBooking().getStart());
+        assertEquals(base, withBookings.getNextBooking().getStart());
+
+        assertThrows(IllegalArgumentException.class, () -> bookingService.createBooking(
+                new BookingDto(item.getId(), base.plusWeeks(1).plusHours(1), base.plusWeeks(1).plusHours(3)),
+                booker.getId()));
+        assertNotNull(booking.getId());
+    }
+
+    @Test
+    void createBookingsInsertsWholeCartOrNothing() {
+        UserDto owner = userService.createUser(new UserCreateDto("owner", "cart-owner@test.com"));
+        UserDto booker = userService.createUser(new UserCreateDto("booker", "cart-booker@test.com"));
+        ItemDto tent = itemService.createItem(
+                new ItemDto(null, "Палатка", "Трёхместная", true, null, null, null, null, null, null), owner.getId());
+        ItemDto stove = itemService.createItem(
+                new ItemDto(null, "Горелка", "Газовая", true, null, null, null, null, null, null), owner.getId());
+        ItemDto lamp = itemService.createItem(
+                new ItemDto(null, "Фонарь", "Кемпинговый", true, null, null, null, null, null, null), owner.getId());
+
+        LocalDateTime start = LocalDateTime.now().plusDays(5).truncatedTo(ChronoUnit.SECONDS);
+        BookingResponseDto approved = bookingService.createBooking(
+                new BookingDto(lamp.getId(), start, start.plusDays(1)), booker.getId());
+        bookingService.updateBookingStatus(approved.getId(), true, owner.getId());
+
+        assertThrows(IllegalArgumentException.class, () -> bookingService.createBookings(List.of(
+                new BookingDto(tent.getId(), start, start.plusDays(2)),
+                new BookingDto(lamp.getId(), start, start.plusDays(2))), booker.getId()));
+        assertThrows(IllegalArgumentException.class, () -> bookingService.createBookings(List.of(
+                new BookingDto(tent.getId(), start.plusDays(3), start.plusDays(5)),
+                new BookingDto(tent.getId(), start.plusDays(4), start.plusDays(6))), booker.getId()));
+        assertEquals(List.of(approved.getId()), bookingService.getUserBookings(booker.getId(), "ALL", 0, 10).stream()
+                .map(BookingResponseDto::getId)
+                .toList());
+
+        List<BookingResponseDto> created = bookingService.createBookings(List.of(
+                new BookingDto(tent.getId(), start.plusDays(1), start.plusDays(3)),
+                new BookingDto(stove.getId(), start.plusDays(1), start.plusDays(3)),
+                new BookingDto(lamp.getId(), start.plusDays(1), start.plusDays(3))), booker.getId());
+
+        assertEquals(List.of(tent.getId(), stove.getId(), lamp.getId()), created.stream()
+                .map(booking -> booking.getItem().getId())
+                .toList());
+        for (BookingResponseDto booking : created) {
+            assertEquals(BookingStatus.WAITING, booking.getStatus());
+            assertEquals(booking.getItem().getId(),
+                    bookingService.getBookingById(booking.getId(), booker.getId()).getItem().getId());
+        }
+    }
+
+    @Test
+    void offsetPagesOverBookingsAndSeriesMatchTheFullList() {
+        UserDto owner = userService.createUser(new UserCreateDto("owner", "offset-owner@test.com"));
+        UserDto booker = userService.createUser(new UserCreateDto("booker", "offset-booker@test.com"));
+        ItemDto item = itemService.createItem(
+                new ItemDto(null, "Велосипед", "Горный", true, null, null, null, null, null, null), owner.getId());
+
+        LocalDateTime base = LocalDateTime.now().plusDays(1).truncatedTo(ChronoUnit.SECONDS);
+        seriesService.createSeries(new BookingSeriesDto(item.getId(), base, base.plusHours(1),
+                BookingFrequency.WEEKLY, base.plusWeeks(2)), booker.getId());
+        for (int i = 0; i < 8; i++) {
+            LocalDateTime start = base.plusDays(2L * i + 1);
+            bookingService.createBooking(new BookingDto(item.getId(), start, start.plusHours(2)), booker.getId());
+        }
+
+        List<BookingResponseDto> all = bookingService.getUserBookings(booker.getId(), "ALL", 0, 20);
+        assertEquals(11, all.size());
+        assertEquals(all, bookingService.getOwnerBookings(owner.getId(), "ALL", 0, 20));
+        for (int size : new int[]{1, 2, 4}) {
+            for (int from = 0; from <= all.size(); from++) {
+                int offset = from / size * size;
+                List<BookingResponseDto> expected = all.subList(offset, Math.min(all.size(), offset + size));
+                assertEquals(expected, bookingService.getUserBookings(booker.getId(), "ALL", from, size));
+                assertEquals(expected, bookingService.getOwnerBookings(owner.getId(), "ALL", from, size));
+            }
+        }
+    }
+
+    @Test
+    void summariesCountEveryStateInOneCall() {
+        UserDto owner = userService.createUser(new UserCreateDto("owner", "summary-owner@test.com"));
+        UserDto booker = userService.createUser(new UserCreateDto("booker", "summary-booker@test.com"));
+        ItemDto item = itemService.createItem(
+                new ItemDto(null, "Проектор", "Full HD", true, null, null, null, null, null, null), owner.getId());
+
+        LocalDateTime now = LocalDateTime.now().truncatedTo(ChronoUnit.SECONDS);
+        bookingService.createBooking(new BookingDto(item.getId(), now.minusDays(3), now.minusDays(2)), booker.getId());
+        bookingService.createBooking(new BookingDto(item.getId(), now.minusHours(1), now.plusHours(1)), booker.getId());
+        BookingResponseDto rejected = bookingService.createBooking(
+                new BookingDto(item.getId(), now.plusDays(1), now.plusDays(2)), booker.getId());
+        bookingService.updateBookingStatus(rejected.getId(), false, owner.getId());
+        bookingService.createBooking(new BookingDto(item.getId(), now.plusDays(3), now.plusDays(4)), booker.getId());
+
+        BookingSummaryDto expected = new BookingSummaryDto(4, 1, 1, 2, 3, 1);
+        assertEquals(expected, bookingService.getUserBookingsSummary(booker.getId()));
+        assertEquals(expected, bookingService.getOwnerBookingsSummary(owner.getId()));
+    }
+
+    @Test
+    void concurrentDecisionsOnOneBookingLetExactlyOneThrough() throws Exception {
+        UserDto owner = userService.createUser(new UserCreateDto("owner", "decide-owner@test.com"));
+        UserDto booker = userService.createUser(new UserCreateDto("booker", "decide-booker@test.com"));
+        ItemDto item = itemService.createItem(
+                new ItemDto(null, "Лодка", "Надувная", true, null, null, null, null, null, null), owner.getId());
+        LocalDateTime start = LocalDateTime.now().plusDays(1).truncatedTo(ChronoUnit.SECONDS);
+        Long bookingId = bookingService.createBooking(
+                new BookingDto(item.getId(), start, start.plusDays(1)), booker.getId()).getId();
+
+        int threads = 8;
+        ConcurrentCalls.Result result = ConcurrentCalls.race(threads, BadRequestException.class,
+                i -> bookingService.updateBookingStatus(bookingId, i % 2 == 0, owner.getId()));
+
+        assertEquals(1, result.succeeded());
+        assertEquals(threads - 1, result.rejected());
+        assertThrows(SecurityException.class,
+                () -> bookingService.updateBookingStatus(bookingId, true, booker.getId()));
+        assertThrows(NoSuchElementException.class,
+                () -> bookingService.updateBookingStatus(Long.MAX_VALUE, true, owner.getId()));
+    }
+
+    @Test
+    void concurrentApprovalsOnOneItemAllSucceedAndLeaveAnUpToDatePointer() throws Exception {
+        UserDto owner = userService.createUser(new UserCreateDto("owner", "pointer-race-owner@test.com"));
+        UserDto booker = userService.createUser(new UserCreateDto("booker", "pointer-race-booker@test.com"));
+        ItemDto item = itemService.createItem(
+                new ItemDto(null, "Байдарка", "Двухместная", true, null, null, null, null, null, null), owner.getId());
+        LocalDateTime start = LocalDateTime.now().plusDays(1).truncatedTo(ChronoUnit.SECONDS);
+
+        int threads = 8;
+        List<Long> bookingIds = new ArrayList<>();
+        for (int i = 0; i < threads; i++) {
+            bookingIds.add(bookingService.createBooking(new BookingDto(item.getId(),
+                    start.plusDays(2L * i), start.plusDays(2L * i + 1)), booker.getId()).getId());
+        }
+
+        ConcurrentCalls.Result result = ConcurrentCalls.race(threads, DataIntegrityViolationException.class,
+                i -> bookingService.updateBookingStatus(bookingIds.get(i), true, owner.getId()));
+
+        assertEquals(threads, result.succeeded());
+        ItemWithBookingsDto details = itemService.getItemsWithBookingsByOwner(owner.getId(), 0, 10).getFirst();
+        assertEquals(bookingIds.getFirst(), details.getNextBooking().getId());
+    }
+
+    @Test
+    void updateBookingStatusesReportsResultPerBooking() {
+        UserDto owner = userService.createUser(new UserCreateDto("owner", "batch-owner@test.com"));
+        UserDto stranger = userService.createUser(new UserCreateDto("stranger", "batch-stranger@test.com"));
+        UserDto booker = userService.createUser(new UserCreateDto("booker", "batch-booker@test.com"));
+        ItemDto item = itemService.createItem(
+                new ItemDto(null, "Велосипед", "Горный", true, null, null, null, null, null, null), owner.getId());
+        ItemDto foreignItem = itemService.createItem(
+                new ItemDto(null, "Самокат", "Электрический", true, null, null, null, null, null, null), stranger.getId());
+
+        LocalDateTime start = LocalDateTime.now().plusDays(1).truncatedTo(ChronoUnit.SECONDS);
+        Long approved = bookingService.createBooking(
+                new BookingDto(item.getId(), start, start.plusDays(1)), booker.getId()).getId();
+        Long rejected = bookingService.createBooking(
+                new BookingDto(item.getId(), start.plusDays(2), start.plusDays(3)), booker.getId()).getId();
+        Long foreign = bookingService.createBooking(
+                new BookingDto(foreignItem.getId(), start, start.plusDays(1)), booker.getId()).getId();
+
+        List<BookingDecisionResultDto> results = bookingService.updateBookingStatuses(List.of(
+                new BookingDecisionDto(approved, true),
+                new BookingDecisionDto(rejected, false),
+                new BookingDecisionDto(foreign, true),
+                new BookingDecisionDto(Long.MAX_VALUE, true),
+                new BookingDecisionDto(approved, false)
+        ), owner.getId());
+
+        assertEquals(List.of(approved, rejected, foreign, Long.MAX_VALUE, approved),
+                results.stream().map(BookingDecisionResultDto::getBookingId).toList());
+        assertEquals(BookingStatus.APPROVED, results.get(0).getStatus());
+        assertNull(results.get(0).getError());
+        assertEquals(BookingStatus.REJECTED, results.get(1).getStatus());
+        assertNotNull(results.get(2).getError());
+        assertNotNull(results.get(3).getError());
+        assertNotNull(results.get(4).getError());
+
+        assertEquals(BookingStatus.APPROVED, bookingService.getBookingById(approved, owner.getId()).getStatus());
+        assertEquals(BookingStatus.REJECTED, bookingService.getBookingById(rejected, owner.getId()).getStatus());
+        assertEquals(BookingStatus.WAITING, bookingService.getBookingById(foreign, stranger.getId()).getStatus());
+    }
+
+    @Test
+    void updateBookingStatusesRejectsOverlapsWithinBatchAndWithApprovedBookings() {
+        UserDto owner = userService.createUser(new UserCreateDto("owner", "batch-overlap-owner@test.com"));
+        UserDto booker = userService.createUser(new UserCreateDto("booker", "batch-overlap-booker@test.com"));
+        ItemDto item = itemService.createItem(
+                new ItemDto(null, "Байдарка", "Двухместная", true, null, null, null, null, null, null), owner.getId());
+
+        LocalDateTime start = LocalDateTime.now().plusDays(1).truncatedTo(ChronoUnit.SECONDS);
+        Long existing = bookingService.createBooking(
+                new BookingDto(item.getId(), start, start.plusDays(1)), booker.getId()).getId();
+        Long clashesWithExisting = bookingService.createBooking(
+                new BookingDto(item.getId(), start.plusHours(12), start.plusDays(2)), booker.getId()).getId();
+        Long first = bookingService.createBooking(
+                new BookingDto(item.getId(), start.plusDays(3), start.plusDays(4)), booker.getId()).getId();
+        Long clashesWithFirst = bookingService.createBooking(
+                new BookingDto(item.getId(), start.plusDays(3).plusHours(12), start.plusDays(5)), booker.getId()).getId();
+        bookingService.updateBookingStatus(existing, true, owner.getId());
+
+        List<BookingDecisionResultDto> results = bookingService.updateBookingStatuses(List.of(
+                new BookingDecisionDto(clashesWithExisting, true),
+                new BookingDecisionDto(first, true),
+                new BookingDecisionDto(clashesWithFirst, true)
+        ), owner.getId());
+
+        assertNotNull(results.get(0).getError());
+        assertEquals(BookingStatus.APPROVED, results.get(1).getStatus());
+        assertNotNull(results.get(2).getError());
+        assertEquals(BookingStatus.WAITING,
+                bookingService.getBookingById(clashesWithExisting, owner.getId()).getStatus());
+        assertEquals(BookingStatus.WAITING, bookingService.getBookingById(clashesWithFirst, owner.getId()).getStatus());
+    }
+
+    @Test
+    void ownerExportsStreamBookingsAndSeriesAsNdjsonAndCsv() throws IOException {
+        UserDto owner = userService.createUser(new UserCreateDto("owner", "export-owner@test.com"));
+        UserDto booker = userService.createUser(new UserCreateDto("booker", "export-booker@test.com"));
+        ItemDto item = itemService.createItem(
+                new ItemDto(null, "Палатка, 2 места", "С \"юбкой\"", true, null, null, null, null, null, null), owner.getId());
+
+        LocalDateTime base = LocalDateTime.now().plusDays(1).truncatedTo(ChronoUnit.SECONDS);
+        BookingResponseDto first = bookingService.createBooking(
+                new BookingDto(item.getId(), base.plusDays(1), base.plusDays(2)), booker.getId());
+        bookingService.createBooking(new BookingDto(item.getId(), base.plusDays(3), base.plusDays(4)), booker.getId());
+        BookingSeriesResponseDto series = seriesService.createSeries(new BookingSeriesDto(item.getId(),
+                base, base.plusHours(2), BookingFrequency.WEEKLY, base.plusWeeks(2)), booker.getId());
+
+        List<String> ndjson = export(exportService.exportOwnerBookings(owner.getId(), ExportFormat.NDJSON));
+        assertEquals(5, ndjson.size());
+        assertEquals(1, ndjson.stream()
+                .filter(line -> line.startsWith("{\"id\":" + first.getId() + ",")).count());
+        assertEquals(3, ndjson.stream()
+                .filter(line -> line.contains("\"seriesId\":" + series.getId() + ",")).count());
+
+        List<String> csv = export(exportService.exportOwnerBookings(owner.getId(), ExportFormat.CSV));
+        assertEquals("id,seriesId,itemId,itemName,bookerId,start,end,status", csv.getFirst());
+        assertEquals(first.getId() + ",," + item.getId() + ",\"Палатка, 2 места\"," + booker.getId() + ","
+                + base.plusDays(1) + "," + base.plusDays(2) + ",WAITING", csv.stream()
+                .filter(line -> line.startsWith(first.getId() + ",")).findFirst().orElseThrow());
+        assertEquals(6, csv.size());
+
+        assertThrows(NoSuchElementException.class,
+                () -> exportService.exportOwnerBookings(Long.MAX_VALUE, ExportFormat.NDJSON));
+        assertThrows(BadRequestException.class, () -> ExportFormat.from("xml"));
+    }
+
+    private static List<String> export(StreamingResponseBody body) throws IOException {
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        body.writeTo(output);
+        return output.toString(StandardCharsets.UTF_8).lines().toList();
+    }
+
+    @Test
+    void getUserBookingsPageRejectsMalformedCursor() {
+        UserDto booker = userService.createUser(new UserCreateDto("booker", "keyset-cursor@test.com"));
+
+        assertThrows(BadRequestException.class,
+                () -> bookingService.getUserBookingsPage(booker.getId(), "ALL", "not-a-cursor", 10));
+    }
+}
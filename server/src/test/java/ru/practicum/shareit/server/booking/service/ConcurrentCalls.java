@@ -0,0 +1,57 @@
+package ru.practicum.shareit.server.booking.service;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.IntConsumer;
+
+/**
+ * Запускает одно действие из нескольких потоков одновременно и считает успешные вызовы
+ * и вызовы, завершившиеся ожидаемым исключением. Остальные исключения пробрасываются.
+ */
+final class ConcurrentCalls {
+
+    private ConcurrentCalls() {
+    }
+
+    static Result race(int threads, Class<? extends Exception> expected, IntConsumer action) throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        CountDownLatch ready = new CountDownLatch(1);
+        AtomicInteger succeeded = new AtomicInteger();
+        AtomicInteger rejected = new AtomicInteger();
+        List<Future<?>> futures = new ArrayList<>();
+        try {
+            for (int i = 0; i < threads; i++) {
+                int index = i;
+                futures.add(executor.submit(() -> {
+                    ready.await();
+                    try {
+                        action.accept(index);
+                        succeeded.incrementAndGet();
+                    } catch (Exception e) {
+                        if (!expected.isInstance(e)) {
+                            throw e;
+                        }
+                        rejected.incrementAndGet();
+                    }
+                    return null;
+                }));
+            }
+            ready.countDown();
+            for (Future<?> future : futures) {
+                future.get(30, TimeUnit.SECONDS);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+        return new Result(succeeded.get(), rejected.get());
+    }
+
+    record Result(int succeeded, int rejected) {
+    }
+}
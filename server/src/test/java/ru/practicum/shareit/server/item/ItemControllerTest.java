@@ -0,0 +1,81 @@
+package ru.practicum.shareit.server.item;
+
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import ru.practicum.shareit.controller.ExportResponses;
+import ru.practicum.shareit.controller.ItemController;
+import ru.practicum.shareit.dto.item.ItemDto;
+import ru.practicum.shareit.export.ExportFormat;
+import ru.practicum.shareit.service.ExportService;
+import ru.practicum.shareit.service.ItemAvailabilityService;
+import ru.practicum.shareit.service.ItemService;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@WebMvcTest(controllers = ItemController.class)
+class ItemControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @MockBean
+    private ItemService itemService;
+
+    @MockBean
+    private ItemAvailabilityService availabilityService;
+
+    @MockBean
+    private ExportService exportService;
+
+    @Test
+    void searchItems() throws Exception {
+        ItemDto itemDto = new ItemDto(1L, "Дрель", "Простая дрель", true, 2L, null, List.of(), 0L, null, null);
+
+        Mockito.when(itemService.searchItems("дрель", 0, 10)).thenReturn(List.of(itemDto));
+
+        mockMvc.perform(get("/items/search").param("text", "дрель"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].id").value(1L));
+    }
+
+    @Test
+    void searchItemsRejectsInvalidPaging() throws Exception {
+        mockMvc.perform(get("/items/search").param("text", "дрель").param("size", "0"))
+                .andExpect(status().isBadRequest());
+        mockMvc.perform(get("/items/search").param("text", "дрель").param("from", "-1"))
+                .andExpect(status().isBadRequest());
+
+        Mockito.verify(itemService, Mockito.never()).searchItems(anyString(), anyInt(), anyInt());
+    }
+
+    @Test
+    void exportRunsWithoutAsyncTimeout() throws Exception {
+        StreamingResponseBody body = output -> output.write("{\"id\":1}\n".getBytes());
+        Mockito.when(exportService.exportItemsByOwner(1L, ExportFormat.NDJSON)).thenReturn(body);
+
+        MvcResult result = mockMvc.perform(get("/items/export").header("X-Sharer-User-Id", 1L))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        assertEquals(ExportResponses.NO_TIMEOUT, result.getRequest().getAsyncContext().getTimeout());
+
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(content().string("{\"id\":1}\n"));
+    }
+}
@@ -0,0 +1,75 @@
+package ru.practicum.shareit.server.item;
+
+import org.junit.jupiter.api.Test;
+import ru.practicum.shareit.search.ItemDocument;
+import ru.practicum.shareit.search.ItemNameTrie;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ItemNameTrieTest {
+
+    private final ItemNameTrie trie = new ItemNameTrie();
+
+    @Test
+    void suggestReturnsAvailableNamesInAlphabeticalOrder() {
+        trie.put(document(1L, "Дрель ударная", true));
+        trie.put(document(2L, "Дрель", true));
+        trie.put(document(3L, "Доска", true));
+        trie.put(document(4L, "Дрезина", false));
+
+        assertThat(trie.suggest("др", 10)).containsExactly("Дрель", "Дрель ударная");
+        assertThat(trie.suggest("  ДРЕЛЬ ", 10)).containsExactly("Дрель", "Дрель ударная");
+        assertThat(trie.suggest("д", 2)).containsExactly("Доска", "Дрель");
+        assertThat(trie.suggest("пила", 10)).isEmpty();
+    }
+
+    @Test
+    void suggestFollowsAvailabilityAndRenames() {
+        trie.put(document(1L, "Дрель", true));
+        trie.put(document(1L, "Дрель", false));
+
+        assertThat(trie.suggest("дре", 10)).isEmpty();
+
+        trie.put(document(1L, "Перфоратор", true));
+
+        assertThat(trie.suggest("дре", 10)).isEmpty();
+        assertThat(trie.suggest("перф", 10)).containsExactly("Перфоратор");
+    }
+
+    @Test
+    void suggestKeepsNameWhileAnotherItemWithSameNameIsAvailable() {
+        trie.put(document(1L, "Палатка", true));
+        trie.put(document(2L, "Палатка", true));
+        trie.put(document(1L, "Палатка", false));
+
+        assertThat(trie.suggest("пала", 10)).containsExactly("Палатка");
+
+        trie.put(document(2L, "Палатка", false));
+
+        assertThat(trie.suggest("пала", 10)).isEmpty();
+    }
+
+    @Test
+    void renamesPruneEmptyBranches() {
+        trie.put(document(1L, "Дрель", true));
+        int nodes = trie.nodeCount();
+
+        trie.put(document(2L, "Дрезина", true));
+        trie.put(document(3L, "Дрель ударная", true));
+        trie.put(document(2L, "Палатка", true));
+        trie.put(document(3L, "Палатка", true));
+        trie.put(document(2L, "Дрель", true));
+        trie.put(document(3L, "Дрель", true));
+
+        assertThat(trie.nodeCount()).isEqualTo(nodes);
+        assertThat(trie.suggest("д", 10)).containsExactly("Дрель");
+
+        trie.put(document(4L, "Дрезина", true));
+
+        assertThat(trie.suggest("дре", 10)).containsExactly("Дрезина", "Дрель");
+    }
+
+    private static ItemDocument document(Long id, String name, boolean available) {
+        return new ItemDocument(id, name, "Описание", available, 10L, null);
+    }
+}
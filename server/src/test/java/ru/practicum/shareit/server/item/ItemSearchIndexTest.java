@@ -0,0 +1,90 @@
+package ru.practicum.shareit.server.item;
+
+import org.junit.jupiter.api.Test;
+import ru.practicum.shareit.search.ItemDocument;
+import ru.practicum.shareit.search.ItemSearchIndex;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ItemSearchIndexTest {
+
+    private final ItemSearchIndex index = new ItemSearchIndex();
+
+    @Test
+    void searchMatchesTermPrefixesInNameAndDescription() {
+        index.index(new ItemDocument(1L, "Дрель", "Ударная дрель Bosch", true, 10L, null));
+        index.index(new ItemDocument(2L, "Отвёртка", "Аккумуляторная", true, 10L, null));
+
+        assertThat(ids(index.search("дре", 0, 10))).containsExactly(1L);
+        assertThat(ids(index.search("BOSCH", 0, 10))).containsExactly(1L);
+        assertThat(ids(index.search("аккум", 0, 10))).containsExactly(2L);
+    }
+
+    @Test
+    void searchRequiresAllQueryTerms() {
+        index.index(new ItemDocument(1L, "Дрель", "Ударная дрель", true, 10L, null));
+        index.index(new ItemDocument(2L, "Дрель", "Простая", true, 10L, null));
+
+        assertThat(ids(index.search("дрель ударная", 0, 10))).containsExactly(1L);
+        assertThat(ids(index.search("дрель пила", 0, 10))).isEmpty();
+    }
+
+    @Test
+    void availabilityToggleHidesAndRestoresItem() {
+        index.index(new ItemDocument(1L, "Дрель", "Ударная", true, 10L, null));
+        index.index(new ItemDocument(1L, "Дрель", "Ударная", false, 10L, null));
+
+        assertThat(index.search("дрель", 0, 10)).isEmpty();
+
+        index.index(new ItemDocument(1L, "Дрель", "Ударная", true, 10L, null));
+
+        assertThat(ids(index.search("дрель", 0, 10))).containsExactly(1L);
+        assertThat(index.size()).isEqualTo(1);
+    }
+
+    @Test
+    void updateReplacesIndexedTerms() {
+        index.index(new ItemDocument(1L, "Дрель", "Ударная", true, 10L, null));
+        index.index(new ItemDocument(1L, "Перфоратор", "Ударный", true, 10L, null));
+
+        assertThat(index.search("дрель", 0, 10)).isEmpty();
+        assertThat(index.search("перфоратор", 0, 10)).extracting(ItemDocument::getName)
+                .containsExactly("Перфоратор");
+    }
+
+    @Test
+    void indexIfAbsentDoesNotOverwriteNewerDocument() {
+        index.index(new ItemDocument(1L, "Перфоратор", "Новое описание", true, 10L, null));
+        index.indexIfAbsent(new ItemDocument(1L, "Дрель", "Старое описание", true, 10L, null));
+
+        assertThat(index.search("дрель", 0, 10)).isEmpty();
+        assertThat(ids(index.search("перфоратор", 0, 10))).containsExactly(1L);
+    }
+
+    @Test
+    void searchPaginatesOverAvailableItems() {
+        for (long id = 1; id <= 5; id++) {
+            index.index(new ItemDocument(id, "Дрель " + id, "Описание", id != 2, 10L, null));
+        }
+
+        assertThat(ids(index.search("дрель", 0, 2))).containsExactly(1L, 3L);
+        assertThat(ids(index.search("дрель", 2, 2))).containsExactly(4L, 5L);
+    }
+
+    @Test
+    void searchRanksNameMatchesAboveDescriptionMatches() {
+        index.index(new ItemDocument(1L, "Чемодан", "Вместительный, подойдёт для дрели", true, 10L, null));
+        index.index(new ItemDocument(2L, "Дрель ударная с кейсом", "Мощная", true, 10L, null));
+        index.index(new ItemDocument(3L, "Дрель", "Простая", true, 10L, null));
+        index.index(new ItemDocument(4L, "Набор", "Дрель и биты", true, 10L, null));
+
+        assertThat(ids(index.search("дрель", 0, 10))).containsExactly(3L, 2L, 4L);
+        assertThat(ids(index.search("дрель", 1, 1))).containsExactly(2L);
+    }
+
+    private static List<Long> ids(List<ItemDocument> documents) {
+        return documents.stream().map(ItemDocument::getId).toList();
+    }
+}
@@ -0,0 +1,28 @@
+package ru.practicum.shareit.server.item;
+
+import org.junit.jupiter.api.Test;
+import ru.practicum.shareit.cache.ItemVersions;
+
+import java.time.Duration;
+
+import static org.awaitility.Awaitility.await;
+import static org.junit.jupiter.api.Assertions.*;
+
+class ItemVersionsTest {
+
+    @Test
+    void evictedVersionsNeverGoBackwards() {
+        ItemVersions versions = new ItemVersions(2, Duration.ofMinutes(10));
+        long stale = versions.current(1L);
+        long changed = versions.next(1L);
+        assertTrue(changed > stale);
+
+        for (long itemId = 2; itemId <= 100; itemId++) {
+            versions.next(itemId);
+        }
+
+        await().atMost(Duration.ofSeconds(5)).untilAsserted(() -> assertTrue(versions.size() <= 2));
+        assertTrue(versions.current(1L) >= changed);
+        assertTrue(versions.next(1L) > changed);
+    }
+}
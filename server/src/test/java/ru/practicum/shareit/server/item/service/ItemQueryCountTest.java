@@ -0,0 +1,89 @@
+package ru.practicum.shareit.server.item.service;
+
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import ru.practicum.shareit.cache.ItemDetailCache;
+import ru.practicum.shareit.dto.booking.BookingDto;
+import ru.practicum.shareit.dto.booking.BookingResponseDto;
+import ru.practicum.shareit.dto.item.CommentDto;
+import ru.practicum.shareit.dto.item.ItemDto;
+import ru.practicum.shareit.dto.item.ItemWithBookingsDto;
+import ru.practicum.shareit.dto.user.UserCreateDto;
+import ru.practicum.shareit.dto.user.UserDto;
+import ru.practicum.shareit.service.BookingService;
+import ru.practicum.shareit.service.ItemService;
+import ru.practicum.shareit.service.UserService;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.NoSuchElementException;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@ActiveProfiles("test")
+class ItemQueryCountTest {
+    @Autowired
+    private ItemService itemService;
+
+    @Autowired
+    private BookingService bookingService;
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private ItemDetailCache itemDetailCache;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Test
+    void itemDetailsAreLoadedWithAtMostTwoStatements() {
+        UserDto owner = userService.createUser(new UserCreateDto("owner", "details-owner@test.com"));
+        UserDto booker = userService.createUser(new UserCreateDto("booker", "details-booker@test.com"));
+        ItemDto item = itemService.createItem(
+                new ItemDto(null, "Палатка", "Трёхместная", true, null, null, null, null, null, null), owner.getId());
+
+        LocalDateTime now = LocalDateTime.now().truncatedTo(ChronoUnit.SECONDS);
+        Long last = book(item, booker, owner, now.minusDays(3), now.minusDays(2));
+        Long next = book(item, booker, owner, now.plusDays(1), now.plusDays(2));
+        itemService.addComment(item.getId(), new CommentDto(null, "Не протекает", null, null), booker.getId());
+        itemService.addComment(item.getId(), new CommentDto(null, "Лёгкая", null, null), booker.getId());
+
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        itemDetailCache.invalidate(item.getId());
+        statistics.clear();
+        ItemWithBookingsDto details = assertInstanceOf(ItemWithBookingsDto.class,
+                itemService.getItemDetails(item.getId(), owner.getId()));
+        assertEquals(2, statistics.getPrepareStatementCount(), "item with comments + last/next bookings");
+        assertEquals(last, details.getLastBooking().getId());
+        assertEquals(next, details.getNextBooking().getId());
+        assertEquals(2, details.getComments().size());
+        assertEquals("booker", details.getComments().getFirst().getAuthorName());
+
+        statistics.clear();
+        ItemDto view = assertInstanceOf(ItemDto.class, itemService.getItemDetails(item.getId(), booker.getId()));
+        assertEquals(0, statistics.getPrepareStatementCount(), "cached item with comments");
+        assertEquals(2, view.getComments().size());
+        assertNull(view.getLastBooking());
+
+        itemDetailCache.invalidate(item.getId());
+        statistics.clear();
+        assertInstanceOf(ItemDto.class, itemService.getItemDetails(item.getId(), null));
+        assertEquals(1, statistics.getPrepareStatementCount(), "item with comments");
+
+        assertThrows(NoSuchElementException.class, () -> itemService.getItemDetails(-1L, owner.getId()));
+    }
+
+    private Long book(ItemDto item, UserDto booker, UserDto owner, LocalDateTime start, LocalDateTime end) {
+        BookingResponseDto booking = bookingService.createBooking(new BookingDto(item.getId(), start, end), booker.getId());
+        bookingService.updateBookingStatus(booking.getId(), true, owner.getId());
+        return booking.getId();
+    }
+}
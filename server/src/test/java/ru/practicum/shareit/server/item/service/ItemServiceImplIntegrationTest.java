@@ -0,0 +1,255 @@
+package ru.practicum.shareit.server.item.service;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import ru.practicum.shareit.dto.PageDto;
+import ru.practicum.shareit.dto.booking.BookingDto;
+import ru.practicum.shareit.dto.booking.BookingResponseDto;
+import ru.practicum.shareit.dto.item.CommentDto;
+import ru.practicum.shareit.dto.item.ItemAvailabilityDto;
+import ru.practicum.shareit.dto.item.ItemDto;
+import ru.practicum.shareit.dto.item.ItemWithBookingsDto;
+import ru.practicum.shareit.dto.user.UserCreateDto;
+import ru.practicum.shareit.dto.user.UserDto;
+import ru.practicum.shareit.dto.user.UserUpdateDto;
+import ru.practicum.shareit.export.ExportFormat;
+import ru.practicum.shareit.model.ItemBookingPointer;
+import ru.practicum.shareit.repository.ItemBookingPointerRepository;
+import ru.practicum.shareit.service.BookingService;
+import ru.practicum.shareit.service.ExportService;
+import ru.practicum.shareit.service.ItemAvailabilityService;
+import ru.practicum.shareit.service.ItemBookingPointerService;
+import ru.practicum.shareit.service.ItemService;
+import ru.practicum.shareit.service.UserService;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.NoSuchElementException;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class ItemServiceImplIntegrationTest {
+
+    @Autowired
+    private ItemService itemService;
+
+    @Autowired
+    private BookingService bookingService;
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private ItemBookingPointerService pointerService;
+
+    @Autowired
+    private ItemBookingPointerRepository pointerRepository;
+
+    @Autowired
+    private ItemAvailabilityService availabilityService;
+
+    @Autowired
+    private ExportService exportService;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Test
+    void getItemsWithBookingsByOwnerReturnsClosestLastAndNextBookingPerItem() throws IOException {
+        UserDto owner = userService.createUser(new UserCreateDto("owner", "edges-owner@test.com"));
+        UserDto booker = userService.createUser(new UserCreateDto("booker", "edges-booker@test.com"));
+        ItemDto drill = itemService.createItem(
+                new ItemDto(null, "Дрель", "Ударная", true, null, null, null, null, null, null), owner.getId());
+        ItemDto saw = itemService.createItem(
+                new ItemDto(null, "Пила", "Циркулярная", true, null, null, null, null, null, null), owner.getId());
+
+        LocalDateTime now = LocalDateTime.now().truncatedTo(ChronoUnit.SECONDS);
+        book(drill, booker, owner, now.minusDays(10), now.minusDays(9), true);
+        Long last = book(drill, booker, owner, now.minusDays(3), now.minusDays(2), true);
+        book(drill, booker, owner, now.minusDays(2), now.minusDays(1), false);
+        Long next = book(drill, booker, owner, now.plusDays(1), now.plusDays(2), true);
+        book(drill, booker, owner, now.plusDays(5), now.plusDays(6), true);
+
+        List<ItemWithBookingsDto> items = itemService.getItemsWithBookingsByOwner(owner.getId(), 0, 10);
+
+        ItemWithBookingsDto drillDto = items.stream().filter(i -> i.getId().equals(drill.getId())).findFirst().orElseThrow();
+        assertEquals(last, drillDto.getLastBooking().getId());
+        assertEquals(booker.getId(), drillDto.getLastBooking().getBookerId());
+        assertEquals(next, drillDto.getNextBooking().getId());
+
+        ItemWithBookingsDto sawDto = items.stream().filter(i -> i.getId().equals(saw.getId())).findFirst().orElseThrow();
+        assertNull(sawDto.getLastBooking());
+        assertNull(sawDto.getNextBooking());
+
+        assertEquals(List.of(sawDto), itemService.getItemsWithBookingsByOwner(owner.getId(), 1, 1));
+
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        itemService.streamItemsWithBookingsByOwner(owner.getId()).writeTo(output);
+        assertEquals(items, objectMapper.readValue(output.toByteArray(), new TypeReference<List<ItemWithBookingsDto>>() {
+        }));
+
+        ItemWithBookingsDto single = itemService.getItemWithBookings(drill.getId(), owner.getId());
+        assertEquals(last, single.getLastBooking().getId());
+        assertEquals(next, single.getNextBooking().getId());
+    }
+
+    @Test
+    void reconcileRebuildsDriftedPointers() {
+        UserDto owner = userService.createUser(new UserCreateDto("owner", "pointers-owner@test.com"));
+        UserDto booker = userService.createUser(new UserCreateDto("booker", "pointers-booker@test.com"));
+        ItemDto item = itemService.createItem(
+                new ItemDto(null, "Лестница", "Стремянка", true, null, null, null, null, null, null), owner.getId());
+
+        LocalDateTime now = LocalDateTime.now().truncatedTo(ChronoUnit.SECONDS);
+        Long next = book(item, booker, owner, now.plusDays(1), now.plusDays(2), true);
+        ItemBookingPointer pointer = pointerRepository.findById(item.getId()).orElseThrow();
+        assertEquals(next, pointer.getNextBookingId());
+        assertEquals(pointer.getNextStart(), pointer.getValidUntil());
+
+        pointerRepository.deleteById(item.getId());
+
+        assertTrue(pointerService.reconcile() >= 1);
+        assertEquals(next, pointerRepository.findById(item.getId()).orElseThrow().getNextBookingId());
+        assertEquals(0, pointerService.reconcile());
+    }
+
+    @Test
+    void getAvailabilityMergesBusyIntervalsAndIsInvalidatedByBookingChanges() {
+        UserDto owner = userService.createUser(new UserCreateDto("owner", "calendar-owner@test.com"));
+        UserDto booker = userService.createUser(new UserCreateDto("booker", "calendar-booker@test.com"));
+        ItemDto item = itemService.createItem(
+                new ItemDto(null, "Велосипед", "Горный", true, null, null, null, null, null, null), owner.getId());
+
+        LocalDateTime from = LocalDateTime.now().plusDays(1).truncatedTo(ChronoUnit.DAYS);
+        LocalDateTime to = from.plusDays(10);
+        book(item, booker, owner, from.minusDays(1), from.plusDays(1), true);
+        book(item, booker, owner, from.plusDays(1), from.plusDays(2), true);
+        book(item, booker, owner, from.plusDays(5), from.plusDays(6), true);
+
+        ItemAvailabilityDto availability = availabilityService.getAvailability(item.getId(), from, to, false);
+        assertEquals(2, availability.getBusy().size());
+        assertEquals(from, availability.getBusy().getFirst().getStart());
+        assertEquals(from.plusDays(2), availability.getBusy().getFirst().getEnd());
+        assertEquals(2, availability.getFree().size());
+        assertEquals(to, availability.getFree().getLast().getEnd());
+
+        bookingService.createBooking(new BookingDto(item.getId(), from.plusDays(7), from.plusDays(8)), booker.getId());
+        assertEquals(2, availabilityService.getAvailability(item.getId(), from, to, false).getBusy().size());
+        assertEquals(3, availabilityService.getAvailability(item.getId(), from, to, true).getBusy().size());
+    }
+
+    @Test
+    void getItemByIdIsCachedUntilItemOrCommentsChange() {
+        UserDto owner = userService.createUser(new UserCreateDto("owner", "detail-owner@test.com"));
+        UserDto booker = userService.createUser(new UserCreateDto("booker", "detail-booker@test.com"));
+        ItemDto item = itemService.createItem(
+                new ItemDto(null, "Шуруповёрт", "Аккумуляторный", true, null, null, null, null, null, null), owner.getId());
+        LocalDateTime now = LocalDateTime.now().truncatedTo(ChronoUnit.SECONDS);
+        book(item, booker, owner, now.minusDays(2), now.minusDays(1), true);
+
+        ItemDto cached = itemService.getItemById(item.getId(), null);
+        assertSame(cached, itemService.getItemById(item.getId(), null));
+        assertTrue(meterRegistry.get("cache.gets").tag("cache", "itemDetails").tag("result", "hit")
+                .functionCounter().count() >= 1);
+
+        itemService.updateItem(item.getId(), new ItemDto(null, "Дрель-шуруповёрт", null, null, null, null, null, null, null, null),
+                owner.getId());
+        assertEquals("Дрель-шуруповёрт", itemService.getItemById(item.getId(), null).getName());
+
+        itemService.addComment(item.getId(), new CommentDto(null, "Отличный", null, null), booker.getId());
+        assertEquals(1, itemService.getItemById(item.getId(), null).getComments().size());
+
+        userService.updateUser(booker.getId(), new UserUpdateDto("renamed", null));
+        assertEquals("renamed", itemService.getItemById(item.getId(), null).getComments().getFirst().getAuthorName());
+    }
+
+    @Test
+    void commentsArePagedByKeysetAndItemEmbedsOnlyRecentOnes() {
+        UserDto owner = userService.createUser(new UserCreateDto("owner", "comments-owner@test.com"));
+        UserDto booker = userService.createUser(new UserCreateDto("booker", "comments-booker@test.com"));
+        ItemDto item = itemService.createItem(
+                new ItemDto(null, "Гамак", "Туристический", true, null, null, null, null, null, null), owner.getId());
+        LocalDateTime now = LocalDateTime.now().truncatedTo(ChronoUnit.SECONDS);
+        book(item, booker, owner, now.minusDays(2), now.minusDays(1), true);
+
+        List<Long> created = new ArrayList<>();
+        for (int i = 0; i < 13; i++) {
+            created.add(itemService.addComment(item.getId(), new CommentDto(null, "Отзыв " + i, null, null),
+                    booker.getId()).getId());
+        }
+
+        List<CommentDto> walked = new ArrayList<>();
+        PageDto<CommentDto> page = itemService.getComments(item.getId(), null, 5);
+        walked.addAll(page.getContent());
+        while (page.getNextCursor() != null) {
+            page = itemService.getComments(item.getId(), page.getNextCursor(), 5);
+            walked.addAll(page.getContent());
+        }
+        assertEquals(created.reversed(), walked.stream().map(CommentDto::getId).toList());
+        assertEquals("booker", walked.getFirst().getAuthorName());
+
+        ItemDto details = itemService.getItemById(item.getId(), null);
+        assertEquals(13, details.getCommentsCount());
+        assertEquals(walked.subList(0, 10), details.getComments());
+
+        ItemDto quiet = itemService.createItem(
+                new ItemDto(null, "Коврик", "Самонадувающийся", true, null, null, null, null, null, null), owner.getId());
+        book(quiet, booker, owner, now.minusDays(4), now.minusDays(3), true);
+        itemService.addComment(quiet.getId(), new CommentDto(null, "Тёплый", null, null), booker.getId());
+
+        List<ItemWithBookingsDto> owned = itemService.getItemsWithBookingsByOwner(owner.getId(), 0, 10);
+        assertEquals(13, owned.getFirst().getCommentsCount());
+        assertEquals(walked.subList(0, 10), owned.getFirst().getComments());
+        assertEquals(1, owned.get(1).getCommentsCount());
+        assertEquals("Тёплый", owned.get(1).getComments().getFirst().getText());
+
+        assertThrows(NoSuchElementException.class, () -> itemService.getComments(-1L, null, 5));
+    }
+
+    @Test
+    void ownerExportsItemsAsCsvAndNdjson() throws IOException {
+        UserDto owner = userService.createUser(new UserCreateDto("owner", "export-items-owner@test.com"));
+        ItemDto item = itemService.createItem(
+                new ItemDto(null, "Палатка, 2 места", "С \"юбкой\"", true, null, null, null, null, null, null), owner.getId());
+
+        List<String> csv = export(exportService.exportItemsByOwner(owner.getId(), ExportFormat.CSV));
+        assertEquals(List.of("id,name,description,available,requestId",
+                item.getId() + ",\"Палатка, 2 места\",\"С \"\"юбкой\"\"\",true,"), csv);
+
+        List<String> ndjson = export(exportService.exportItemsByOwner(owner.getId(), ExportFormat.NDJSON));
+        assertEquals(1, ndjson.size());
+        assertEquals("С \"юбкой\"", objectMapper.readTree(ndjson.getFirst()).get("description").asText());
+
+        assertThrows(NoSuchElementException.class,
+                () -> exportService.exportItemsByOwner(Long.MAX_VALUE, ExportFormat.CSV));
+    }
+
+    private static List<String> export(StreamingResponseBody body) throws IOException {
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        body.writeTo(output);
+        return output.toString(StandardCharsets.UTF_8).lines().toList();
+    }
+
+    private Long book(ItemDto item, UserDto booker, UserDto owner,
+                      LocalDateTime start, LocalDateTime end, boolean approved) {
+        BookingResponseDto booking = bookingService.createBooking(new BookingDto(item.getId(), start, end), booker.getId());
+        bookingService.updateBookingStatus(booking.getId(), approved, owner.getId());
+        return booking.getId();
+    }
+}
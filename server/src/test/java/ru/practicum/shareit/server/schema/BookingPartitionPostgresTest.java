@@ -0,0 +1,137 @@
+package ru.practicum.shareit.server.schema;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.testcontainers.service.connection.ServiceConnection;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+import ru.practicum.shareit.dto.booking.BookingResponseDto;
+import ru.practicum.shareit.dto.item.ItemDto;
+import ru.practicum.shareit.dto.user.UserCreateDto;
+import ru.practicum.shareit.dto.user.UserDto;
+import ru.practicum.shareit.partition.BookingPartitionManager;
+import ru.practicum.shareit.repository.BookingRepository;
+import ru.practicum.shareit.service.BookingService;
+import ru.practicum.shareit.service.ItemService;
+import ru.practicum.shareit.service.UserService;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.Statement;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(properties = {
+        "spring.sql.init.schema-locations=file:src/main/resources/schema.sql",
+        "shareit.booking-partitions.retention-months=2",
+        "shareit.booking-partitions.months-ahead=1"
+})
+@Testcontainers(disabledWithoutDocker = true)
+class BookingPartitionPostgresTest {
+    @Container
+    @ServiceConnection
+    static PostgreSQLContainer<?> postgres = new PostgreSQLContainer<>("postgres:16.1");
+
+    @Autowired
+    private BookingPartitionManager partitionManager;
+
+    @Autowired
+    private BookingRepository bookingRepository;
+
+    @Autowired
+    private BookingService bookingService;
+
+    @Autowired
+    private ItemService itemService;
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Test
+    void maintenanceKeepsMonthlyPartitionsAndArchivesOldMonths() {
+        UserDto owner = userService.createUser(new UserCreateDto("owner", "partition-owner@test.com"));
+        UserDto booker = userService.createUser(new UserCreateDto("booker", "partition-booker@test.com"));
+        ItemDto item = itemService.createItem(
+                new ItemDto(null, "Шуруповёрт", "Ударный", true, null, null, null, null, null, null), owner.getId());
+
+        LocalDate today = LocalDate.now();
+        YearMonth current = YearMonth.from(today);
+        List<Long> ids = new ArrayList<>();
+        for (int offset : new int[]{-6, -3, -2, -1, 0, 1, 10}) {
+            LocalDateTime start = current.plusMonths(offset).atDay(2).atStartOfDay();
+            ids.add(jdbcTemplate.queryForObject("INSERT INTO bookings (start_date, end_date, item_id, booker_id, status) " +
+                    "VALUES (?, ?, ?, ?, 'APPROVED') RETURNING id", Long.class,
+                    start, start.plusDays(1), item.getId(), booker.getId()));
+        }
+
+        assertTrue(partitionManager.maintain(today));
+
+        assertEquals(current.minusMonths(2).atDay(1), partitionManager.archiveBound());
+        assertEquals(List.of(current.minusMonths(2), current.minusMonths(1), current, current.plusMonths(1)),
+                List.copyOf(partitionManager.monthlyPartitions().keySet()));
+        assertEquals(List.of("bookings_archive", "bookings_archive", "bookings_p" + suffix(current.minusMonths(2)),
+                        "bookings_p" + suffix(current.minusMonths(1)), "bookings_p" + suffix(current),
+                        "bookings_p" + suffix(current.plusMonths(1)), "bookings_default"),
+                ids.stream().map(this::partitionOf).toList());
+
+        assertTrue(partitionManager.maintain(today.plusMonths(1)));
+
+        assertEquals(current.minusMonths(1).atDay(1), partitionManager.archiveBound());
+        assertEquals("bookings_archive", partitionOf(ids.get(2)));
+        assertEquals(List.of(current.minusMonths(1), current, current.plusMonths(1), current.plusMonths(2)),
+                List.copyOf(partitionManager.monthlyPartitions().keySet()));
+        assertEquals(ids.size(), bookingRepository.count());
+        assertEquals(0, jdbcTemplate.queryForObject("SELECT COUNT(*) FROM booking_slots " +
+                "WHERE upper(period) < ?", Integer.class, current.minusMonths(1).atDay(1).atStartOfDay()));
+
+        List<Long> past = bookingService.getUserBookings(booker.getId(), "PAST", 0, 20).stream()
+                .map(BookingResponseDto::getId)
+                .toList();
+        assertTrue(past.containsAll(ids.subList(0, 4)));
+        assertTrue(bookingRepository.existsCompletedBooking(item.getId(), booker.getId(), LocalDateTime.now()));
+
+        LocalDateTime taken = current.plusMonths(1).atDay(2).atStartOfDay();
+        assertThrows(DataIntegrityViolationException.class, () -> jdbcTemplate.update(
+                "INSERT INTO bookings (start_date, end_date, item_id, booker_id, status) VALUES (?, ?, ?, ?, 'APPROVED')",
+                taken.plusHours(1), taken.plusHours(2), item.getId(), booker.getId()));
+    }
+
+    @Test
+    void maintenanceIsSkippedWhileAnotherInstanceHoldsTheLock() throws Exception {
+        Map<YearMonth, String> before = partitionManager.monthlyPartitions();
+        try (Connection connection = dataSource.getConnection(); Statement statement = connection.createStatement()) {
+            statement.execute("SELECT pg_advisory_lock(" + BookingPartitionManager.LOCK_KEY + ")");
+
+            assertFalse(partitionManager.maintain(LocalDate.now().plusMonths(6)));
+            assertEquals(before, partitionManager.monthlyPartitions());
+
+            statement.execute("SELECT pg_advisory_unlock(" + BookingPartitionManager.LOCK_KEY + ")");
+        }
+    }
+
+    private String partitionOf(Long bookingId) {
+        return jdbcTemplate.queryForObject("SELECT CASE WHEN i.inhparent = 'bookings_archive'::regclass " +
+                "THEN 'bookings_archive' ELSE b.tableoid::regclass::text END " +
+                "FROM bookings b JOIN pg_inherits i ON i.inhrelid = b.tableoid WHERE b.id = ?", String.class, bookingId);
+    }
+
+    private static String suffix(YearMonth month) {
+        return String.format("%d%02d", month.getYear(), month.getMonthValue());
+    }
+}
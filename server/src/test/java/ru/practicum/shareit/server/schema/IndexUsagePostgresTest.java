@@ -0,0 +1,241 @@
+package ru.practicum.shareit.server.schema;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.jdbc.JdbcConnectionDetails;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.testcontainers.service.connection.ServiceConnection;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+import ru.practicum.shareit.export.BookingExportRow;
+import ru.practicum.shareit.export.ItemExportRow;
+import ru.practicum.shareit.model.BookingStatus;
+import ru.practicum.shareit.partition.BookingPartitionManager;
+import ru.practicum.shareit.repository.BookingRepository;
+import ru.practicum.shareit.repository.CommentRepository;
+import ru.practicum.shareit.repository.ItemRepository;
+import ru.practicum.shareit.repository.ItemRequestRepository;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(properties = {
+        "spring.sql.init.schema-locations=file:src/main/resources/schema.sql",
+        "spring.jpa.properties.hibernate.session_factory.statement_inspector="
+                + "ru.practicum.shareit.server.schema.IndexUsagePostgresTest$RecordingInspector"
+})
+@Testcontainers(disabledWithoutDocker = true)
+class IndexUsagePostgresTest {
+    private static final Pattern SEQ_SCAN = Pattern.compile("Seq Scan on (bookings\\w*|items|comments|requests|users)\\b");
+
+    @Container
+    @ServiceConnection
+    static PostgreSQLContainer<?> postgres = new PostgreSQLContainer<>("postgres:16.1");
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private JdbcConnectionDetails connectionDetails;
+
+    @Autowired
+    private BookingRepository bookingRepository;
+
+    @Autowired
+    private ItemRepository itemRepository;
+
+    @Autowired
+    private CommentRepository commentRepository;
+
+    @Autowired
+    private ItemRequestRepository requestRepository;
+
+    @Autowired
+    private BookingPartitionManager partitionManager;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Test
+    void repositoryQueriesDoNotFallBackToSequentialScans() throws SQLException {
+        seed();
+
+        LocalDateTime now = LocalDateTime.now();
+        Pageable page = PageRequest.of(0, 10, Sort.by(Sort.Direction.DESC, "start").and(Sort.by(Sort.Direction.DESC, "id")));
+        Pageable limit = PageRequest.of(0, 10);
+        LocalDateTime cursorStart = now.plusYears(1);
+
+        Map<String, Runnable> queries = new LinkedHashMap<>();
+        queries.put("booker ALL", () -> bookingRepository.findByBookerIdOrderByStartDesc(1L, page));
+        queries.put("booker CURRENT", () -> bookingRepository
+                .findByBookerIdAndStartBeforeAndEndAfterOrderByStartDesc(1L, now, now, page));
+        queries.put("booker PAST", () -> bookingRepository.findByBookerIdAndEndBeforeOrderByStartDesc(1L, now, page));
+        queries.put("booker FUTURE", () -> bookingRepository.findByBookerIdAndStartAfterOrderByStartDesc(1L, now, page));
+        queries.put("booker WAITING", () -> bookingRepository
+                .findByBookerIdAndStatusOrderByStartDesc(1L, BookingStatus.WAITING, page));
+        queries.put("owner ALL", () -> bookingRepository.findByItemOwnerIdOrderByStartDesc(1L, page));
+        queries.put("owner CURRENT", () -> bookingRepository
+                .findByItemOwnerIdAndStartBeforeAndEndAfterOrderByStartDesc(1L, now, now, page));
+        queries.put("owner PAST", () -> bookingRepository.findByItemOwnerIdAndEndBeforeOrderByStartDesc(1L, now, page));
+        queries.put("owner FUTURE", () -> bookingRepository.findByItemOwnerIdAndStartAfterOrderByStartDesc(1L, now, page));
+        queries.put("owner WAITING", () -> bookingRepository
+                .findByItemOwnerIdAndStatusOrderByStartDesc(1L, BookingStatus.WAITING, page));
+        queries.put("booker page", () -> bookingRepository.findPageByBookerId(1L, cursorStart, Long.MAX_VALUE, limit));
+        queries.put("booker REJECTED page", () -> bookingRepository
+                .findPageByBookerIdAndStatus(1L, BookingStatus.REJECTED, cursorStart, Long.MAX_VALUE, limit));
+        queries.put("owner page", () -> bookingRepository.findPageByItemOwnerId(1L, cursorStart, Long.MAX_VALUE, limit));
+        queries.put("owner FUTURE page", () -> bookingRepository
+                .findFuturePageByItemOwnerId(1L, now, cursorStart, Long.MAX_VALUE, limit));
+        queries.put("last and next", () -> bookingRepository.findLastAndNextBookings(List.of(1L, 2L, 3L), now));
+        queries.put("nearest ends", () -> bookingRepository.findNearestEnds(List.of(1L, 2L, 3L), now));
+        queries.put("item edges", () -> bookingRepository.findItemEdges(1L, now));
+        queries.put("owner bookings export", () -> transactionTemplate.executeWithoutResult(status -> {
+            try (Stream<BookingExportRow> rows = bookingRepository.streamExportRowsByItemOwnerId(1L)) {
+                rows.forEach(row -> { });
+            }
+        }));
+        queries.put("approved overlap", () -> bookingRepository.existsApprovedOverlap(1L, now, now.plusDays(1)));
+        queries.put("completed booking", () -> bookingRepository.existsCompletedBooking(1L, 1L, now));
+        queries.put("intervals in range", () -> bookingRepository
+                .findIntervalsInRange(1L, List.of(BookingStatus.APPROVED), now, now.plusDays(30)));
+        queries.put("booker summary", () -> bookingRepository.summarizeByBookerId(1L, now));
+        queries.put("owner summary", () -> bookingRepository.summarizeByItemOwnerId(1L, now));
+        queries.put("stale waiting", () -> bookingRepository.lockStaleWaitingIds(now, 500));
+        queries.put("oldest stale waiting", () -> bookingRepository.findOldestStaleWaitingStart(now));
+        queries.put("items by owner", () -> itemRepository.findByOwnerIdOrderById(1L, limit));
+        queries.put("items by owner chunk", () -> itemRepository.findByOwnerIdAndIdGreaterThanOrderById(1L, 100L, limit));
+        queries.put("items export", () -> transactionTemplate.executeWithoutResult(status -> {
+            try (Stream<ItemExportRow> rows = itemRepository.streamExportRowsByOwnerId(1L)) {
+                rows.forEach(row -> { });
+            }
+        }));
+        queries.put("item details", () -> itemRepository.findDetailRows(1L, 10));
+        queries.put("items by requests", () -> itemRepository.findByRequestIdIn(List.of(1L, 2L)));
+        queries.put("item search", () -> itemRepository.searchAvailable("item 123", limit));
+        queries.put("comments page", () -> commentRepository.findPageByItemId(1L, limit));
+        queries.put("comments page after cursor", () -> commentRepository
+                .findPageByItemIdBefore(1L, cursorStart, Long.MAX_VALUE, limit));
+        queries.put("recent comments by items", () -> commentRepository.findRecentByItemIdIn(List.of(1L, 2L), 11));
+        queries.put("comment counts by items", () -> commentRepository.countByItemIdIn(List.of(1L, 2L)));
+        queries.put("own requests", () -> requestRepository.findByRequestorIdOrderByCreatedDesc(1L));
+        queries.put("other requests", () -> requestRepository.findAllByRequestorIdNot(1L, limit));
+
+        List<String> failures = new ArrayList<>();
+        try (Connection connection = openSimpleQueryConnection()) {
+            for (Map.Entry<String, Runnable> query : queries.entrySet()) {
+                RecordingInspector.STATEMENTS.clear();
+                query.getValue().run();
+                for (String sql : RecordingInspector.STATEMENTS) {
+                    String plan = explain(connection, sql);
+                    if (scansNonEmptyTable(plan)) {
+                        failures.add(query.getKey() + ":\n" + plan);
+                    }
+                }
+            }
+        }
+
+        assertTrue(failures.isEmpty(), "Запросы без индекса:\n" + String.join("\n\n", failures));
+    }
+
+    private void seed() {
+        jdbcTemplate.execute("INSERT INTO users (name, email) " +
+                "SELECT 'user ' || g, 'user' || g || '@seed.test' FROM generate_series(1, 5000) g");
+        jdbcTemplate.execute("INSERT INTO requests (description, requestor_id, created) " +
+                "SELECT 'request ' || g, 1 + g % 5000, LOCALTIMESTAMP - g * INTERVAL '1 minute' " +
+                "FROM generate_series(1, 20000) g");
+        jdbcTemplate.execute("INSERT INTO items (name, description, is_available, owner_id, request_id) " +
+                "SELECT 'item ' || g, 'description ' || g, g % 10 <> 0, 1 + g % 5000, " +
+                "CASE WHEN g % 7 = 0 THEN 1 + g % 20000 END FROM generate_series(1, 20000) g");
+        jdbcTemplate.execute("INSERT INTO bookings (start_date, end_date, item_id, booker_id, status) " +
+                "SELECT LOCALTIMESTAMP + ((g / 20000) * 3 - 15) * INTERVAL '1 day', " +
+                "LOCALTIMESTAMP + ((g / 20000) * 3 - 13) * INTERVAL '1 day', " +
+                "1 + g % 20000, 1 + (g * 7) % 5000, " +
+                "CASE g % 10 WHEN 0 THEN 'WAITING' WHEN 1 THEN 'REJECTED' ELSE 'APPROVED' END " +
+                "FROM generate_series(0, 199999) g");
+        jdbcTemplate.execute("INSERT INTO comments (text, item_id, author_id, created) " +
+                "SELECT 'comment ' || g, 1 + g % 20000, 1 + g % 5000, LOCALTIMESTAMP - g * INTERVAL '1 minute' " +
+                "FROM generate_series(1, 50000) g");
+        partitionManager.maintain(LocalDate.now());
+        jdbcTemplate.execute("ANALYZE");
+    }
+
+    private boolean scansNonEmptyTable(String plan) {
+        Matcher matcher = SEQ_SCAN.matcher(plan);
+        while (matcher.find()) {
+            if (Boolean.TRUE.equals(jdbcTemplate.queryForObject(
+                    "SELECT EXISTS (SELECT 1 FROM " + matcher.group(1) + ")", Boolean.class))) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private Connection openSimpleQueryConnection() throws SQLException {
+        Properties properties = new Properties();
+        properties.setProperty("user", connectionDetails.getUsername());
+        properties.setProperty("password", connectionDetails.getPassword());
+        properties.setProperty("preferQueryMode", "simple");
+        return DriverManager.getConnection(connectionDetails.getJdbcUrl(), properties);
+    }
+
+    private static String explain(Connection connection, String sql) throws SQLException {
+        StringBuilder plan = new StringBuilder();
+        try (Statement statement = connection.createStatement();
+             ResultSet resultSet = statement.executeQuery("EXPLAIN (GENERIC_PLAN) " + numberParameters(sql))) {
+            while (resultSet.next()) {
+                plan.append(resultSet.getString(1)).append('\n');
+            }
+        }
+        return plan.toString();
+    }
+
+    private static String numberParameters(String sql) {
+        StringBuilder result = new StringBuilder(sql.length() + 16);
+        int parameter = 0;
+        for (int i = 0; i < sql.length(); i++) {
+            char c = sql.charAt(i);
+            if (c == '?') {
+                result.append('$').append(++parameter);
+            } else {
+                result.append(c);
+            }
+        }
+        return result.toString();
+    }
+
+    public static class RecordingInspector implements StatementInspector {
+        static final Queue<String> STATEMENTS = new ConcurrentLinkedQueue<>();
+
+        @Override
+        public String inspect(String sql) {
+            if (sql.stripLeading().toLowerCase().startsWith("select")) {
+                STATEMENTS.add(sql);
+            }
+            return sql;
+        }
+    }
+}
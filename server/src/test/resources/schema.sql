@@ -3,6 +3,8 @@ DROP TABLE IF EXISTS items CASCADE;
 DROP TABLE IF EXISTS bookings CASCADE;
 DROP TABLE IF EXISTS comments CASCADE;
 DROP TABLE IF EXISTS requests CASCADE;
+DROP TABLE IF EXISTS item_booking_pointers CASCADE;
+DROP TABLE IF EXISTS booking_series CASCADE;
 
 CREATE TABLE IF NOT EXISTS users (
   id BIGINT GENERATED BY DEFAULT AS IDENTITY NOT NULL,
@@ -22,6 +24,9 @@ CREATE TABLE IF NOT EXISTS items (
   CONSTRAINT pk_item PRIMARY KEY (id)
 );
 
+CREATE INDEX IF NOT EXISTS idx_items_owner_id ON items (owner_id, id);
+CREATE INDEX IF NOT EXISTS idx_items_request_id ON items (request_id);
+
 CREATE TABLE IF NOT EXISTS bookings (
   id BIGINT GENERATED BY DEFAULT AS IDENTITY NOT NULL,
   start_date TIMESTAMP WITHOUT TIME ZONE NOT NULL,
@@ -32,6 +37,44 @@ CREATE TABLE IF NOT EXISTS bookings (
   CONSTRAINT pk_booking PRIMARY KEY (id)
 );
 
+CREATE INDEX IF NOT EXISTS idx_bookings_booker_start ON bookings (booker_id, start_date DESC, id DESC);
+CREATE INDEX IF NOT EXISTS idx_bookings_booker_status_start ON bookings (booker_id, status, start_date DESC, id DESC);
+CREATE INDEX IF NOT EXISTS idx_bookings_status_start ON bookings (status, start_date);
+CREATE INDEX IF NOT EXISTS idx_bookings_item_start ON bookings (item_id, start_date DESC, id DESC);
+CREATE INDEX IF NOT EXISTS idx_bookings_item_status_start ON bookings (item_id, status, start_date);
+CREATE INDEX IF NOT EXISTS idx_bookings_item_status_end ON bookings (item_id, status, end_date);
+
+CREATE TABLE IF NOT EXISTS booking_series (
+  id BIGINT GENERATED BY DEFAULT AS IDENTITY NOT NULL,
+  start_date TIMESTAMP WITHOUT TIME ZONE NOT NULL,
+  end_date TIMESTAMP WITHOUT TIME ZONE NOT NULL,
+  frequency VARCHAR(20) NOT NULL,
+  until_date TIMESTAMP WITHOUT TIME ZONE NOT NULL,
+  item_id BIGINT NOT NULL REFERENCES items (id),
+  booker_id BIGINT NOT NULL REFERENCES users (id),
+  status VARCHAR(20) NOT NULL,
+  CONSTRAINT pk_booking_series PRIMARY KEY (id)
+);
+
+CREATE INDEX IF NOT EXISTS idx_booking_series_booker ON booking_series (booker_id);
+CREATE INDEX IF NOT EXISTS idx_booking_series_item_status ON booking_series (item_id, status);
+
+CREATE TABLE IF NOT EXISTS item_booking_pointers (
+  item_id BIGINT NOT NULL REFERENCES items (id),
+  last_booking_id BIGINT,
+  last_booker_id BIGINT,
+  last_start TIMESTAMP WITHOUT TIME ZONE,
+  last_end TIMESTAMP WITHOUT TIME ZONE,
+  next_booking_id BIGINT,
+  next_booker_id BIGINT,
+  next_start TIMESTAMP WITHOUT TIME ZONE,
+  next_end TIMESTAMP WITHOUT TIME ZONE,
+  valid_until TIMESTAMP WITHOUT TIME ZONE,
+  CONSTRAINT pk_item_booking_pointer PRIMARY KEY (item_id)
+);
+
+CREATE INDEX IF NOT EXISTS idx_item_booking_pointers_valid_until ON item_booking_pointers (valid_until);
+
 CREATE TABLE IF NOT EXISTS comments (
   id BIGINT GENERATED BY DEFAULT AS IDENTITY NOT NULL,
   text VARCHAR(512) NOT NULL,
@@ -41,10 +84,15 @@ CREATE TABLE IF NOT EXISTS comments (
   CONSTRAINT pk_comment PRIMARY KEY (id)
 );
 
+CREATE INDEX IF NOT EXISTS idx_comments_item_id ON comments (item_id, created, id);
+
 CREATE TABLE IF NOT EXISTS requests (
   id BIGINT GENERATED BY DEFAULT AS IDENTITY NOT NULL,
   description VARCHAR(512) NOT NULL,
   requestor_id BIGINT NOT NULL REFERENCES users (id),
   created TIMESTAMP WITHOUT TIME ZONE NOT NULL,
   CONSTRAINT pk_request PRIMARY KEY (id)
-);
\ No newline at end of file
+);
+
+CREATE INDEX IF NOT EXISTS idx_requests_requestor_created ON requests (requestor_id, created DESC);
+CREATE INDEX IF NOT EXISTS idx_requests_created ON requests (created DESC);